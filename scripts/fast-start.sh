@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# Startup-optimized launch: Spring AOT bean definitions plus an AppCDS archive from a training run.
+#
+#   mvn -Pfast-start package          # jar with AOT-generated initializers
+#   scripts/fast-start.sh train       # extract the jar, boot once to refresh, dump target/fast-start/app.jsa
+#   scripts/fast-start.sh run         # start with AOT + the archive (extra args go to the app)
+#   scripts/fast-start.sh bench [n]   # time-to-first-request for plain, AOT and AOT+CDS starts, n runs each
+#
+# Every mode reads the usual SPRING_DATASOURCE_* / SUPPORT_EMAIL / ... environment. The training run needs
+# the database too: it applies pending migrations and validates the schema, then exits before serving.
+# Retrain whenever the jar or the JDK changes; a stale archive is ignored with a warning, not an error.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+DIR=target/fast-start
+ARCHIVE=$DIR/app.jsa
+PORT="${SERVER_PORT:-8080}"
+
+jar_file() {
+    ls target/ProjectHub-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1
+}
+
+app_jar() {
+    echo "$DIR/$(basename "$(jar_file)")"
+}
+
+train() {
+    local jar
+    jar="$(jar_file)"
+    [ -n "$jar" ] || { echo "No jar in target/, run: mvn -Pfast-start package" >&2; exit 1; }
+    rm -rf "$DIR"
+    # CDS only maps classes loaded from plain jars on the class path, not from the nested fat-jar layout
+    "$JAVA" -Djarmode=tools -jar "$jar" extract --destination "$DIR"
+    "$JAVA" -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+        -jar "$(app_jar)" "$@"
+    echo "Wrote $ARCHIVE"
+}
+
+run() {
+    exec "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$(app_jar)" "$@"
+}
+
+# Milliseconds from launch until /actuator/health first answers 200
+time_to_first_request() {
+    local start pid elapsed
+    start=$(date +%s%N)
+    "$JAVA" "$@" -jar "$(app_jar)" --server.port="$PORT" --projecthub.archive.enabled=false >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" >/dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "app exited during startup" >&2; return 1; }
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+bench() {
+    local runs="${1:-5}" label flags times median
+    [ -f "$ARCHIVE" ] || { echo "No $ARCHIVE, run: $0 train" >&2; exit 1; }
+    printf '%-10s %10s   %s\n' mode median_ms runs_ms
+    for label in jvm aot aot+cds; do
+        case "$label" in
+            jvm) flags=() ;;
+            aot) flags=(-Dspring.aot.enabled=true) ;;
+            aot+cds) flags=(-Dspring.aot.enabled=true -XX:SharedArchiveFile="$ARCHIVE") ;;
+        esac
+        times=()
+        for _ in $(seq "$runs"); do
+            times+=("$(time_to_first_request "${flags[@]}")")
+        done
+        median=$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (runs + 1) / 2 ))p")
+        printf '%-10s %10s   %s\n' "$label" "$median" "${times[*]}"
+    done
+}
+
+case "${1:-}" in
+    train) shift; train "$@" ;;
+    run) shift; run "$@" ;;
+    bench) shift; bench "$@" ;;
+    *) echo "usage: $0 train|run|bench [runs]" >&2; exit 2 ;;
+esac
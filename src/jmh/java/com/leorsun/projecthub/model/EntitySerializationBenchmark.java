@@ -0,0 +1,86 @@
+package com.leorsun.projecthub.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of the board (GET /projects/{id}/tasks) and member list endpoints, with the mapper configured
+ * the way Spring Boot configures the one MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntitySerializationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Task> tasks;
+    private List<ProjectMember> members;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "secret");
+            user.setId((long) i);
+            user.setEnabled(true);
+            users.add(user);
+        }
+        Project project = new Project();
+        project.setId(1L);
+        project.setKey("BENCH");
+
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        tasks = new ArrayList<>(size);
+        members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setProject(project);
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setPriority(priorities[i % priorities.length]);
+            task.setAssignee(users.get(i % users.size()));
+            task.setReporter(users.get((i + 1) % users.size()));
+            task.setDueDate(i % 3 == 0 ? null : LocalDate.of(2025, 6, 1).plusDays(i % 90));
+            task.setOrderIndex(i);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+
+            ProjectMember member = new ProjectMember();
+            member.setId((long) i);
+            member.setProject(project);
+            member.setUser(users.get(i % users.size()));
+            member.setRole(ProjectRole.values()[i % ProjectRole.values().length]);
+            member.setJoinedAt(now);
+            members.add(member);
+        }
+    }
+
+    @Benchmark
+    public byte[] tasks() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] members() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(members);
+    }
+}
@@ -0,0 +1,33 @@
+package com.leorsun.projecthub.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The role check behind every guarded project and task endpoint; all 16 (actual, required) pairs per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectRoleBenchmark {
+    private ProjectRole[] roles;
+
+    @Setup
+    public void setUp() {
+        roles = ProjectRole.values();
+    }
+
+    @Benchmark
+    public void atLeast(Blackhole bh) {
+        for (ProjectRole actual : roles) {
+            for (ProjectRole required : roles) {
+                bh.consume(actual.atLeast(required));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.leorsun.projecthub.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode time of a 10k-task board in each wire format the board endpoint negotiates, with the mappers built the
+ * way JsonConfiguration builds them. json-gzip is what a client sending Accept-Encoding: gzip gets (Tomcat's
+ * default deflater level). Encoded sizes are printed once per trial, since JMH itself only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "json-gzip", "cbor", "smile"})
+    public String format;
+
+    @Param({"10000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private boolean gzip;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json", "json-gzip" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        gzip = format.equals("json-gzip");
+        tasks = board(size);
+        System.out.printf(Locale.ROOT, "%n%s, %d tasks: %,d bytes%n", format, size, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encodeBoard() throws IOException {
+        return encode();
+    }
+
+    private byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            mapper.writeValue(out, tasks);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Task> board(int size) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "secret");
+            user.setId((long) i);
+            user.setEnabled(true);
+            users.add(user);
+        }
+        Project project = new Project();
+        project.setId(1L);
+        project.setKey("BENCH");
+
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setProject(project);
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setPriority(priorities[i % priorities.length]);
+            task.setAssignee(users.get(i % users.size()));
+            task.setReporter(users.get((i + 1) % users.size()));
+            task.setDueDate(i % 3 == 0 ? null : LocalDate.of(2025, 6, 1).plusDays(i % 90));
+            task.setOrderIndex(i);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
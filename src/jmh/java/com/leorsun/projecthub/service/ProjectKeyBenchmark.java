@@ -0,0 +1,30 @@
+package com.leorsun.projecthub.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key normalisation on project create. Suffixes come from a counter row in KeyAllocator (one update), so only
+ * the string work is left to measure here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectKeyBenchmark {
+    @Param({"web-app", "  Website Redesign 2025  "})
+    public String input;
+
+    @Benchmark
+    public String sanitizeKey() {
+        return KeyAllocator.sanitizeKey(input);
+    }
+
+    @Benchmark
+    public String generatedKey() {
+        return KeyAllocator.withSuffix(KeyAllocator.keyBase(input), 1);
+    }
+}
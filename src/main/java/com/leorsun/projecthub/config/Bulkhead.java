@@ -0,0 +1,66 @@
+package com.leorsun.projecthub.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent use of a scarce downstream resource. Callers beyond the limit park on a fair semaphore,
+ * which is cheap on virtual threads, and give up after {@code maxWait} instead of piling onto the resource.
+ */
+public class Bulkhead implements MeterBinder {
+    private final String name;
+    private final int limit;
+    private final Semaphore permits;
+    private final Duration maxWait;
+
+    public Bulkhead(String name, int limit, Duration maxWait) {
+        this.name = name;
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true);
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Waits up to the configured time for a permit. Returns false on timeout; the caller must not proceed.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    // Bound automatically for bulkhead beans; others are bound by whoever creates them
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("projecthub.bulkhead.limit", this, Bulkhead::getLimit).tag("name", name).register(registry);
+        Gauge.builder("projecthub.bulkhead.in.use", this, Bulkhead::getInUse).tag("name", name).register(registry);
+        Gauge.builder("projecthub.bulkhead.queued", this, Bulkhead::getQueued).tag("name", name).register(registry);
+    }
+}
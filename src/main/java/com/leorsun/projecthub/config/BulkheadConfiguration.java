@@ -0,0 +1,59 @@
+package com.leorsun.projecthub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulkheads in front of the connection pool and the SMTP server. Request threads may be virtual
+ * (spring.threads.virtual.enabled), so thousands can be in flight; these keep the number actually
+ * touching each resource bounded.
+ */
+@Configuration
+public class BulkheadConfiguration {
+
+    // static: needed by the post-processor below before regular beans exist
+    @Bean
+    public static Bulkhead databaseBulkhead(Environment env) {
+        // Default to the pool size so Hikari's own connection-timeout never fires under load
+        int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        return new Bulkhead("database",
+                env.getProperty("projecthub.bulkhead.database.permits", Integer.class, poolSize),
+                env.getProperty("projecthub.bulkhead.database.max-wait", Duration.class, Duration.ofSeconds(30)));
+    }
+
+    @Bean
+    public Bulkhead mailBulkhead(Environment env) {
+        return new Bulkhead("mail",
+                env.getProperty("projecthub.bulkhead.mail.permits", Integer.class, 4),
+                env.getProperty("projecthub.bulkhead.mail.max-wait", Duration.class, Duration.ofSeconds(30)));
+    }
+
+    // Sends after commit run here, off the committing thread; the mail bulkhead still bounds live SMTP sessions
+    @Bean(destroyMethod = "close")
+    public ExecutorService mailExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-", 0).factory());
+    }
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(@Qualifier("databaseBulkhead") ObjectProvider<Bulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the pool itself: routing layers above it must not take a second permit
+                if (bean instanceof HikariDataSource pool) {
+                    return new BulkheadDataSource(pool, bulkhead.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
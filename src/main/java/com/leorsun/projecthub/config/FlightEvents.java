@@ -0,0 +1,82 @@
+package com.leorsun.projecthub.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the domain operations, so a recording lines them up with GC pauses, lock
+ * contention and I/O on the same timeline. Each one is timed from begin() to commit(); while no recording has
+ * them enabled the JIT reduces them to nothing. Thresholds live in jfr/projecthub.jfc.
+ */
+public final class FlightEvents {
+    private static final String CATEGORY = "ProjectHub";
+
+    private FlightEvents() {
+    }
+
+    @Name("projecthub.TokenVerification")
+    @Label("Token Verification")
+    @Description("JWT parse, user lookup and signature/expiry check for one request")
+    @Category({CATEGORY, "Security"})
+    @StackTrace(false)
+    public static final class TokenVerification extends Event {
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("projecthub.MembershipCheck")
+    @Label("Membership Check")
+    @Category({CATEGORY, "Security"})
+    @StackTrace(false)
+    public static final class MembershipCheck extends Event {
+        @Label("Project Id")
+        public long projectId;
+        @Label("User Id")
+        public long userId;
+        @Label("Cached")
+        public boolean cached;
+        @Label("Role")
+        public String role;
+    }
+
+    @Name("projecthub.TaskOperation")
+    @Label("Task Operation")
+    @Description("Task create, move or assign; rows is the number of task rows read or written")
+    @Category({CATEGORY, "Tasks"})
+    @StackTrace(false)
+    public static final class TaskOperation extends Event {
+        @Label("Operation")
+        public String operation;
+        @Label("Project Id")
+        public long projectId;
+        @Label("Task Id")
+        public long taskId;
+        @Label("Rows")
+        public int rows;
+    }
+
+    @Name("projecthub.InviteCreated")
+    @Label("Invite Created")
+    @Category({CATEGORY, "Projects"})
+    @StackTrace(false)
+    public static final class InviteCreated extends Event {
+        @Label("Project Id")
+        public long projectId;
+        @Label("Role")
+        public String role;
+    }
+
+    @Name("projecthub.MailDispatch")
+    @Label("Mail Dispatch")
+    @Description("One SMTP send, including the wait for a mail bulkhead slot")
+    @Category({CATEGORY, "Mail"})
+    @StackTrace(false)
+    public static final class MailDispatch extends Event {
+        @Label("Outcome")
+        public String outcome;
+    }
+}
@@ -0,0 +1,100 @@
+package com.leorsun.projecthub.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Continuous flight recording with the JDK "default" settings plus our {@link FlightEvents} (jfr/projecthub.jfc),
+ * kept on disk within projecthub.jfr.max-age / max-size. GET /actuator/jfr on the management port dumps what the
+ * recorder currently holds as a .jfr file for JDK Mission Control or {@code jfr print}. Opt in with
+ * projecthub.jfr.enabled.
+ */
+@WebEndpoint(id = "jfr")
+@Component
+@ConditionalOnProperty(name = "projecthub.jfr.enabled", havingValue = "true")
+public class FlightRecording implements AutoCloseable {
+    private final Recording recording;
+
+    public FlightRecording(Environment env) throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource("jfr/projecthub.jfc").getInputStream(),
+                StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        recording = new Recording(settings);
+        recording.setName("projecthub");
+        recording.setToDisk(true);
+        recording.setMaxAge(env.getProperty("projecthub.jfr.max-age", Duration.class, Duration.ofHours(6)));
+        recording.setMaxSize(env.getProperty("projecthub.jfr.max-size", DataSize.class, DataSize.ofMegabytes(250)).toBytes());
+        recording.start();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() throws IOException {
+        Path file = Files.createTempFile("projecthub-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFile(file));
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+
+    /** A dump that deletes itself once it has been streamed to the caller. */
+    private static final class TemporaryFile extends FileSystemResource {
+        private final Path path;
+
+        TemporaryFile(Path path) {
+            super(path);
+            this.path = path;
+        }
+
+        @Override
+        public String getFilename() {
+            return "projecthub.jfr";
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            };
+        }
+    }
+}
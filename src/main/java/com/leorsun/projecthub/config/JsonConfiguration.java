@@ -0,0 +1,65 @@
+package com.leorsun.projecthub.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Response converters: JSON, plus CBOR (application/cbor) and Smile (application/x-jackson-smile) for clients
+ * that ask for them in Accept. All three are built from Boot's customized mapper builder, so they emit the same
+ * shapes; each replaces the framework default of its kind. Response writing, including lazy loads it triggers,
+ * shows up as the "serialize" request phase.
+ */
+@Configuration
+public class JsonConfiguration {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.SERIALIZE)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.SERIALIZE)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.SERIALIZE)) {
+                    super.writeInternal(object, type, outputMessage);
+                }
+            }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.leorsun.projecthub.config;
 
 import com.leorsun.projecthub.service.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,15 +26,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            HandlerExceptionResolver handlerExceptionResolver,
+            MeterRegistry meterRegistry
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -54,16 +59,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // jwt.parse: signature check and claims decode; jwt.authentication: the whole step including the user lookup
+        Timer.Sample sample = Timer.start(meterRegistry);
+        FlightEvents.TokenVerification event = new FlightEvents.TokenVerification();
+        event.begin();
+        String outcome = "invalid";
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            final String userEmail;
+            try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.JWT)) {
+                userEmail = meterRegistry.timer("projecthub.jwt.parse").recordCallable(() -> jwtService.extractUsername(jwt));
+            }
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails;
+                try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.USER)) {
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                }
+                boolean valid;
+                try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.JWT)) {
+                    valid = jwtService.isTokenValid(jwt, userDetails);
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (valid) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -72,7 +92,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "authenticated";
+                } else {
+                    outcome = "rejected";
                 }
+            } else {
+                outcome = "skipped";
             }
         } catch (Exception exception) {
             // Only handle JWT-related errors here; do not swallow downstream exceptions
@@ -80,6 +105,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"Invalid or expired token\"}");
             return;
+        } finally {
+            sample.stop(meterRegistry.timer("projecthub.jwt.authentication", "outcome", outcome));
+            event.outcome = outcome;
+            event.commit();
         }
 
         // Proceed with the rest of the chain outside of the JWT try/catch so controller errors aren't turned into 401s
@@ -0,0 +1,79 @@
+package com.leorsun.projecthub.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts SQL statements per request, including the JWT user lookup and lazy loads during serialization, and
+ * warns when a route goes over its budget or repeats one statement often enough to look like an N+1. Meant for
+ * test and staging (projecthub.query-budget.enabled). Budgets are per "METHOD route-template", e.g.
+ * projecthub.query-budget.routes[GET\ /api/projects/{projectId}/tasks]=3 in application.properties, falling back to
+ * projecthub.query-budget.default.
+ */
+@Component
+@ConditionalOnProperty(name = "projecthub.query-budget.enabled", havingValue = "true")
+// Inside RequestTimingFilter
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+    private final int repeatThreshold;
+    private final Map<String, Integer> budgets;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry, Environment env) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = env.getProperty("projecthub.query-budget.default", Integer.class, 10);
+        this.repeatThreshold = env.getProperty("projecthub.query-budget.repeat-threshold", Integer.class, 3);
+        this.budgets = Binder.get(env).bind("projecthub.query-budget.routes", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            filterChain.doFilter(request, response);
+
+            // Set by the dispatcher once a handler matched; unmatched requests have no stable key to report under
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern == null) {
+                return;
+            }
+            String route = request.getMethod() + " " + pattern;
+            DistributionSummary.builder("projecthub.request.queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern.toString())
+                    .register(meterRegistry)
+                    .record(scope.total());
+
+            int budget = budgets.getOrDefault(route, defaultBudget);
+            if (scope.total() > budget) {
+                log.warn("{} issued {} SQL statements, budget is {}", route, scope.total(), budget);
+            }
+            scope.repeated(repeatThreshold).forEach((sql, count) ->
+                    log.warn("{} ran the same statement {} times, possible N+1: {}", route, count, sql));
+        }
+    }
+}
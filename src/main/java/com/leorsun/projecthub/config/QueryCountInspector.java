@@ -0,0 +1,15 @@
+package com.leorsun.projecthub.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered through hibernate.session_factory.statement_inspector; a thread-local lookup per statement when no
+ * {@link QueryCounter} scope is open.
+ */
+public class QueryCountInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,72 @@
+package com.leorsun.projecthub.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a scope is open (fed by
+ * {@link QueryCountInspector}). Used per request by {@link QueryBudgetFilter} and directly by tests to pin
+ * down how many statements an operation issues. Scopes nest; an inner statement counts for every open scope.
+ */
+public final class QueryCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.record(sql);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        // Hibernate binds every value as a parameter, so an N+1 shows up as the same SQL text over and over
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int total;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            total++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public Map<String, Integer> statements() {
+            return statements;
+        }
+
+        /** Statements issued at least {@code threshold} times, the typical shape of lazy loads in a loop. */
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.forEach((sql, count) -> {
+                if (count >= threshold) {
+                    repeated.put(sql, count);
+                }
+            });
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.leorsun.projecthub.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary/replica split, enabled by setting projecthub.datasource.replica.url. The primary keeps the usual
+ * spring.datasource.* settings; the replica takes url/username/password and hikari.* under
+ * projecthub.datasource.replica. Each pool gets its own bulkhead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "projecthub.datasource.replica.url")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard(Environment env) {
+        return new ReadYourWritesGuard(env.getProperty("projecthub.datasource.read-your-writes-window", Duration.class, Duration.ofSeconds(5)));
+    }
+
+    // Ahead of the security chain, so its user lookup is routed with the client's pin as well
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesGuard guard) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(guard));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "destroy")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties properties,
+                                                                 Environment env,
+                                                                 @Qualifier("databaseBulkhead") Bulkhead primaryBulkhead,
+                                                                 ReadYourWritesGuard guard,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(env);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = new HikariDataSource();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setJdbcUrl(env.getRequiredProperty("projecthub.datasource.replica.url"));
+        replica.setUsername(env.getProperty("projecthub.datasource.replica.username", properties.determineUsername()));
+        replica.setPassword(env.getProperty("projecthub.datasource.replica.password", properties.determinePassword()));
+        binder.bind("projecthub.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+
+        Bulkhead replicaBulkhead = new Bulkhead("replica", replica.getMaximumPoolSize(), primaryBulkhead.getMaxWait());
+        // Neither pool is a bean, so Boot's Hikari metrics can't find them behind the router
+        meterRegistry.ifAvailable(registry -> {
+            primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicaBulkhead.bindTo(registry);
+        });
+        return new ReadWriteRoutingDataSource(
+                new BulkheadDataSource(primary, primaryBulkhead),
+                new BulkheadDataSource(replica, replicaBulkhead),
+                guard);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Hand the connection back after every transaction so the next one is routed afresh; by default it is
+    // held for the whole open-in-view request and the first transaction would decide for all of them
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
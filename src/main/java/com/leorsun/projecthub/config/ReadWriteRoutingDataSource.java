@@ -0,0 +1,110 @@
+package com.leorsun.projecthub.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Must sit behind a
+ * LazyConnectionDataSourceProxy so the target is picked once the transaction's read-only flag is known.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    enum Target {PRIMARY, REPLICA}
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    // Set while the current transaction holds a replica connection
+    private static final ThreadLocal<Boolean> ON_REPLICA = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesGuard guard;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesGuard guard) {
+        this.primary = primary;
+        this.replica = replica;
+        this.guard = guard;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return Target.PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() != null) {
+            return Target.PRIMARY;
+        }
+        if (guard.isPinnedToPrimary()) {
+            return Target.PRIMARY;
+        }
+        trackReplicaConnection();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Whether the current transaction already reads from the replica. It keeps that connection until it ends,
+     * so {@link #onPrimary} no longer applies to it.
+     */
+    public static boolean holdsReplicaConnection() {
+        return ON_REPLICA.get() != null;
+    }
+
+    /**
+     * Runs work with every connection it acquires taken from the primary, read-only transactions included.
+     * A connection the current transaction already holds is not switched.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY_ONLY.get() != null) {
+            return work.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    // Background work has no client to pin
+    private void pinAfterCommit() {
+        if (!guard.tracksClient() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guard.recordWrite();
+            }
+        });
+    }
+
+    private static void trackReplicaConnection() {
+        if (ON_REPLICA.get() != null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        ON_REPLICA.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ON_REPLICA.remove();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource target : new DataSource[]{primary, replica}) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.leorsun.projecthub.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds each request to {@link ReadYourWritesGuard} for the routing data source; registered with the replica
+ * split in {@link ReadReplicaConfiguration}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private final ReadYourWritesGuard guard;
+
+    public ReadYourWritesFilter(ReadYourWritesGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        try (ReadYourWritesGuard.Scope scope = guard.open(request, response)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
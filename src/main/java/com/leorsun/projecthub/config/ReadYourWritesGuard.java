@@ -0,0 +1,114 @@
+package com.leorsun.projecthub.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps a client's read-only transactions on the primary for {@code window} after its last committed write, so
+ * it never reads around its own change through a lagging replica. The write time travels with the client rather
+ * than living on one node: it is sent back in the {@value #HEADER} header and a cookie of the same name after a
+ * write, and read from either on the next request, whichever node serves it. {@link ReadYourWritesFilter} binds
+ * each request to its thread. A client can only ever pin itself to the primary, so the value needs no signature.
+ */
+public class ReadYourWritesGuard {
+    public static final String HEADER = "X-Last-Write";
+    static final String COOKIE = "last_write";
+
+    private static final ThreadLocal<Client> CURRENT = new ThreadLocal<>();
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWritesGuard(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWritesGuard(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /** Binds the request's last write time to the current thread until the scope is closed. */
+    public Scope open(HttpServletRequest request, HttpServletResponse response) {
+        Client previous = CURRENT.get();
+        CURRENT.set(new Client(response, lastWrite(request)));
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /** Whether the current thread serves a request, i.e. has a client to record writes for. */
+    public boolean tracksClient() {
+        return CURRENT.get() != null;
+    }
+
+    /** Records a committed write for the current request, this request's later reads included. */
+    public void recordWrite() {
+        Client client = CURRENT.get();
+        if (client == null) {
+            return;
+        }
+        long now = clock.millis();
+        client.lastWrite = now;
+        // Writes commit before the body is written, so the headers can still change
+        if (!client.response.isCommitted()) {
+            client.response.setHeader(HEADER, Long.toString(now));
+            client.response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(now))
+                    .path("/").maxAge(window).httpOnly(true).sameSite("Lax").build().toString());
+        }
+    }
+
+    public boolean isPinnedToPrimary() {
+        Client client = CURRENT.get();
+        if (client == null || client.lastWrite == null) {
+            return false;
+        }
+        // Either direction: the time was taken on whichever node handled the write, and clocks drift
+        long age = clock.millis() - client.lastWrite;
+        return Math.abs(age) < window.toMillis();
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        String value = request.getHeader(HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                }
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Client {
+        private final HttpServletResponse response;
+        private Long lastWrite;
+
+        private Client(HttpServletResponse response, Long lastWrite) {
+            this.response = response;
+            this.lastWrite = lastWrite;
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.leorsun.projecthub.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Attributes a request's wall time to named phases on the request thread. Phases don't nest: one opened inside
+ * another counts toward the outer one (the user load's query is "user", not "db"), so the phases add up to the
+ * total and whatever none claimed is reported as "app". Outside a profiled request {@link #phase} is a no-op.
+ */
+public final class RequestTiming {
+    public static final String JWT = "jwt";
+    public static final String USER = "user";
+    public static final String AUTHZ = "authz";
+    public static final String DB = "db";
+    public static final String SERIALIZE = "serialize";
+    public static final String MAIL = "mail";
+    public static final String APP = "app";
+
+    private static final ThreadLocal<Profile> CURRENT = new ThreadLocal<>();
+    private static final Phase NOOP = () -> {
+    };
+
+    private RequestTiming() {
+    }
+
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    static Profile start() {
+        Profile profile = new Profile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static Phase phase(String name) {
+        Profile profile = CURRENT.get();
+        if (profile == null || profile.current != null) {
+            return NOOP;
+        }
+        profile.enter(name);
+        return profile::exit;
+    }
+
+    static final class Profile implements AutoCloseable {
+        private final long start = System.nanoTime();
+        private final Map<String, Long> nanos = new LinkedHashMap<>();
+        private String current;
+        private long mark;
+        private long end;
+
+        private void enter(String name) {
+            current = name;
+            mark = System.nanoTime();
+        }
+
+        private void exit() {
+            nanos.merge(current, System.nanoTime() - mark, Long::sum);
+            current = null;
+        }
+
+        long totalNanos() {
+            return (end == 0 ? System.nanoTime() : end) - start;
+        }
+
+        /** Phases in first-entered order, then "app" for the unclaimed remainder. */
+        Map<String, Long> phases() {
+            Map<String, Long> phases = new LinkedHashMap<>(nanos);
+            long claimed = nanos.values().stream().mapToLong(Long::longValue).sum();
+            phases.put(APP, Math.max(0, totalNanos() - claimed));
+            return phases;
+        }
+
+        @Override
+        public void close() {
+            end = System.nanoTime();
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.leorsun.projecthub.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Charges repository calls to the "db" phase of the current request, unless they run inside another phase.
+ */
+@Aspect
+@Component
+public class RequestTimingAspect {
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.DB)) {
+            return joinPoint.proceed();
+        }
+    }
+}
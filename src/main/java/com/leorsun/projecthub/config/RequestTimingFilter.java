@@ -0,0 +1,88 @@
+package com.leorsun.projecthub.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Profiles every request into {@link RequestTiming} phases and logs the ones slower than
+ * projecthub.request-timing.slow-threshold with their top phases. With projecthub.request-timing.server-timing
+ * on, the breakdown is also returned as a Server-Timing header; that buffers the response body until the
+ * handler is done, so it is meant for staging and debugging rather than production.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+    private static final int TOP_PHASES = 3;
+
+    private final boolean serverTiming;
+    private final long slowThresholdNanos;
+
+    public RequestTimingFilter(Environment env) {
+        this.serverTiming = env.getProperty("projecthub.request-timing.server-timing", Boolean.class, false);
+        this.slowThresholdNanos = env.getProperty("projecthub.request-timing.slow-threshold", Duration.class,
+                Duration.ofSeconds(1)).toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        // Headers can't be added once the body starts streaming, so hold it back when the header is wanted
+        ContentCachingResponseWrapper buffered = serverTiming ? new ContentCachingResponseWrapper(response) : null;
+        RequestTiming.Profile profile = RequestTiming.start();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            profile.close();
+            Map<String, Long> phases = profile.phases();
+            if (buffered != null) {
+                buffered.setHeader("Server-Timing", serverTiming(phases, profile.totalNanos()));
+                buffered.copyBodyToResponse();
+            }
+            if (profile.totalNanos() >= slowThresholdNanos) {
+                logSlow(request, response, phases, profile.totalNanos());
+            }
+        }
+    }
+
+    private static String serverTiming(Map<String, Long> phases, long totalNanos) {
+        StringBuilder header = new StringBuilder();
+        phases.forEach((name, nanos) -> header.append(name).append(";dur=").append(millis(nanos)).append(", "));
+        return header.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    private static void logSlow(HttpServletRequest request, HttpServletResponse response, Map<String, Long> phases, long totalNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String top = phases.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_PHASES)
+                .map(e -> e.getKey() + "=" + millis(e.getValue()) + "ms")
+                .collect(Collectors.joining(" "));
+        log.warn("slow request method={} route={} status={} total={}ms {}", request.getMethod(),
+                pattern != null ? pattern : request.getRequestURI(), response.getStatus(), millis(totalNanos), top);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,72 @@
+package com.leorsun.projecthub.config;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Fails startup when an index the hot query paths rely on is missing, e.g. after a migration was skipped or an
+ * index was dropped by hand. Runs once the context (and Flyway) is up; only checks PostgreSQL.
+ */
+@Component
+@ConditionalOnProperty(name = "projecthub.schema.verify-indexes", havingValue = "true")
+public class SchemaIndexVerifier implements ApplicationRunner {
+    static final List<String> EXPECTED_INDEXES = List.of(
+            "idx_tasks_project_status_order",
+            "idx_tasks_project_updated",
+            "idx_tasks_assignee_status_due",
+            "idx_tasks_reporter_status_due",
+            "idx_project_members_user",
+            "idx_project_invites_project_email",
+            "idx_users_email_lower",
+            "idx_users_email_lower_pattern",
+            "idx_users_username_lower",
+            "idx_users_username_lower_pattern",
+            "idx_projects_key_lower",
+            "idx_projects_key_lower_pattern",
+            "idx_project_deletions_status",
+            "uk_tasks_project_number",
+            "idx_archived_tasks_project_archived",
+            "idx_tasks_done_updated",
+            "uk_task_dependencies_edge",
+            "idx_task_dependencies_project",
+            "idx_task_dependencies_blocked",
+            "idx_tasks_parent",
+            "idx_task_closure_descendant",
+            "uk_labels_project_name_lower",
+            "idx_task_labels_label",
+            "idx_archived_task_labels_label"
+    );
+
+    private final DataSource dataSource;
+
+    public SchemaIndexVerifier(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        }
+        Set<String> present = new HashSet<>(new JdbcTemplate(dataSource).queryForList(
+                "select indexname from pg_indexes where schemaname = current_schema()", String.class));
+        Set<String> missing = new TreeSet<>(EXPECTED_INDEXES);
+        missing.removeAll(present);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes " + missing + "; run the Flyway migrations");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.leorsun.projecthub.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Times every public TaskService and ProjectService operation as projecthub.service, tagged with the service,
+ * the method and an outcome derived like http.server.requests' (SUCCESS, CLIENT_ERROR, SERVER_ERROR). Runs
+ * outside the transaction advice, so commit time is included.
+ */
+@Aspect
+@Component
+@Order(0)
+public class ServiceMetricsAspect {
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.leorsun.projecthub.service.TaskService.*(..)) || " +
+            "execution(public * com.leorsun.projecthub.service.ProjectService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SERVER_ERROR";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "SUCCESS";
+            return result;
+        } catch (ResponseStatusException e) {
+            outcome = e.getStatusCode().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("projecthub.service")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
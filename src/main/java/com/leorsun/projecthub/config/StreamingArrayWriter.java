@@ -0,0 +1,110 @@
+package com.leorsun.projecthub.config;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a response array element by element as a source produces them, so large lists are never held in memory
+ * as a whole. The format is negotiated from Accept against the same Jackson converters MVC uses (JSON, CBOR,
+ * Smile), so the elements come out exactly as they would in a List response. Nothing is written until the first
+ * element arrives, which leaves the source free to fail with a 403/404 first.
+ */
+@Component
+public class StreamingArrayWriter {
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+
+    public StreamingArrayWriter(ContentNegotiationManager contentNegotiationManager,
+                                MappingJackson2HttpMessageConverter json,
+                                MappingJackson2CborHttpMessageConverter cbor,
+                                MappingJackson2SmileHttpMessageConverter smile) {
+        this.contentNegotiationManager = contentNegotiationManager;
+        // JSON first: it wins for */* and for clients that send no Accept at all
+        this.converters = List.of(json, cbor, smile);
+    }
+
+    public <T> void write(HttpServletRequest request, HttpServletResponse response, Class<T> type,
+                          Consumer<Consumer<T>> source) throws IOException, HttpMediaTypeNotAcceptableException {
+        Format format = negotiate(request, type);
+        ObjectWriter writer = format.converter().getObjectMapper().writerFor(type);
+        Output output = new Output(response, format.mediaType(), writer);
+        try {
+            source.accept(element -> {
+                try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.SERIALIZE)) {
+                    output.write(element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            output.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Format negotiate(HttpServletRequest request, Class<?> type) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> accepted = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (AbstractJackson2HttpMessageConverter converter : converters) {
+                for (MediaType supported : converter.getSupportedMediaTypes(type)) {
+                    if (acceptable.isCompatibleWith(supported) && converter.canWrite(type, supported)) {
+                        return new Format(converter, supported.isConcrete() ? supported : MediaType.APPLICATION_JSON);
+                    }
+                }
+            }
+        }
+        List<MediaType> supported = converters.stream().flatMap(c -> c.getSupportedMediaTypes(type).stream()).toList();
+        throw new HttpMediaTypeNotAcceptableException(supported);
+    }
+
+    private record Format(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) {
+    }
+
+    private static final class Output {
+        private final HttpServletResponse response;
+        private final MediaType mediaType;
+        private final ObjectWriter writer;
+        private SequenceWriter array;
+
+        Output(HttpServletResponse response, MediaType mediaType, ObjectWriter writer) {
+            this.response = response;
+            this.mediaType = mediaType;
+            this.writer = writer;
+        }
+
+        void write(Object element) throws IOException {
+            if (array == null) {
+                response.setContentType(mediaType.toString());
+                array = writer.writeValuesAsArray(response.getOutputStream());
+            }
+            array.write(element);
+        }
+
+        void finish() throws IOException {
+            if (array == null) {
+                response.setContentType(mediaType.toString());
+                array = writer.writeValuesAsArray(response.getOutputStream());
+            }
+            array.close();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.leorsun.projecthub.controller;
+
+import com.leorsun.projecthub.model.ArchivedTask;
+import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.ArchivedTaskPage;
+import com.leorsun.projecthub.service.TaskArchiveService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class ArchiveController {
+    private final TaskArchiveService archiveService;
+
+    public ArchiveController(TaskArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
+
+    @GetMapping("/api/projects/{projectId}/archived-tasks")
+    public ResponseEntity<ArchivedTaskPage> list(@PathVariable Long projectId,
+                                                 @RequestParam(required = false) String q,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(archiveService.listArchived(currentUser(), projectId, q, cursor, limit));
+    }
+
+    @GetMapping("/api/archived-tasks/{taskId}")
+    public ResponseEntity<ArchivedTask> get(@PathVariable Long taskId) {
+        return ResponseEntity.ok(archiveService.getArchived(currentUser(), taskId));
+    }
+
+    @PostMapping("/api/archived-tasks/{taskId}/restore")
+    public ResponseEntity<Task> restore(@PathVariable Long taskId) {
+        return ResponseEntity.ok(archiveService.restore(currentUser(), taskId));
+    }
+}
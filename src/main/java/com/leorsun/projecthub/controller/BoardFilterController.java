@@ -0,0 +1,41 @@
+package com.leorsun.projecthub.controller;
+
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.BoardFilterPage;
+import com.leorsun.projecthub.service.BoardFilterService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class BoardFilterController {
+    private final BoardFilterService boardFilterService;
+
+    public BoardFilterController(BoardFilterService boardFilterService) {
+        this.boardFilterService = boardFilterService;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
+
+    // Repeated or comma-separated values: ?label=3,5&labelMode=all&status=TODO,DOING&assignee=12,none
+    @GetMapping("/api/projects/{projectId}/tasks/filter")
+    public ResponseEntity<BoardFilterPage> filter(@PathVariable Long projectId,
+                                                  @RequestParam(name = "label", required = false) List<Long> labels,
+                                                  @RequestParam(defaultValue = "any") String labelMode,
+                                                  @RequestParam(required = false) List<TaskStatus> status,
+                                                  @RequestParam(required = false) List<TaskPriority> priority,
+                                                  @RequestParam(required = false) List<String> assignee,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(boardFilterService.filter(currentUser(), projectId, labels, labelMode,
+                status, priority, assignee, cursor, limit));
+    }
+}
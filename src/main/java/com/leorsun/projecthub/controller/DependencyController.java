@@ -0,0 +1,54 @@
+package com.leorsun.projecthub.controller;
+
+import com.leorsun.projecthub.dto.AddBlockerDto;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.CriticalPath;
+import com.leorsun.projecthub.responses.DependencyEdge;
+import com.leorsun.projecthub.responses.TaskSummary;
+import com.leorsun.projecthub.service.DependencyService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class DependencyController {
+    private final DependencyService dependencyService;
+
+    public DependencyController(DependencyService dependencyService) {
+        this.dependencyService = dependencyService;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
+
+    @PostMapping("/api/tasks/{taskId}/blockers")
+    public ResponseEntity<DependencyEdge> addBlocker(@PathVariable Long taskId, @RequestBody AddBlockerDto dto) {
+        return ResponseEntity.ok(dependencyService.addBlocker(currentUser(), taskId, dto.getBlockerId()));
+    }
+
+    @DeleteMapping("/api/tasks/{taskId}/blockers/{blockerId}")
+    public ResponseEntity<?> removeBlocker(@PathVariable Long taskId, @PathVariable Long blockerId) {
+        dependencyService.removeBlocker(currentUser(), taskId, blockerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/api/projects/{projectId}/dependencies")
+    public ResponseEntity<List<DependencyEdge>> list(@PathVariable Long projectId) {
+        return ResponseEntity.ok(dependencyService.listDependencies(currentUser(), projectId));
+    }
+
+    @GetMapping("/api/projects/{projectId}/tasks/ready")
+    public ResponseEntity<List<TaskSummary>> ready(@PathVariable Long projectId) {
+        return ResponseEntity.ok(dependencyService.readyTasks(currentUser(), projectId));
+    }
+
+    @GetMapping("/api/projects/{projectId}/critical-path")
+    public ResponseEntity<CriticalPath> criticalPath(@PathVariable Long projectId) {
+        return ResponseEntity.ok(dependencyService.criticalPath(currentUser(), projectId));
+    }
+}
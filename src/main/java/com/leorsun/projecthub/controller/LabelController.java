@@ -0,0 +1,59 @@
+package com.leorsun.projecthub.controller;
+
+import com.leorsun.projecthub.dto.CreateLabelDto;
+import com.leorsun.projecthub.model.Label;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.service.LabelService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class LabelController {
+    private final LabelService labelService;
+
+    public LabelController(LabelService labelService) {
+        this.labelService = labelService;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
+
+    @PostMapping("/api/projects/{projectId}/labels")
+    public ResponseEntity<Label> create(@PathVariable Long projectId, @RequestBody CreateLabelDto dto) {
+        return ResponseEntity.ok(labelService.createLabel(currentUser(), projectId, dto));
+    }
+
+    @GetMapping("/api/projects/{projectId}/labels")
+    public ResponseEntity<List<Label>> list(@PathVariable Long projectId) {
+        return ResponseEntity.ok(labelService.listLabels(currentUser(), projectId));
+    }
+
+    @DeleteMapping("/api/projects/{projectId}/labels/{labelId}")
+    public ResponseEntity<?> delete(@PathVariable Long projectId, @PathVariable Long labelId) {
+        labelService.deleteLabel(currentUser(), projectId, labelId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/api/tasks/{taskId}/labels")
+    public ResponseEntity<List<Label>> labelsOf(@PathVariable Long taskId) {
+        return ResponseEntity.ok(labelService.labelsOf(currentUser(), taskId));
+    }
+
+    @PutMapping("/api/tasks/{taskId}/labels/{labelId}")
+    public ResponseEntity<?> addLabel(@PathVariable Long taskId, @PathVariable Long labelId) {
+        labelService.addLabel(currentUser(), taskId, labelId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/api/tasks/{taskId}/labels/{labelId}")
+    public ResponseEntity<?> removeLabel(@PathVariable Long taskId, @PathVariable Long labelId) {
+        labelService.removeLabel(currentUser(), taskId, labelId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,9 +4,12 @@ import com.leorsun.projecthub.dto.CreateProjectDto;
 import com.leorsun.projecthub.dto.InviteRequestDto;
 import com.leorsun.projecthub.dto.UpdateProjectDto;
 import com.leorsun.projecthub.model.Project;
+import com.leorsun.projecthub.model.ProjectDeletion;
 import com.leorsun.projecthub.model.ProjectInvite;
 import com.leorsun.projecthub.model.ProjectMember;
 import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.MemberSuggestion;
+import com.leorsun.projecthub.responses.ProjectSummary;
 import com.leorsun.projecthub.service.ProjectService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -35,8 +38,10 @@ public class ProjectController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Project>> mine() {
-        return ResponseEntity.ok(projectService.listMyProjects(currentUser()));
+    public ResponseEntity<List<ProjectSummary>> mine(@RequestParam(required = false) Integer page,
+                                                     @RequestParam(required = false) Integer size,
+                                                     @RequestParam(defaultValue = "activity") String sort) {
+        return ResponseEntity.ok(projectService.listMyProjects(currentUser(), page, size, sort));
     }
 
     @GetMapping("/{projectId}")
@@ -52,7 +57,12 @@ public class ProjectController {
     @DeleteMapping("/{projectId}")
     public ResponseEntity<?> delete(@PathVariable Long projectId) {
         projectService.deleteProject(currentUser(), projectId);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/{projectId}/deletion")
+    public ResponseEntity<ProjectDeletion> deletionStatus(@PathVariable Long projectId) {
+        return ResponseEntity.ok(projectService.getDeletionStatus(currentUser(), projectId));
     }
 
     @GetMapping("/{projectId}/members")
@@ -60,6 +70,13 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.listMembers(currentUser(), projectId));
     }
 
+    @GetMapping("/{projectId}/members/autocomplete")
+    public ResponseEntity<List<MemberSuggestion>> autocompleteMembers(@PathVariable Long projectId,
+                                                                      @RequestParam(defaultValue = "") String q,
+                                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(projectService.autocompleteMembers(currentUser(), projectId, q, limit));
+    }
+
     @DeleteMapping("/{projectId}/members/{userId}")
     public ResponseEntity<?> removeMember(@PathVariable Long projectId, @PathVariable Long userId) {
         projectService.removeMember(currentUser(), projectId, userId);
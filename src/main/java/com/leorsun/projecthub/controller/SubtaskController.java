@@ -0,0 +1,44 @@
+package com.leorsun.projecthub.controller;
+
+import com.leorsun.projecthub.dto.SetParentDto;
+import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.SubtaskSummary;
+import com.leorsun.projecthub.responses.TaskRollup;
+import com.leorsun.projecthub.service.SubtaskService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class SubtaskController {
+    private final SubtaskService subtaskService;
+
+    public SubtaskController(SubtaskService subtaskService) {
+        this.subtaskService = subtaskService;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
+
+    @GetMapping("/api/tasks/{taskId}/subtasks")
+    public ResponseEntity<List<SubtaskSummary>> subtasks(@PathVariable Long taskId,
+                                                         @RequestParam(required = false) Integer depth) {
+        return ResponseEntity.ok(subtaskService.listSubtasks(currentUser(), taskId, depth));
+    }
+
+    @GetMapping("/api/tasks/{taskId}/rollup")
+    public ResponseEntity<TaskRollup> rollup(@PathVariable Long taskId) {
+        return ResponseEntity.ok(subtaskService.rollup(currentUser(), taskId));
+    }
+
+    @PatchMapping("/api/tasks/{taskId}/parent")
+    public ResponseEntity<Task> setParent(@PathVariable Long taskId, @RequestBody SetParentDto dto) {
+        return ResponseEntity.ok(subtaskService.setParent(currentUser(), taskId, dto.getParentId()));
+    }
+}
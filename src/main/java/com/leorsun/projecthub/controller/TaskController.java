@@ -1,5 +1,6 @@
 package com.leorsun.projecthub.controller;
 
+import com.leorsun.projecthub.config.StreamingArrayWriter;
 import com.leorsun.projecthub.dto.AssignTaskDto;
 import com.leorsun.projecthub.dto.CreateTaskDto;
 import com.leorsun.projecthub.dto.MoveTaskDto;
@@ -7,19 +8,24 @@ import com.leorsun.projecthub.dto.UpdateTaskDto;
 import com.leorsun.projecthub.model.Task;
 import com.leorsun.projecthub.model.User;
 import com.leorsun.projecthub.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 public class TaskController {
     private final TaskService taskService;
+    private final StreamingArrayWriter streamingArrayWriter;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, StreamingArrayWriter streamingArrayWriter) {
         this.taskService = taskService;
+        this.streamingArrayWriter = streamingArrayWriter;
     }
 
     private User currentUser() {
@@ -32,9 +38,12 @@ public class TaskController {
         return ResponseEntity.ok(taskService.createTask(currentUser(), projectId, dto));
     }
 
+    // Streamed: large boards are written as the rows come in rather than built up as a list first
     @GetMapping("/api/projects/{projectId}/tasks")
-    public ResponseEntity<List<Task>> list(@PathVariable Long projectId) {
-        return ResponseEntity.ok(taskService.listTasks(currentUser(), projectId));
+    public void list(@PathVariable Long projectId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        User user = currentUser();
+        streamingArrayWriter.write(request, response, Task.class, sink -> taskService.streamTasks(user, projectId, sink));
     }
 
     @GetMapping("/api/tasks/{taskId}")
@@ -42,6 +51,11 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getTask(currentUser(), taskId));
     }
 
+    @GetMapping("/api/tasks/by-key/{taskKey}")
+    public ResponseEntity<Task> getByKey(@PathVariable String taskKey) {
+        return ResponseEntity.ok(taskService.getTaskByKey(currentUser(), taskKey));
+    }
+
     @PutMapping("/api/tasks/{taskId}")
     public ResponseEntity<Task> update(@PathVariable Long taskId, @RequestBody UpdateTaskDto dto) {
         return ResponseEntity.ok(taskService.updateTask(currentUser(), taskId, dto));
@@ -1,34 +1,57 @@
 package com.leorsun.projecthub.controller;
 
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
 import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.TaskSummaryPage;
+import com.leorsun.projecthub.responses.UserDirectoryPage;
+import com.leorsun.projecthub.service.TaskService;
 import com.leorsun.projecthub.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RequestMapping("/api/users")
 @RestController
 public class UserController {
     private final UserService userService;
-    public UserController(UserService userService) {
+    private final TaskService taskService;
+    public UserController(UserService userService, TaskService taskService) {
         this.userService = userService;
+        this.taskService = taskService;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (User) authentication.getPrincipal();
     }
 
     @GetMapping("/me")
     public ResponseEntity<User> authenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        return ResponseEntity.ok(currentUser);
+        return ResponseEntity.ok(currentUser());
+    }
+
+    @GetMapping("/me/tasks")
+    public ResponseEntity<TaskSummaryPage> myTasks(@RequestParam(defaultValue = "all") String scope,
+                                                   @RequestParam(required = false) TaskStatus status,
+                                                   @RequestParam(required = false) TaskPriority priority,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueBefore,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.listMyTasks(currentUser(), scope, status, priority, dueBefore, cursor, limit));
     }
 
-    @GetMapping("/")
-    public ResponseEntity<List<User>> allUsers() {
-        List <User> users = userService.allUsers();
-        return ResponseEntity.ok(users);
+    @GetMapping({"", "/"})
+    public ResponseEntity<UserDirectoryPage> directory(@RequestParam(required = false) String q,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.directory(currentUser(), q, cursor, limit));
     }
 }
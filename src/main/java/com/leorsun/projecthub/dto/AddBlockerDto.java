@@ -0,0 +1,10 @@
+package com.leorsun.projecthub.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AddBlockerDto {
+    private Long blockerId;
+}
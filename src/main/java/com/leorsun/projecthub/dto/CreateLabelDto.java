@@ -0,0 +1,11 @@
+package com.leorsun.projecthub.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CreateLabelDto {
+    private String name;
+    private String color; // optional, #rrggbb
+}
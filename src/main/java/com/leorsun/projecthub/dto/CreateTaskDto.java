@@ -14,5 +14,6 @@ public class CreateTaskDto {
     private TaskPriority priority;
     private LocalDate dueDate;
     private Long assigneeId; // optional
+    private Long parentId; // optional, same project
 }
 
@@ -0,0 +1,44 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * A {@link TaskLabel} parked with its archived task, so a restore puts the label back. Goes away with the
+ * archived task or the label.
+ */
+@Entity
+@Table(name = "archived_task_labels",
+        indexes = @Index(name = "idx_archived_task_labels_label", columnList = "label_id, task_id"))
+@IdClass(ArchivedTaskLabel.Key.class)
+@Getter
+@Setter
+public class ArchivedTaskLabel {
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ArchivedTask task;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "label_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Label label;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long task;
+        private Long label;
+    }
+}
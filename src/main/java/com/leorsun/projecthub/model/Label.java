@@ -0,0 +1,44 @@
+package com.leorsun.projecthub.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A project-scoped tag that can be put on any number of the project's tasks (see {@link TaskLabel}). Names are
+ * unique per project ignoring case, enforced by the expression index uk_labels_project_name_lower (V8), which
+ * the mapping cannot declare.
+ */
+@Entity
+@Table(name = "labels")
+@Getter
+@Setter
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Label {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    @JsonIgnore
+    private Project project;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    // #rrggbb, optional
+    @Column(length = 7)
+    private String color;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+}
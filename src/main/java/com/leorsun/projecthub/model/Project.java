@@ -1,14 +1,19 @@
 package com.leorsun.projecthub.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "projects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -33,6 +38,10 @@ public class Project {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Set when deletion is requested; the row itself is purged later by ProjectDeletionWorker
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
@@ -43,5 +52,10 @@ public class Project {
     public void preUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    @JsonIgnore
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
     //TODO add task history(when created and closed)
 }
@@ -0,0 +1,48 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "project_deletions",
+        indexes = @Index(name = "idx_project_deletions_status", columnList = "status, requested_at"))
+@Getter
+@Setter
+public class ProjectDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    // Plain id rather than a relation: the project row is gone once the job completes
+    @Column(name = "project_id", unique = true, nullable = false)
+    private Long projectId;
+
+    @Column(name = "requested_by", nullable = false)
+    private Long requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProjectDeletionStatus status = ProjectDeletionStatus.PENDING;
+
+    private long tasksDeleted;
+    private long invitesDeleted;
+    private long membersDeleted;
+
+    private LocalDateTime requestedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    public void prePersist() {
+        requestedAt = LocalDateTime.now();
+        updatedAt = requestedAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
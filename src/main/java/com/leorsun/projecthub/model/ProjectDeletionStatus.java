@@ -0,0 +1,6 @@
+package com.leorsun.projecthub.model;
+
+public enum ProjectDeletionStatus {
+    PENDING,
+    COMPLETED
+}
@@ -0,0 +1,22 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Last suffix handed out for a generated project key prefix: "WEBAPP" with lastSuffix 3 means WEBAPP3 was the
+ * latest (0 stands for the bare prefix). Rows are only touched through the atomic updates in
+ * ProjectKeyCounterRepository.
+ */
+@Entity
+@Table(name = "project_key_counters")
+@Getter
+@Setter
+public class ProjectKeyCounter {
+    @Id
+    private String prefix;
+
+    @Column(name = "last_suffix", nullable = false)
+    private int lastSuffix;
+}
@@ -0,0 +1,23 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bumped with every membership change of a project, so MembershipCache on every node can tell its cached roles
+ * are out of date. Apart from the projects row like ProjectTaskCounter, and left in place when the project is
+ * purged: a node that missed the deletion still sees the version move.
+ */
+@Entity
+@Table(name = "project_membership_versions")
+@Getter
+@Setter
+public class ProjectMembershipVersion {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,23 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Last task number handed out in a project (KEY-123). One row per project, apart from the projects row so that
+ * allocating a number never locks or invalidates the (cached) project itself.
+ */
+@Entity
+@Table(name = "project_task_counters")
+@Getter
+@Setter
+public class ProjectTaskCounter {
+    // Plain id rather than a relation, like ProjectDeletion: purged together with the project
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "last_number", nullable = false)
+    private long lastNumber;
+}
@@ -0,0 +1,43 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Version and lock row of one task graph of a project. Changes to the graph bump the version and hold the row
+ * until commit; kept apart from {@link ProjectTaskCounter} so they neither wait on task creation nor on changes
+ * to the other graph.
+ */
+@Entity
+@Table(name = "project_task_graphs")
+@IdClass(ProjectTaskGraph.Key.class)
+@Getter
+@Setter
+public class ProjectTaskGraph {
+    // Plain id rather than a relation, like ProjectTaskCounter: purged together with the project
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "graph", length = 20)
+    private TaskGraph graph;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long projectId;
+        private TaskGraph graph;
+    }
+}
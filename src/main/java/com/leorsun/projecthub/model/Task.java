@@ -5,12 +5,23 @@ import lombok.Getter;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_project_status_order", columnList = "project_id, status, order_index"),
+        @Index(name = "idx_tasks_project_updated", columnList = "project_id, updated_at"),
+        @Index(name = "idx_tasks_assignee_status_due", columnList = "assignee_id, status, due_date"),
+        @Index(name = "idx_tasks_reporter_status_due", columnList = "reporter_id, status, due_date"),
+        @Index(name = "idx_tasks_parent", columnList = "parent_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tasks_project_number", columnNames = {"project_id", "task_number"})
+})
 @Getter
 @Setter
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -51,6 +62,30 @@ public class Task {
     @Column(name = "order_index")
     private Integer orderIndex;
 
+    // Per-project number shown as KEY-123; allocated by KeyAllocator when the task is created
+    @Column(name = "task_number")
+    private Long number;
+
+    // Epic -> story -> subtask. Only the direct parent lives here; every ancestor pair is in task_closure.
+    // SET NULL only matters to project purges: TaskService refuses to delete a task that still has subtasks.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    private Task parent;
+
+    @Column(name = "parent_id", insertable = false, updatable = false)
+    private Long parentId;
+
+    // Rollup over all descendants, kept current by TaskService as subtasks are added, moved and finished
+    @ColumnDefault("0")
+    @Column(name = "subtask_count", nullable = false)
+    private int subtaskCount;
+
+    @ColumnDefault("0")
+    @Column(name = "subtasks_done", nullable = false)
+    private int subtasksDone;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
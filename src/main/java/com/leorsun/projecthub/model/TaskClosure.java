@@ -0,0 +1,47 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * One row per (ancestor, descendant) pair of the task hierarchy, depth 1 for a direct child. Tasks have no row
+ * for themselves. Subtrees, ancestor chains and rollups are single index range scans over the primary key
+ * (ancestor side) or idx_task_closure_descendant; rows are only written in bulk by TaskClosureRepository.
+ */
+@Entity
+@Table(name = "task_closure", indexes = @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, ancestor_id"))
+@IdClass(TaskClosure.Key.class)
+@Getter
+@Setter
+public class TaskClosure {
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task ancestor;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task descendant;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long ancestor;
+        private Long descendant;
+    }
+}
@@ -0,0 +1,56 @@
+package com.leorsun.projecthub.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * "blocker blocks blocked": the blocked task should not start before the blocker is DONE. Both tasks belong to
+ * {@code project}. Links go away with either task (ON DELETE CASCADE), including when it is archived.
+ */
+@Entity
+@Table(name = "task_dependencies",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_dependencies_edge", columnNames = {"blocker_id", "blocked_id"}),
+        indexes = {
+                @Index(name = "idx_task_dependencies_project", columnList = "project_id"),
+                @Index(name = "idx_task_dependencies_blocked", columnList = "blocked_id")
+        })
+@Getter
+@Setter
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class TaskDependency {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    // Denormalized from the tasks so a project's whole graph loads from one index range
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    @JsonIgnore
+    private Project project;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blocker_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Task blocker;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blocked_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Task blocked;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.leorsun.projecthub.model;
+
+/** The per-project task structures that are changed under their own lock row (see ProjectTaskGraph). */
+public enum TaskGraph {
+    DEPENDENCIES,
+    HIERARCHY
+}
@@ -0,0 +1,43 @@
+package com.leorsun.projecthub.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * A label on a task of the same project. Goes away with either side (ON DELETE CASCADE); archival first parks it
+ * in {@link ArchivedTaskLabel} so a restore can bring it back.
+ */
+@Entity
+@Table(name = "task_labels", indexes = @Index(name = "idx_task_labels_label", columnList = "label_id, task_id"))
+@IdClass(TaskLabel.Key.class)
+@Getter
+@Setter
+public class TaskLabel {
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "label_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Label label;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long task;
+        private Long label;
+    }
+}
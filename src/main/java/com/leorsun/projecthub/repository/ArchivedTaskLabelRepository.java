@@ -0,0 +1,24 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ArchivedTaskLabel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ArchivedTaskLabelRepository extends JpaRepository<ArchivedTaskLabel, ArchivedTaskLabel.Key> {
+    // After ArchivedTaskRepository.copyFromTasks and before the tasks are deleted, which cascades to task_labels
+    @Modifying
+    @Query("insert into ArchivedTaskLabel (task, label) select a, tl.label from TaskLabel tl, ArchivedTask a " +
+            "where tl.task.id in :ids and a.id = tl.task.id")
+    int copyFromTasks(Collection<Long> ids);
+
+    // After ArchivedTaskRepository.copyToTasks and before the archived row is deleted, which cascades here
+    @Modifying
+    @Query("insert into TaskLabel (task, label) select t, al.label from ArchivedTaskLabel al, Task t " +
+            "where al.task.id = :id and t.id = :id")
+    int copyToTasks(Long id);
+}
@@ -0,0 +1,54 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ArchivedTask;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    // Copies rows across in one statement; the caller deletes them from tasks in the same transaction
+    @Modifying
+    @Query("insert into ArchivedTask (id, project, title, description, status, priority, assignee, reporter, " +
+            "dueDate, orderIndex, number, createdAt, updatedAt, archivedAt) " +
+            "select t.id, t.project, t.title, t.description, t.status, t.priority, t.assignee, t.reporter, " +
+            "t.dueDate, t.orderIndex, t.number, t.createdAt, t.updatedAt, :archivedAt from Task t where t.id in :ids")
+    int copyFromTasks(Collection<Long> ids, LocalDateTime archivedAt);
+
+    // The reverse: back into tasks under its old id and number, at the given position and touched now
+    @Modifying
+    @Query("insert into Task (id, project, title, description, status, priority, assignee, reporter, " +
+            "dueDate, orderIndex, number, createdAt, updatedAt) " +
+            "select a.id, a.project, a.title, a.description, a.status, a.priority, a.assignee, a.reporter, " +
+            "a.dueDate, :orderIndex, a.number, a.createdAt, :updatedAt from ArchivedTask a where a.id = :id")
+    int copyToTasks(Long id, Integer orderIndex, LocalDateTime updatedAt);
+
+    @Query("select a from ArchivedTask a left join fetch a.assignee left join fetch a.reporter where a.id = :id")
+    Optional<ArchivedTask> findWithPeople(Long id);
+
+    // Newest first, keyset-paged on (archivedAt, id) over idx_archived_tasks_project_archived
+    @Query("select a from ArchivedTask a left join fetch a.assignee left join fetch a.reporter " +
+            "where a.project.id = :projectId and lower(a.title) like :titlePattern escape '!' " +
+            "and (a.archivedAt < :beforeArchivedAt or (a.archivedAt = :beforeArchivedAt and a.id < :beforeId)) " +
+            "order by a.archivedAt desc, a.id desc")
+    List<ArchivedTask> findPage(Long projectId, String titlePattern, LocalDateTime beforeArchivedAt, Long beforeId,
+                                Limit limit);
+
+    @Query("select a.project.id from ArchivedTask a where a.id = :id")
+    Optional<Long> findProjectId(Long id);
+
+    @Query("select a.id from ArchivedTask a where a.project.id = :projectId order by a.id")
+    List<Long> findIdsByProjectId(Long projectId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ArchivedTask a where a.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
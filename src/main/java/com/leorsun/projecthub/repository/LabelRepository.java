@@ -0,0 +1,31 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.Label;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LabelRepository extends JpaRepository<Label, Long> {
+    @Query("select l from Label l where l.project.id = :projectId order by l.name")
+    List<Label> findByProjectId(Long projectId);
+
+    @Query("select l from Label l where l.id = :labelId and l.project.id = :projectId")
+    Optional<Label> findInProject(Long labelId, Long projectId);
+
+    @Query("select count(l) > 0 from Label l where l.project.id = :projectId and lower(l.name) = lower(:name)")
+    boolean existsByName(Long projectId, String name);
+
+    @Query("select l.id from Label l where l.project.id = :projectId order by l.id")
+    List<Long> findIdsByProjectId(Long projectId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Label l where l.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,25 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectDeletion;
+import com.leorsun.projecthub.model.ProjectDeletionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProjectDeletionRepository extends JpaRepository<ProjectDeletion, Long> {
+    Optional<ProjectDeletion> findByProjectId(Long projectId);
+
+    @Query("select d.id from ProjectDeletion d where d.status = :status order by d.requestedAt asc")
+    List<Long> findIdsByStatus(ProjectDeletionStatus status);
+
+    // Serializes workers on different nodes picking up the same job
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from ProjectDeletion d where d.id = :id")
+    Optional<ProjectDeletion> lockById(Long id);
+}
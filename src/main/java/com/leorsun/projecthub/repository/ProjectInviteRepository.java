@@ -1,14 +1,27 @@
 package com.leorsun.projecthub.repository;
 
 import com.leorsun.projecthub.model.ProjectInvite;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectInviteRepository extends JpaRepository<ProjectInvite, Long> {
     Optional<ProjectInvite> findByToken(String token);
+
+    @Query("select count(i) > 0 from ProjectInvite i where i.project.id = :projectId and lower(i.email) = lower(:email)")
     boolean existsByProject_IdAndEmailIgnoreCase(Long projectId, String email);
-}
 
+    @Query("select i.id from ProjectInvite i where i.project.id = :projectId order by i.id")
+    List<Long> findIdsByProjectId(Long projectId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ProjectInvite i where i.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
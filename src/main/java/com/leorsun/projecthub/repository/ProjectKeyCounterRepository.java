@@ -0,0 +1,25 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectKeyCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectKeyCounterRepository extends JpaRepository<ProjectKeyCounter, String> {
+    // Takes the row lock, so concurrent creates with the same prefix line up here instead of racing for a key
+    @Modifying
+    @Query("update ProjectKeyCounter c set c.lastSuffix = c.lastSuffix + 1 where c.prefix = :prefix")
+    int increment(String prefix);
+
+    @Query("select c.lastSuffix from ProjectKeyCounter c where c.prefix = :prefix")
+    Optional<Integer> findLastSuffix(String prefix);
+
+    // A concurrent seed of the same prefix waits for the first to commit and then leaves its row alone
+    @Modifying
+    @Query("insert into ProjectKeyCounter (prefix, lastSuffix) values (:prefix, :lastSuffix) on conflict do nothing")
+    int insertIfAbsent(String prefix, int lastSuffix);
+}
@@ -2,18 +2,62 @@ package com.leorsun.projecthub.repository;
 
 import com.leorsun.projecthub.model.ProjectMember;
 import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.responses.MemberSuggestion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Long> {
+    // Membership lookups use the query cache; any write to project_members invalidates it
+    // Explicit queries: the derived Project_Id/User_Id forms left-join the parent table and filter on its id,
+    // which keeps the planner off uk_project_user and idx_project_members_user
+    @Query("select count(m) > 0 from ProjectMember m where m.project.id = :projectId and m.user.id = :userId")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByProject_IdAndUser_Id(Long projectId, Long userId);
+
+    @Query("select m from ProjectMember m where m.project.id = :projectId and m.user.id = :userId")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<ProjectMember> findByProject_IdAndUser_Id(Long projectId, Long userId);
+
+    // Users are serialized with the members, so they come in the same query
+    @Query("select m from ProjectMember m join fetch m.user where m.project.id = :projectId")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<ProjectMember> findByProject_Id(Long projectId);
+
+    @Query("select m from ProjectMember m where m.user.id = :userId")
     List<ProjectMember> findByUser_Id(Long userId);
+
+    @Query("select count(m) from ProjectMember m where m.project.id = :projectId and m.role = :role")
     long countByProject_IdAndRole(Long projectId, ProjectRole role);
-}
 
+    // Every role check goes through here, so a soft-deleted project has no members from the moment it is deleted.
+    // The version is read in the same statement (MembershipCache); a project without a version row is at 0.
+    // Not query-cached: MembershipCache sits in front, and its reload after a change made through another node
+    // must see the rows rather than this node's cached result
+    @Query("select new com.leorsun.projecthub.repository.RoleAtVersion(m.role, coalesce(v.version, 0L)) " +
+            "from Project p left join ProjectMember m on m.project = p and m.user.id = :userId " +
+            "left join ProjectMembershipVersion v on v.projectId = p.id " +
+            "where p.id = :projectId and p.deletedAt is null")
+    Optional<RoleAtVersion> findRoleAtVersion(Long projectId, Long userId);
+
+    @Query("select new com.leorsun.projecthub.responses.MemberSuggestion(u.id, u.username, u.email, m.role) " +
+            "from ProjectMember m join m.user u where m.project.id = :projectId")
+    List<MemberSuggestion> findSuggestionsByProjectId(Long projectId);
+
+    @Query("select m.id from ProjectMember m where m.project.id = :projectId order by m.id")
+    List<Long> findIdsByProjectId(Long projectId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ProjectMember m where m.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
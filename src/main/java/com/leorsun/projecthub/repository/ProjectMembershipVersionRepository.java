@@ -0,0 +1,24 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectMembershipVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectMembershipVersionRepository extends JpaRepository<ProjectMembershipVersion, Long> {
+    @Modifying
+    @Query("update ProjectMembershipVersion v set v.version = v.version + 1 where v.projectId = :projectId")
+    int increment(Long projectId);
+
+    @Query("select v.version from ProjectMembershipVersion v where v.projectId = :projectId")
+    Optional<Long> findVersion(Long projectId);
+
+    @Modifying
+    @Query("insert into ProjectMembershipVersion (projectId, version) values (:projectId, :version) " +
+            "on conflict do nothing")
+    int insertIfAbsent(Long projectId, long version);
+}
@@ -1,14 +1,46 @@
 package com.leorsun.projecthub.repository;
 
 import com.leorsun.projecthub.model.Project;
+import com.leorsun.projecthub.responses.ProjectSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+    // lower() rather than the derived IgnoreCase upper() so idx_projects_key_lower applies
+    @Query("select count(p) > 0 from Project p where lower(p.key) = lower(:key)")
     boolean existsByKeyIgnoreCase(String key);
+
+    @Query("select p from Project p where lower(p.key) = lower(:key)")
     Optional<Project> findByKeyIgnoreCase(String key);
+
+    // Seeds a key counter; prefix range scan on idx_projects_key_lower_pattern. Keys are [A-Z0-9], no escaping needed
+    @Query("select upper(p.key) from Project p where lower(p.key) like concat(lower(:prefix), '%')")
+    List<String> findKeysStartingWith(String prefix);
+
+    String SUMMARY_ACTIVITY = "coalesce((select max(t.updatedAt) from Task t where t.project = p), p.updatedAt)";
+    // One row per membership of the user; counts come from correlated subqueries so nothing is lazily loaded
+    String SUMMARY_SELECT = "select new com.leorsun.projecthub.responses.ProjectSummary(" +
+            "p.id, p.key, p.name, p.description, p.owner.id, m.role, " +
+            "(select count(pm) from ProjectMember pm where pm.project = p), " +
+            "(select count(t) from Task t where t.project = p and t.status = com.leorsun.projecthub.model.TaskStatus.TODO), " +
+            "(select count(t) from Task t where t.project = p and t.status = com.leorsun.projecthub.model.TaskStatus.DOING), " +
+            "p.createdAt, " + SUMMARY_ACTIVITY + ") " +
+            "from ProjectMember m join m.project p " +
+            "where m.user.id = :userId and p.deletedAt is null ";
+
+    @Query(SUMMARY_SELECT + "order by " + SUMMARY_ACTIVITY + " desc, p.id desc")
+    List<ProjectSummary> findSummariesByActivity(Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "order by lower(p.name) asc, p.id asc")
+    List<ProjectSummary> findSummariesByName(Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "order by p.createdAt desc, p.id desc")
+    List<ProjectSummary> findSummariesByCreated(Long userId, Pageable pageable);
 }
 
@@ -0,0 +1,28 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectTaskCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectTaskCounterRepository extends JpaRepository<ProjectTaskCounter, Long> {
+    @Modifying
+    @Query("update ProjectTaskCounter c set c.lastNumber = c.lastNumber + 1 where c.projectId = :projectId")
+    int increment(Long projectId);
+
+    @Query("select c.lastNumber from ProjectTaskCounter c where c.projectId = :projectId")
+    Optional<Long> findLastNumber(Long projectId);
+
+    @Modifying
+    @Query("insert into ProjectTaskCounter (projectId, lastNumber) values (:projectId, :lastNumber) " +
+            "on conflict do nothing")
+    int insertIfAbsent(Long projectId, long lastNumber);
+
+    @Modifying
+    @Query("delete from ProjectTaskCounter c where c.projectId = :projectId")
+    int deleteByProjectId(Long projectId);
+}
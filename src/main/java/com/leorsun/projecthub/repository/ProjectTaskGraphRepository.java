@@ -0,0 +1,30 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectTaskGraph;
+import com.leorsun.projecthub.model.TaskGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectTaskGraphRepository extends JpaRepository<ProjectTaskGraph, ProjectTaskGraph.Key> {
+    // Taking the row lock serializes changes to this graph within the project
+    @Modifying
+    @Query("update ProjectTaskGraph g set g.version = g.version + 1 where g.projectId = :projectId and g.graph = :graph")
+    int increment(Long projectId, TaskGraph graph);
+
+    @Query("select g.version from ProjectTaskGraph g where g.projectId = :projectId and g.graph = :graph")
+    Optional<Long> findVersion(Long projectId, TaskGraph graph);
+
+    @Modifying
+    @Query("insert into ProjectTaskGraph (projectId, graph, version) values (:projectId, :graph, :version) " +
+            "on conflict do nothing")
+    int insertIfAbsent(Long projectId, TaskGraph graph, long version);
+
+    @Modifying
+    @Query("delete from ProjectTaskGraph g where g.projectId = :projectId")
+    int deleteByProjectId(Long projectId);
+}
@@ -0,0 +1,10 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectRole;
+
+/**
+ * A user's role in a project together with the project's membership version it was read at. {@code role} is
+ * null when the user is not a member or the project is gone.
+ */
+public record RoleAtVersion(ProjectRole role, long version) {
+}
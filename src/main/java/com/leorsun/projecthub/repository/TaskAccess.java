@@ -0,0 +1,12 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.User;
+
+/**
+ * A task loaded together with the caller's role in its project. {@code role} is null when the caller is not a
+ * member; {@code assignee} and {@code nextOrderIndex} are only filled by {@link TaskRepository#findForWrite}.
+ */
+public record TaskAccess(Task task, ProjectRole role, User assignee, Integer nextOrderIndex) {
+}
@@ -0,0 +1,64 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.TaskClosure;
+import com.leorsun.projecthub.responses.SubtaskSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The task hierarchy as (ancestor, descendant, depth) rows. Every read and write below is one statement whatever
+ * the depth of the tree; callers serialize hierarchy changes per project (see TaskGraphLocks).
+ */
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key> {
+    // Linking subtree X under P: P and its ancestors, crossed with X and its descendants
+
+    @Modifying
+    @Query("insert into TaskClosure (ancestor, descendant, depth) " +
+            "select p, x, 1 from Task p, Task x where p.id = :parentId and x.id = :taskId")
+    int linkToParent(Long parentId, Long taskId);
+
+    @Modifying
+    @Query("insert into TaskClosure (ancestor, descendant, depth) " +
+            "select a.ancestor, x, a.depth + 1 from TaskClosure a, Task x where a.descendant.id = :parentId and x.id = :taskId")
+    int linkToAncestorsOf(Long parentId, Long taskId);
+
+    @Modifying
+    @Query("insert into TaskClosure (ancestor, descendant, depth) " +
+            "select p, d.descendant, d.depth + 1 from Task p, TaskClosure d where p.id = :parentId and d.ancestor.id = :taskId")
+    int linkDescendantsToParent(Long parentId, Long taskId);
+
+    @Modifying
+    @Query("insert into TaskClosure (ancestor, descendant, depth) " +
+            "select a.ancestor, d.descendant, a.depth + d.depth + 1 from TaskClosure a, TaskClosure d " +
+            "where a.descendant.id = :parentId and d.ancestor.id = :taskId")
+    int linkDescendantsToAncestorsOf(Long parentId, Long taskId);
+
+    // Cuts X's subtree loose: the rows from X's ancestors into X and everything below it. Rows inside the subtree stay
+    @Modifying
+    @Query("delete from TaskClosure c " +
+            "where c.ancestor.id in (select a.ancestor.id from TaskClosure a where a.descendant.id = :taskId) " +
+            "and (c.descendant.id = :taskId " +
+            "or c.descendant.id in (select d.descendant.id from TaskClosure d where d.ancestor.id = :taskId))")
+    int unlinkSubtree(Long taskId);
+
+    @Query("select c.ancestor.id from TaskClosure c where c.descendant.id = :taskId")
+    List<Long> findAncestorIds(Long taskId);
+
+    @Query("select count(c) > 0 from TaskClosure c where c.ancestor.id = :ancestorId and c.descendant.id = :descendantId")
+    boolean isDescendant(Long ancestorId, Long descendantId);
+
+    // The whole subtree (or its top levels) off the primary key, parents before their children
+    @Query("select new com.leorsun.projecthub.responses.SubtaskSummary(t.id, t.parentId, c.depth, t.title, t.status, " +
+            "t.priority, t.dueDate, t.assignee.id, t.subtaskCount, t.subtasksDone) " +
+            "from TaskClosure c join c.descendant t where c.ancestor.id = :taskId and c.depth <= :maxDepth " +
+            "order by c.depth, t.id")
+    List<SubtaskSummary> findDescendants(Long taskId, int maxDepth);
+
+    @Query("select t.status, count(c) from TaskClosure c join c.descendant t where c.ancestor.id = :taskId group by t.status")
+    List<Object[]> countDescendantsByStatus(Long taskId);
+}
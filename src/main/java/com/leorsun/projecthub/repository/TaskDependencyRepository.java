@@ -0,0 +1,28 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.TaskDependency;
+import com.leorsun.projecthub.responses.DependencyEdge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+    // Scalar rows over idx_task_dependencies_project; DependencyGraph packs them into int arrays
+    @Query("select d.blocker.id, d.blocked.id from TaskDependency d where d.project.id = :projectId")
+    List<Object[]> findEdgeRows(Long projectId);
+
+    @Query("select new com.leorsun.projecthub.responses.DependencyEdge(d.blocker.id, d.blocked.id) " +
+            "from TaskDependency d where d.project.id = :projectId order by d.blocker.id, d.blocked.id")
+    List<DependencyEdge> findEdges(Long projectId);
+
+    @Query("select count(d) > 0 from TaskDependency d where d.blocker.id = :blockerId and d.blocked.id = :blockedId")
+    boolean existsEdge(Long blockerId, Long blockedId);
+
+    @Modifying
+    @Query("delete from TaskDependency d where d.blocker.id = :blockerId and d.blocked.id = :blockedId")
+    int deleteEdge(Long blockerId, Long blockedId);
+}
@@ -0,0 +1,29 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.Label;
+import com.leorsun.projecthub.model.TaskLabel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskLabelRepository extends JpaRepository<TaskLabel, TaskLabel.Key> {
+    // Scalar (taskId, labelId) rows of a whole project, label by label over idx_task_labels_label; for BoardIndex
+    @Query("select tl.task.id, tl.label.id from TaskLabel tl join tl.label l where l.project.id = :projectId")
+    List<Object[]> findRowsByProjectId(Long projectId);
+
+    @Query("select l from TaskLabel tl join tl.label l where tl.task.id = :taskId order by l.name")
+    List<Label> findLabelsOfTask(Long taskId);
+
+    // 0 when the task already has the label, including when a concurrent transaction just added it
+    @Modifying
+    @Query("insert into TaskLabel (task.id, label.id) values (:taskId, :labelId) on conflict do nothing")
+    int link(Long taskId, Long labelId);
+
+    @Modifying
+    @Query("delete from TaskLabel tl where tl.task.id = :taskId and tl.label.id = :labelId")
+    int deleteLink(Long taskId, Long labelId);
+}
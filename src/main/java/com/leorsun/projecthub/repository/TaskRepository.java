@@ -1,15 +1,232 @@
 package com.leorsun.projecthub.repository;
 
+import com.leorsun.projecthub.model.ProjectRole;
 import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.TaskPriority;
 import com.leorsun.projecthub.model.TaskStatus;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.TaskSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
+    // Explicit queries: the derived Project_Id forms left-join projects and filter on p.id, which hides
+    // tasks.project_id from the (project_id, status, order_index) index
+    // Assignee and reporter are part of the board response; fetched here instead of one lookup per user
+    @Query("select t from Task t left join fetch t.assignee left join fetch t.reporter " +
+            "where t.project.id = :projectId order by t.orderIndex asc")
     List<Task> findByProject_IdOrderByOrderIndexAsc(Long projectId);
+
+    // The same board read through a cursor, for writing large boards out row by row; needs a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Task t left join fetch t.assignee left join fetch t.reporter " +
+            "where t.project.id = :projectId order by t.orderIndex asc")
+    Stream<Task> streamByProjectId(Long projectId);
+
+    @Query("select t from Task t where t.project.id = :projectId and t.status = :status order by t.orderIndex asc")
     List<Task> findByProject_IdAndStatusOrderByOrderIndexAsc(Long projectId, TaskStatus status);
-}
 
+    @Query("select t, m.role from Task t join t.project p " +
+            "left join fetch t.assignee left join fetch t.reporter " +
+            "left join ProjectMember m on m.project = p and m.user.id = :userId " +
+            "where t.id = :taskId and p.deletedAt is null")
+    List<Object[]> findRowWithRole(Long taskId, Long userId);
+
+    // Also resolves the new assignee and the end of the target status column in the same round trip
+    @Query("select t, m.role, a, " +
+            "(select coalesce(max(o.orderIndex), -1) + 1 from Task o where o.project = p and o.status = :targetStatus) " +
+            "from Task t join t.project p " +
+            "left join fetch t.assignee left join fetch t.reporter " +
+            "left join ProjectMember m on m.project = p and m.user.id = :userId " +
+            "left join User a on a.id = :assigneeId " +
+            "where t.id = :taskId and p.deletedAt is null")
+    List<Object[]> findRowForWrite(Long taskId, Long userId, TaskStatus targetStatus, Long assigneeId);
+
+    // KEY-123 lookup: project by idx_projects_key_lower, then the task by uk_tasks_project_number
+    @Query("select t, m.role from Task t join t.project p " +
+            "left join fetch t.assignee left join fetch t.reporter " +
+            "left join ProjectMember m on m.project = p and m.user.id = :userId " +
+            "where lower(p.key) = lower(:projectKey) and t.number = :number and p.deletedAt is null")
+    List<Object[]> findRowWithRoleByKey(String projectKey, Long number, Long userId);
+
+    @Query("select coalesce(max(t.number), 0) from Task t where t.project.id = :projectId")
+    long findMaxNumber(Long projectId);
+
+    default Optional<TaskAccess> findWithRoleByKey(String projectKey, Long number, Long userId) {
+        return findRowWithRoleByKey(projectKey, number, userId).stream()
+                .findFirst()
+                .map(r -> new TaskAccess((Task) r[0], (ProjectRole) r[1], null, null));
+    }
+
+    default Optional<TaskAccess> findWithRole(Long taskId, Long userId) {
+        return findRowWithRole(taskId, userId).stream()
+                .findFirst()
+                .map(r -> new TaskAccess((Task) r[0], (ProjectRole) r[1], null, null));
+    }
+
+    default Optional<TaskAccess> findForWrite(Long taskId, Long userId, TaskStatus targetStatus, Long assigneeId) {
+        return findRowForWrite(taskId, userId, targetStatus, assigneeId).stream()
+                .findFirst()
+                .map(r -> new TaskAccess((Task) r[0], (ProjectRole) r[1], (User) r[2], ((Number) r[3]).intValue()));
+    }
+
+    // Bulk statements bypass dirty checking, so each mutation is exactly one UPDATE/DELETE.
+    // clearAutomatically detaches the loaded task so callers can mirror the change on it without a second flush.
+    // Status writes only apply while the task still has the parent the caller saw (see TaskService.lockHierarchy).
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.status = :status, t.orderIndex = :orderIndex, t.updatedAt = :updatedAt where t.id = :id " +
+            "and (t.parentId = :parentId or (t.parentId is null and :parentId is null))")
+    int updatePosition(Long id, TaskStatus status, Integer orderIndex, LocalDateTime updatedAt, Long parentId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.assignee = :assignee, t.updatedAt = :updatedAt where t.id = :id")
+    int updateAssignee(Long id, User assignee, LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.title = :title, t.description = :description, t.status = :status, " +
+            "t.orderIndex = :orderIndex, t.priority = :priority, t.dueDate = :dueDate, t.assignee = :assignee, " +
+            "t.updatedAt = :updatedAt where t.id = :id " +
+            "and (t.parentId = :parentId or (t.parentId is null and :parentId is null))")
+    int updateFields(Long id, String title, String description, TaskStatus status, Integer orderIndex,
+                     TaskPriority priority, LocalDate dueDate, User assignee, LocalDateTime updatedAt, Long parentId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t where t.id = :id")
+    int deleteTask(Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.parent = :parent, t.updatedAt = :updatedAt where t.id = :id")
+    int updateParent(Long id, Task parent, LocalDateTime updatedAt);
+
+    // Applies a change below a task to the rollups of all its ancestors at once, through idx_task_closure_descendant
+    @Modifying
+    @Query("update Task t set t.subtaskCount = t.subtaskCount + :subtasks, t.subtasksDone = t.subtasksDone + :done " +
+            "where t.id in (select c.ancestor.id from TaskClosure c where c.descendant.id = :taskId)")
+    int adjustAncestorRollups(Long taskId, int subtasks, int done);
+
+    // Full recount from the closure rows, for the ancestors a subtree move leaves and joins
+    @Modifying
+    @Query("update Task t set " +
+            "t.subtaskCount = (select count(c) from TaskClosure c where c.ancestor.id = t.id), " +
+            "t.subtasksDone = (select count(c) from TaskClosure c join c.descendant d where c.ancestor.id = t.id " +
+            "and d.status = com.leorsun.projecthub.model.TaskStatus.DONE) " +
+            "where t.id in :ids")
+    int recountRollups(Collection<Long> ids);
+
+    // "My work" across projects: membership is enforced by the join, ordering is (dueDate asc nulls last, id) so the
+    // (assignee_id|reporter_id, status, due_date) indexes serve both the filter and the keyset. Status and priority
+    // are bound as value sets (every value when unfiltered) so no predicate hides behind an "is null or" guard.
+    // A page reads the dated part up to :dueBefore first and, once past it, the undated part in id order.
+    String MY_TASKS_FROM = "from Task t join t.project p join ProjectMember m on m.project = p and m.user.id = :userId " +
+            "where p.deletedAt is null and t.status in :statuses and t.priority in :priorities ";
+    String MY_TASKS_SELECT = "select new com.leorsun.projecthub.responses.TaskSummary(" +
+            "t.id, p.id, p.key, t.title, t.status, t.priority, t.dueDate, t.assignee.id, t.reporter.id, t.updatedAt) " +
+            MY_TASKS_FROM;
+    String MY_TASKS_DATED = "and t.dueDate <= :dueBefore " +
+            "and (t.dueDate > :afterDue or (t.dueDate = :afterDue and t.id > :afterId)) ";
+    String MY_TASKS_UNDATED = "and t.dueDate is null and t.id > :afterId ";
+    String DATED_ORDER = "order by t.dueDate asc, t.id asc";
+    String UNDATED_ORDER = "order by t.id asc";
+
+    @Query(MY_TASKS_SELECT + "and t.assignee.id = :userId " + MY_TASKS_DATED + DATED_ORDER)
+    List<TaskSummary> findDatedAssignedTo(Long userId, Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                                          LocalDate dueBefore, LocalDate afterDue, Long afterId, Limit limit);
+
+    @Query(MY_TASKS_SELECT + "and t.assignee.id = :userId " + MY_TASKS_UNDATED + UNDATED_ORDER)
+    List<TaskSummary> findUndatedAssignedTo(Long userId, Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                                            Long afterId, Limit limit);
+
+    @Query(MY_TASKS_SELECT + "and t.reporter.id = :userId " + MY_TASKS_DATED + DATED_ORDER)
+    List<TaskSummary> findDatedReportedBy(Long userId, Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                                          LocalDate dueBefore, LocalDate afterDue, Long afterId, Limit limit);
+
+    @Query(MY_TASKS_SELECT + "and t.reporter.id = :userId " + MY_TASKS_UNDATED + UNDATED_ORDER)
+    List<TaskSummary> findUndatedReportedBy(Long userId, Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                                            Long afterId, Limit limit);
+
+    // Both scopes: a UNION of the assigned and the reported keyset queries, each on its own index and limited to a
+    // page, rather than one OR that neither index can serve. UNION also drops tasks that are both.
+    String MY_TASKS_COLUMNS = "select t.id as id, p.id as projectId, p.key as projectKey, t.title as title, " +
+            "t.status as status, t.priority as priority, t.dueDate as dueDate, t.assignee.id as assigneeId, " +
+            "t.reporter.id as reporterId, t.updatedAt as updatedAt " + MY_TASKS_FROM;
+    String MY_TASKS_UNION_SELECT = "select new com.leorsun.projecthub.responses.TaskSummary(" +
+            "u.id, u.projectId, u.projectKey, u.title, u.status, u.priority, u.dueDate, u.assigneeId, u.reporterId, u.updatedAt) ";
+
+    @Query(MY_TASKS_UNION_SELECT + "from ((" +
+            MY_TASKS_COLUMNS + "and t.assignee.id = :userId " + MY_TASKS_DATED + DATED_ORDER + " limit :pageSize) union (" +
+            MY_TASKS_COLUMNS + "and t.reporter.id = :userId " + MY_TASKS_DATED + DATED_ORDER + " limit :pageSize)) u " +
+            "order by u.dueDate asc, u.id asc limit :pageSize")
+    List<TaskSummary> findDatedAssignedToOrReportedBy(Long userId, Collection<TaskStatus> statuses,
+                                                      Collection<TaskPriority> priorities, LocalDate dueBefore,
+                                                      LocalDate afterDue, Long afterId, int pageSize);
+
+    @Query(MY_TASKS_UNION_SELECT + "from ((" +
+            MY_TASKS_COLUMNS + "and t.assignee.id = :userId " + MY_TASKS_UNDATED + UNDATED_ORDER + " limit :pageSize) union (" +
+            MY_TASKS_COLUMNS + "and t.reporter.id = :userId " + MY_TASKS_UNDATED + UNDATED_ORDER + " limit :pageSize)) u " +
+            "order by u.id asc limit :pageSize")
+    List<TaskSummary> findUndatedAssignedToOrReportedBy(Long userId, Collection<TaskStatus> statuses,
+                                                        Collection<TaskPriority> priorities, Long afterId, int pageSize);
+
+    // Every task of a board as flat rows, for the dependency views; no entities, no user joins
+    @Query("select new com.leorsun.projecthub.responses.TaskSummary(" +
+            "t.id, p.id, p.key, t.title, t.status, t.priority, t.dueDate, t.assignee.id, t.reporter.id, t.updatedAt) " +
+            "from Task t join t.project p where p.id = :projectId")
+    List<TaskSummary> findSummariesByProjectId(Long projectId);
+
+    @Query("select t.project.id from Task t where t.id = :taskId")
+    Optional<Long> findProjectIdById(Long taskId);
+
+    @Query("select distinct t.project.id from Task t where t.id in :ids")
+    List<Long> findProjectIdsByIdIn(Collection<Long> ids);
+
+    // The facet columns of a whole board in id order, for building a BoardIndex
+    @Query("select t.id, t.status, t.priority, t.assignee.id from Task t where t.project.id = :projectId order by t.id")
+    List<Object[]> findFacetRowsByProjectId(Long projectId);
+
+    @Query("select new com.leorsun.projecthub.responses.TaskSummary(" +
+            "t.id, p.id, p.key, t.title, t.status, t.priority, t.dueDate, t.assignee.id, t.reporter.id, t.updatedAt) " +
+            "from Task t join t.project p where t.id in :ids order by t.id")
+    List<TaskSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("select t.id from Task t where t.project.id = :projectId order by t.id")
+    List<Long> findIdsByProjectId(Long projectId, Pageable pageable);
+
+    // Archival candidates over the partial idx_tasks_done_updated (hence the DONE literal rather than a parameter).
+    // Locked so a concurrent edit waits for the move; SKIP LOCKED lets workers on several nodes share the backlog.
+    // Tasks in a hierarchy stay: moving them would leave their ancestors' rollups and closure rows behind
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select t.id from Task t where t.status = com.leorsun.projecthub.model.TaskStatus.DONE " +
+            "and t.updatedAt < :cutoff and t.parent is null and t.subtaskCount = 0 order by t.updatedAt")
+    List<Long> lockArchivableIds(LocalDateTime cutoff, Limit limit);
+
+    @Query("select coalesce(max(t.orderIndex), -1) + 1 from Task t where t.project.id = :projectId and t.status = :status")
+    int findNextOrderIndex(Long projectId, TaskStatus status);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
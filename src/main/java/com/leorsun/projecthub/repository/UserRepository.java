@@ -2,15 +2,45 @@ package com.leorsun.projecthub.repository;
 
 
 import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.UserSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, Long> {
+    // Runs on every authenticated request (JWT filter); cached until the users table changes
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     Optional<User> findByVerificationCode(String verificationCode);
+
+    // lower() rather than the derived IgnoreCase upper() so the functional indexes from V3 apply
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(:email)")
     boolean existsByEmailIgnoreCase(String email);
+
+    @Query("select count(u) > 0 from User u where lower(u.username) = lower(:username)")
     boolean existsByUsernameIgnoreCase(String username);
+
+    // Directory is limited to users sharing a live project with the caller and keyset-paged on (lower(username), id)
+    String DIRECTORY_SELECT = "select new com.leorsun.projecthub.responses.UserSummary(u.id, u.username, u.email) " +
+            "from User u where exists (" +
+            "select 1 from ProjectMember mine join mine.project p, ProjectMember theirs " +
+            "where mine.user.id = :callerId and p.deletedAt is null and theirs.project = p and theirs.user = u) " +
+            "and (lower(u.username) > :afterName or (lower(u.username) = :afterName and u.id > :afterId)) ";
+    String DIRECTORY_ORDER = "order by lower(u.username), u.id";
+
+    @Query(DIRECTORY_SELECT + DIRECTORY_ORDER)
+    List<UserSummary> findDirectoryPage(Long callerId, String afterName, Long afterId, Limit limit);
+
+    @Query(DIRECTORY_SELECT +
+            "and (lower(u.username) like :prefix escape '!' or lower(u.email) like :prefix escape '!') " +
+            DIRECTORY_ORDER)
+    List<UserSummary> searchDirectoryPage(Long callerId, String prefix, String afterName, Long afterId, Limit limit);
 }
@@ -0,0 +1,14 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.ArchivedTask;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ArchivedTaskPage {
+    private List<ArchivedTask> tasks;
+    private String nextCursor; // null on the last page
+}
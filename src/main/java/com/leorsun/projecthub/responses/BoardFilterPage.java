@@ -0,0 +1,22 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class BoardFilterPage {
+    private int total;
+    private List<TaskSummary> tasks;
+    private String nextCursor;
+    // Facet counts over all matches, not just this page; assignee 0 counts unassigned tasks
+    private Map<TaskStatus, Integer> statusCounts;
+    private Map<TaskPriority, Integer> priorityCounts;
+    private Map<Long, Integer> assigneeCounts;
+    private Map<Long, Integer> labelCounts;
+}
@@ -0,0 +1,14 @@
+package com.leorsun.projecthub.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CriticalPath {
+    private LocalDate finish; // latest due date along the path; null when no task on it has one
+    private List<TaskSummary> tasks; // first blocker first
+}
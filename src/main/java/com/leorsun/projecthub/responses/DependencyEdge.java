@@ -0,0 +1,11 @@
+package com.leorsun.projecthub.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DependencyEdge {
+    private Long blockerId;
+    private Long blockedId;
+}
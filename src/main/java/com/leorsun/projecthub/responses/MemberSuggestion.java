@@ -0,0 +1,14 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MemberSuggestion {
+    private Long userId;
+    private String username;
+    private String email;
+    private ProjectRole role;
+}
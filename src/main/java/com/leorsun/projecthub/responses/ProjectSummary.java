@@ -0,0 +1,23 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ProjectSummary {
+    private Long id;
+    private String key;
+    private String name;
+    private String description;
+    private Long ownerId;
+    private ProjectRole role; // caller's role
+    private long memberCount;
+    private long todoCount;
+    private long doingCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastActivityAt;
+}
@@ -0,0 +1,23 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class SubtaskSummary {
+    private Long id;
+    private Long parentId;
+    private int depth;
+    private String title;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private LocalDate dueDate;
+    private Long assigneeId;
+    private int subtaskCount;
+    private int subtasksDone;
+}
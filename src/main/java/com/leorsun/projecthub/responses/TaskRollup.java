@@ -0,0 +1,16 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class TaskRollup {
+    private Long taskId;
+    private int subtasks;
+    private int done;
+    private Map<TaskStatus, Long> byStatus;
+}
@@ -0,0 +1,24 @@
+package com.leorsun.projecthub.responses;
+
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class TaskSummary {
+    private Long id;
+    private Long projectId;
+    private String projectKey;
+    private String title;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private LocalDate dueDate;
+    private Long assigneeId;
+    private Long reporterId;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,13 @@
+package com.leorsun.projecthub.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskSummaryPage {
+    private List<TaskSummary> tasks;
+    private String nextCursor; // null on the last page
+}
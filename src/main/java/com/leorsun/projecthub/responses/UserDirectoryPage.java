@@ -0,0 +1,13 @@
+package com.leorsun.projecthub.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserDirectoryPage {
+    private List<UserSummary> users;
+    private String nextCursor; // null on the last page
+}
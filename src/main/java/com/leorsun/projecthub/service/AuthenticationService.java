@@ -5,11 +5,13 @@ import com.leorsun.projecthub.dto.RegisterUserDto;
 import com.leorsun.projecthub.dto.VerifyUserDto;
 import com.leorsun.projecthub.model.User;
 import com.leorsun.projecthub.repository.UserRepository;
-import jakarta.mail.MessagingException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -23,17 +25,23 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
 
     public AuthenticationService(
             UserRepository userRepository,
             AuthenticationManager authenticationManager,
             PasswordEncoder passwordEncoder,
-            EmailService emailService
+            EmailService emailService,
+            TransactionTemplate transactionTemplate
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTemplate.setReadOnly(true);
     }
 
     public User signup(RegisterUserDto input) {
@@ -44,26 +52,42 @@ public class AuthenticationService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email and username are required");
         }
 
-        if (userRepository.existsByEmailIgnoreCase(email)) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
-        }
-        if (userRepository.existsByUsernameIgnoreCase(username)) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Username already taken");
-        }
+        // Cheap rejection first, so a taken email or username never pays for bcrypt
+        readOnlyTemplate.executeWithoutResult(tx -> requireAvailable(email, username));
 
+        // Hash between the transactions: bcrypt takes long enough that it should not hold a pooled connection
         User user = new User(username, email, passwordEncoder.encode(input.getPassword()));
         user.setVerificationCode(generateVerificationCode());
         user.setVerificationCodeExpiresAt(LocalDateTime.now().plusMinutes(15));
         user.setEnabled(false);
 
-        // Save first to ensure persistence before sending any email
-        user = userRepository.save(user);
+        try {
+            return transactionTemplate.execute(tx -> {
+                // Again on the primary: someone may have signed up with the same name while we hashed
+                requireAvailable(email, username);
+                User saved = userRepository.save(user);
+                // Goes out only once the user is committed
+                sendVerificationEmail(saved);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent signup took the email or username after the check; the unique constraint stops this
+            // one at commit. That signup has committed by now, so answer as the check would have
+            transactionTemplate.executeWithoutResult(tx -> requireAvailable(email, username));
+            throw e;
+        }
+    }
 
-        // Send verification email only after a successful save
-        sendVerificationEmail(user);
-        return user;
+    private void requireAvailable(String email, String username) {
+        if (userRepository.existsByEmailIgnoreCase(email)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
+        }
+        if (userRepository.existsByUsernameIgnoreCase(username)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Username already taken");
+        }
     }
 
+    // No transaction: the password check is bcrypt-bound and the lookups are single reads
     public User authenticate(LoginUserDto input) {
         User user = userRepository.findByEmail(input.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -81,6 +105,7 @@ public class AuthenticationService {
         return user;
     }
 
+    @Transactional
     public void verifyUser(VerifyUserDto input) {
         Optional<User> optionalUser = userRepository.findByEmail(input.getEmail());
         if (optionalUser.isPresent()) {
@@ -101,6 +126,7 @@ public class AuthenticationService {
         }
     }
 
+    @Transactional
     public void resendVerificationCode(String email) {
         Optional<User> optionalUser = userRepository.findByEmail(email);
         if (optionalUser.isPresent()) {
@@ -110,13 +136,14 @@ public class AuthenticationService {
             }
             user.setVerificationCode(generateVerificationCode());
             user.setVerificationCodeExpiresAt(LocalDateTime.now().plusHours(1));
-            sendVerificationEmail(user);
             userRepository.save(user);
+            sendVerificationEmail(user);
         } else {
             throw new RuntimeException("User not found");
         }
     }
 
+    @Transactional(readOnly = true)
     public User loadUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -138,12 +165,7 @@ public class AuthenticationService {
                 + "</body>"
                 + "</html>";
 
-        try {
-            emailService.sendVerificationEmail(user.getEmail(), subject, htmlMessage);
-        } catch (MessagingException e) {
-            // Handle email sending exception
-            e.printStackTrace();
-        }
+        emailService.sendAfterCommit(user.getEmail(), subject, htmlMessage);
     }
     private String generateVerificationCode() {
         Random random = new Random();
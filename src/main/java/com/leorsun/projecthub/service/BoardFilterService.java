@@ -0,0 +1,217 @@
+package com.leorsun.projecthub.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.leorsun.projecthub.config.ReadWriteRoutingDataSource;
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.repository.TaskLabelRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.responses.BoardFilterPage;
+import com.leorsun.projecthub.responses.TaskSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Faceted board filtering over per-project {@link BoardIndex} bitmaps. An index is built from two queries on the
+ * primary the first time a project is filtered, then kept current by TaskService and LabelService: each change
+ * is applied once its transaction commits, without another query. Only the page of matching tasks is read back.
+ * <p>
+ * Indexes are weighed by their heap size and the cache evicts cold projects past
+ * projecthub.board-index.max-bytes. Changes made through other nodes reach this one when its entry expires
+ * (projecthub.board-index.ttl).
+ */
+@Service
+public class BoardFilterService {
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    private static final int STRIPES = 64;
+    // Rebuild once removed tasks leave more holes than this and than there are live tasks
+    private static final int MAX_HOLES = 1024;
+
+    private final TaskRepository taskRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final MembershipCache membershipCache;
+    // The caller that installs a pending entry builds it; concurrent filters of the project wait on that build
+    private final AsyncCache<Long, BoardIndex> indexes;
+    // Bumped per project stripe as changes commit; a build that overlapped one is used once but not cached
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public BoardFilterService(TaskRepository taskRepository,
+                              TaskLabelRepository taskLabelRepository,
+                              MembershipCache membershipCache,
+                              @Value("${projecthub.board-index.max-bytes:268435456}") long maxBytes,
+                              @Value("${projecthub.board-index.ttl:5m}") Duration ttl) {
+        this.taskRepository = taskRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.membershipCache = membershipCache;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long projectId, BoardIndex index) -> (int) Math.min(Integer.MAX_VALUE, index.sizeInBytes()))
+                // Counted from the build: re-putting a changed index to re-weigh it does not extend its life
+                .expireAfter(Expiry.creating((Long projectId, BoardIndex index) -> ttl))
+                .buildAsync();
+    }
+
+    /**
+     * Tasks of a board matching every given facet, in id order, with the match count and per-value counts over
+     * all matches. Within a facet any value matches, or every label with labelMode "all"; assignee
+     * {@code "none"} stands for unassigned tasks.
+     */
+    @Transactional(readOnly = true)
+    public BoardFilterPage filter(User user, Long projectId, List<Long> labelIds, String labelMode,
+                                  List<TaskStatus> statuses, List<TaskPriority> priorities, List<String> assignees,
+                                  String cursor, Integer limit) {
+        if (membershipCache.getRole(projectId, user.getId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
+        }
+        if (!"any".equals(labelMode) && !"all".equals(labelMode)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "labelMode must be any or all");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        // Cursor is the last task id of the previous page
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(Cursors.decode(cursor));
+            } catch (NumberFormatException e) {
+                throw Cursors.invalid();
+            }
+        }
+        Set<Long> assigneeIds = new HashSet<>();
+        for (String assignee : orEmpty(assignees)) {
+            try {
+                assigneeIds.add("none".equals(assignee) ? BoardIndex.UNASSIGNED : Long.parseLong(assignee));
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignee must be a user id or none");
+            }
+        }
+
+        BoardIndex.Result result = index(projectId).query(new BoardIndex.Filter(
+                Set.copyOf(orEmpty(labelIds)), "all".equals(labelMode), Set.copyOf(orEmpty(statuses)), Set.copyOf(orEmpty(priorities)),
+                assigneeIds, afterId, pageSize));
+        long[] page = result.page();
+        List<TaskSummary> tasks = page.length == 0 ? List.of()
+                : taskRepository.findSummariesByIdIn(Arrays.stream(page).boxed().toList());
+        String nextCursor = page.length == pageSize ? Cursors.encode(String.valueOf(page[page.length - 1])) : null;
+        return new BoardFilterPage(result.total(), tasks, nextCursor, result.statusCounts(), result.priorityCounts(),
+                result.assigneeCounts(), result.labelCounts());
+    }
+
+    /** Records a created or changed task once the current transaction commits. */
+    public void taskSaved(Long projectId, Long taskId, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        afterCommit(projectId, index -> {
+            if (!index.put(taskId, status, priority, assigneeId)) {
+                indexes.synchronous().invalidate(projectId);
+            }
+        });
+    }
+
+    public void taskRemoved(Long projectId, Long taskId) {
+        afterCommit(projectId, index -> {
+            index.remove(taskId);
+            int holes = index.holes();
+            if (holes > MAX_HOLES && holes > index.liveTasks()) {
+                indexes.synchronous().invalidate(projectId);
+            }
+        });
+    }
+
+    public void labelChanged(Long projectId, Long taskId, Long labelId, boolean added) {
+        afterCommit(projectId, index -> index.label(taskId, labelId, added));
+    }
+
+    public void labelDeleted(Long projectId, Long labelId) {
+        afterCommit(projectId, index -> index.dropLabel(labelId));
+    }
+
+    /** Drops the indexes of projects changed in bulk (archival, restores); they are rebuilt on next use. */
+    public void invalidate(Collection<Long> projectIds) {
+        for (Long projectId : projectIds) {
+            afterCommit(projectId, index -> indexes.synchronous().invalidate(projectId));
+        }
+    }
+
+    /** Heap bytes the cache currently accounts for, as last weighed. */
+    long weighedBytes() {
+        return indexes.synchronous().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    private BoardIndex index(Long projectId) {
+        long stamp = stamps.get(stripe(projectId));
+        CompletableFuture<BoardIndex> pending = new CompletableFuture<>();
+        // Only the pending future is installed under the map lock; the build runs outside it (see MembershipCache)
+        CompletableFuture<BoardIndex> entry = indexes.get(projectId, (k, executor) -> pending);
+        if (entry != pending) {
+            return entry.join();
+        }
+        BoardIndex index;
+        try {
+            // From the primary: a change that committed before the build started is not applied to it again, so
+            // rows a lagging replica had not caught up with would stay missing
+            index = ReadWriteRoutingDataSource.onPrimary(() -> BoardIndex.build(
+                    taskRepository.findFacetRowsByProjectId(projectId),
+                    taskLabelRepository.findRowsByProjectId(projectId)));
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        pending.complete(index);
+        if (stamps.get(stripe(projectId)) != stamp) {
+            indexes.asMap().remove(projectId, pending);
+        }
+        return index;
+    }
+
+    // The stamp moves before the change is applied. A build still in flight then drops its result once done,
+    // and a finished one is changed in place
+    private void afterCommit(Long projectId, Consumer<BoardIndex> change) {
+        Runnable apply = () -> {
+            stamps.incrementAndGet(stripe(projectId));
+            CompletableFuture<BoardIndex> entry = indexes.getIfPresent(projectId);
+            if (entry != null && entry.isDone() && !entry.isCompletedExceptionally()) {
+                change.accept(entry.join());
+                // Indexes grow in place; the weigher only runs on a put
+                indexes.asMap().replace(projectId, entry, entry);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private static int stripe(Long projectId) {
+        return (int) Math.floorMod(projectId, (long) STRIPES);
+    }
+
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values == null ? List.of() : values;
+    }
+}
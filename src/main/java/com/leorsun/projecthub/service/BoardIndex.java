@@ -0,0 +1,306 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index of one project's board. Every task gets a dense ordinal (ordinal i stands for
+ * taskIds[i], ascending ids), and every status, priority, assignee and label value a compressed bitmap of the
+ * ordinals carrying it. A filter is a handful of bitmap ORs and ANDs, a facet count one AND cardinality, so
+ * neither touches the database.
+ * <p>
+ * Ordinals are never reused: removed tasks only leave the live bitmap, and the owner rebuilds the index once
+ * holes pile up ({@link #holes()}). Reads share a lock, mutations take it exclusively.
+ */
+final class BoardIndex {
+    // Assignee key of tasks without one; user ids start at 1
+    static final long UNASSIGNED = 0L;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] taskIds;
+    private int size;
+    private final Map<Long, Integer> ordinals;
+    // Current values per ordinal, to know which bitmaps to leave on a change
+    private byte[] statusOf;
+    private byte[] priorityOf;
+    private long[] assigneeOf;
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap[] byStatus = bitmaps(STATUSES.length);
+    private final RoaringBitmap[] byPriority = bitmaps(PRIORITIES.length);
+    private final Map<Long, RoaringBitmap> byAssignee = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byLabel = new HashMap<>();
+
+    private BoardIndex(int capacity) {
+        capacity = Math.max(capacity, 16);
+        taskIds = new long[capacity];
+        statusOf = new byte[capacity];
+        priorityOf = new byte[capacity];
+        assigneeOf = new long[capacity];
+        ordinals = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * Builds the index from (id, status, priority, assigneeId) rows in ascending id order and (taskId, labelId)
+     * rows in any order.
+     */
+    static BoardIndex build(List<Object[]> taskRows, List<Object[]> labelRows) {
+        BoardIndex index = new BoardIndex(taskRows.size());
+        for (Object[] row : taskRows) {
+            index.append(((Number) row[0]).longValue(), (TaskStatus) row[1], (TaskPriority) row[2], (Long) row[3]);
+        }
+        for (Object[] row : labelRows) {
+            Integer ordinal = index.ordinals.get(((Number) row[0]).longValue());
+            if (ordinal != null) {
+                index.byLabel.computeIfAbsent(((Number) row[1]).longValue(), k -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+        index.live.runOptimize();
+        for (RoaringBitmap bitmap : index.byLabel.values()) bitmap.runOptimize();
+        for (RoaringBitmap bitmap : index.byAssignee.values()) bitmap.runOptimize();
+        return index;
+    }
+
+    /**
+     * Adds or updates a task. Returns false, leaving the index untouched, when a new task's id is lower than the
+     * last one indexed (ids from another node's sequence block); the index then needs a rebuild.
+     */
+    boolean put(long taskId, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(taskId);
+            if (ordinal == null) {
+                if (size > 0 && taskId < taskIds[size - 1]) return false;
+                append(taskId, status, priority, assigneeId);
+                return true;
+            }
+            int i = ordinal;
+            byStatus[statusOf[i]].remove(i);
+            byPriority[priorityOf[i]].remove(i);
+            removeFrom(byAssignee, assigneeOf[i], i);
+            set(i, status, priority, assigneeId);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(taskId);
+            if (ordinal == null) return;
+            int i = ordinal;
+            live.remove(i);
+            byStatus[statusOf[i]].remove(i);
+            byPriority[priorityOf[i]].remove(i);
+            removeFrom(byAssignee, assigneeOf[i], i);
+            for (var it = byLabel.values().iterator(); it.hasNext(); ) {
+                RoaringBitmap bitmap = it.next();
+                if (bitmap.checkedRemove(i) && bitmap.isEmpty()) it.remove();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void label(long taskId, long labelId, boolean add) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(taskId);
+            if (ordinal == null) return;
+            if (add) {
+                byLabel.computeIfAbsent(labelId, k -> new RoaringBitmap()).add(ordinal);
+            } else {
+                removeFrom(byLabel, labelId, ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void dropLabel(long labelId) {
+        lock.writeLock().lock();
+        try {
+            byLabel.remove(labelId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a filter: values within one facet are ORed (labels optionally ANDed), facets are ANDed, an empty
+     * facet does not filter. Returns the match count, up to {@code limit} task ids after {@code afterTaskId}
+     * and, over the whole match set, the count of every facet value.
+     */
+    Result query(Filter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = live.clone();
+            if (!filter.statuses().isEmpty()) {
+                matches.and(union(filter.statuses().stream().map(s -> byStatus[s.ordinal()]).toList()));
+            }
+            if (!filter.priorities().isEmpty()) {
+                matches.and(union(filter.priorities().stream().map(p -> byPriority[p.ordinal()]).toList()));
+            }
+            if (!filter.assigneeIds().isEmpty()) {
+                matches.and(union(filter.assigneeIds().stream().map(byAssignee::get).toList()));
+            }
+            if (!filter.labelIds().isEmpty()) {
+                List<RoaringBitmap> labels = filter.labelIds().stream().map(byLabel::get).toList();
+                if (filter.allLabels()) {
+                    for (RoaringBitmap label : labels) {
+                        if (label == null) {
+                            matches.clear();
+                            break;
+                        }
+                        matches.and(label);
+                    }
+                } else {
+                    matches.and(union(labels));
+                }
+            }
+
+            // Ordinals follow ids, so the page starts at the first ordinal past the cursor's task
+            int from = Arrays.binarySearch(taskIds, 0, size, filter.afterTaskId());
+            from = from >= 0 ? from + 1 : -from - 1;
+            long[] page = new long[Math.min(filter.limit(), matches.getCardinality())];
+            int n = 0;
+            PeekableIntIterator it = matches.getIntIterator();
+            it.advanceIfNeeded(from);
+            while (n < page.length && it.hasNext()) {
+                page[n++] = taskIds[it.next()];
+            }
+
+            Map<TaskStatus, Integer> statusCounts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : STATUSES) {
+                statusCounts.put(status, RoaringBitmap.andCardinality(matches, byStatus[status.ordinal()]));
+            }
+            Map<TaskPriority, Integer> priorityCounts = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : PRIORITIES) {
+                priorityCounts.put(priority, RoaringBitmap.andCardinality(matches, byPriority[priority.ordinal()]));
+            }
+            return new Result(matches.getCardinality(), Arrays.copyOf(page, n), statusCounts, priorityCounts,
+                    counts(byAssignee, matches), counts(byLabel, matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ordinals left behind by removed tasks. */
+    int holes() {
+        lock.readLock().lock();
+        try {
+            return size - live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int liveTasks() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rough heap footprint in bytes, for the cache's weigher. Re-weighed after every change, so taken under the lock. */
+    long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) taskIds.length * (8 + 1 + 1 + 8) + ordinals.size() * 64L + live.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byStatus) bytes += bitmap.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byPriority) bytes += bitmap.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : byAssignee.values()) bytes += bitmap.getLongSizeInBytes() + 64;
+            for (RoaringBitmap bitmap : byLabel.values()) bytes += bitmap.getLongSizeInBytes() + 64;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void append(long taskId, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        if (size == taskIds.length) {
+            int capacity = size + (size >> 1);
+            taskIds = Arrays.copyOf(taskIds, capacity);
+            statusOf = Arrays.copyOf(statusOf, capacity);
+            priorityOf = Arrays.copyOf(priorityOf, capacity);
+            assigneeOf = Arrays.copyOf(assigneeOf, capacity);
+        }
+        int i = size++;
+        taskIds[i] = taskId;
+        ordinals.put(taskId, i);
+        live.add(i);
+        set(i, status, priority, assigneeId);
+    }
+
+    private void set(int i, TaskStatus status, TaskPriority priority, Long assigneeId) {
+        long assignee = assigneeId == null ? UNASSIGNED : assigneeId;
+        statusOf[i] = (byte) status.ordinal();
+        priorityOf[i] = (byte) priority.ordinal();
+        assigneeOf[i] = assignee;
+        byStatus[status.ordinal()].add(i);
+        byPriority[priority.ordinal()].add(i);
+        byAssignee.computeIfAbsent(assignee, k -> new RoaringBitmap()).add(i);
+    }
+
+    private static void removeFrom(Map<Long, RoaringBitmap> bitmaps, long key, int ordinal) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) bitmaps.remove(key);
+        }
+    }
+
+    // Missing values (an unknown label or assignee) simply match nothing
+    private static RoaringBitmap union(List<RoaringBitmap> bitmaps) {
+        List<RoaringBitmap> present = new ArrayList<>(bitmaps.size());
+        for (RoaringBitmap bitmap : bitmaps) {
+            if (bitmap != null) present.add(bitmap);
+        }
+        return FastAggregation.or(present.iterator());
+    }
+
+    private static Map<Long, Integer> counts(Map<Long, RoaringBitmap> bitmaps, RoaringBitmap matches) {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<Long, RoaringBitmap> entry : bitmaps.entrySet()) {
+            int count = RoaringBitmap.andCardinality(matches, entry.getValue());
+            if (count > 0) counts.put(entry.getKey(), count);
+        }
+        return counts;
+    }
+
+    private static RoaringBitmap[] bitmaps(int n) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[n];
+        for (int i = 0; i < n; i++) bitmaps[i] = new RoaringBitmap();
+        return bitmaps;
+    }
+
+    /** Empty sets mean "any"; assignee {@link #UNASSIGNED} selects tasks without one. */
+    record Filter(Set<Long> labelIds, boolean allLabels, Set<TaskStatus> statuses, Set<TaskPriority> priorities,
+                  Set<Long> assigneeIds, long afterTaskId, int limit) {
+    }
+
+    record Result(int total, long[] page, Map<TaskStatus, Integer> statusCounts,
+                  Map<TaskPriority, Integer> priorityCounts, Map<Long, Integer> assigneeCounts,
+                  Map<Long, Integer> labelCounts) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.leorsun.projecthub.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable "blocks" graph of one project in compressed sparse row form. Only tasks that take part in a link
+ * are nodes; node i stands for taskIds[i] (sorted, so lookups are a binary search). The successors of node i
+ * (the tasks it blocks) are succ[succStart[i] .. succStart[i + 1]), its blockers likewise in pred/predStart.
+ * A 50k-link project costs a few int arrays instead of an entity graph. The topological order is worked out
+ * once per build; it covers every node as long as the graph is acyclic.
+ */
+final class DependencyGraph {
+    private final long version;
+    private final long[] taskIds;
+    private final int[] succStart;
+    private final int[] succ;
+    private final int[] predStart;
+    private final int[] pred;
+    private final int[] topoOrder;
+
+    private DependencyGraph(long version, long[] taskIds, int[] succStart, int[] succ, int[] predStart, int[] pred) {
+        this.version = version;
+        this.taskIds = taskIds;
+        this.succStart = succStart;
+        this.succ = succ;
+        this.predStart = predStart;
+        this.pred = pred;
+        this.topoOrder = kahn();
+    }
+
+    /** Builds the graph from parallel edge arrays: blockers[k] blocks blocked[k]. */
+    static DependencyGraph build(long version, long[] blockers, long[] blocked) {
+        int edges = blockers.length;
+        long[] ids = new long[2 * edges];
+        System.arraycopy(blockers, 0, ids, 0, edges);
+        System.arraycopy(blocked, 0, ids, edges, edges);
+        Arrays.sort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) ids[n++] = ids[i];
+        }
+        long[] taskIds = Arrays.copyOf(ids, n);
+
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        for (int k = 0; k < edges; k++) {
+            from[k] = Arrays.binarySearch(taskIds, blockers[k]);
+            to[k] = Arrays.binarySearch(taskIds, blocked[k]);
+        }
+        int[] succStart = new int[n + 1];
+        int[] succ = new int[edges];
+        fill(from, to, succStart, succ);
+        int[] predStart = new int[n + 1];
+        int[] pred = new int[edges];
+        fill(to, from, predStart, pred);
+        return new DependencyGraph(version, taskIds, succStart, succ, predStart, pred);
+    }
+
+    static DependencyGraph fromRows(long version, List<Object[]> rows) {
+        long[] blockers = new long[rows.size()];
+        long[] blocked = new long[rows.size()];
+        for (int k = 0; k < rows.size(); k++) {
+            blockers[k] = ((Number) rows.get(k)[0]).longValue();
+            blocked[k] = ((Number) rows.get(k)[1]).longValue();
+        }
+        return build(version, blockers, blocked);
+    }
+
+    // Counting sort of the edges by source into start/targets
+    private static void fill(int[] source, int[] target, int[] start, int[] targets) {
+        for (int s : source) start[s + 1]++;
+        for (int i = 0; i < start.length - 1; i++) start[i + 1] += start[i];
+        int[] next = Arrays.copyOf(start, start.length - 1);
+        for (int k = 0; k < source.length; k++) targets[next[source[k]]++] = target[k];
+    }
+
+    /** The same graph plus one link, for the next version. */
+    DependencyGraph withEdge(long newVersion, long blockerId, long blockedId) {
+        int edges = succ.length;
+        long[] blockers = new long[edges + 1];
+        long[] blocked = new long[edges + 1];
+        int k = 0;
+        for (int i = 0; i < taskIds.length; i++) {
+            for (int e = succStart[i]; e < succStart[i + 1]; e++) {
+                blockers[k] = taskIds[i];
+                blocked[k++] = taskIds[succ[e]];
+            }
+        }
+        blockers[k] = blockerId;
+        blocked[k] = blockedId;
+        return build(newVersion, blockers, blocked);
+    }
+
+    long version() {
+        return version;
+    }
+
+    int nodeCount() {
+        return taskIds.length;
+    }
+
+    int edgeCount() {
+        return succ.length;
+    }
+
+    /** Node index of a task, or -1 if it has no links. */
+    int indexOf(long taskId) {
+        int i = Arrays.binarySearch(taskIds, taskId);
+        return i >= 0 ? i : -1;
+    }
+
+    long taskId(int node) {
+        return taskIds[node];
+    }
+
+    // Blockers of a node: blocker(e) for e in [blockersFrom(node), blockersTo(node)); no copies on the hot loops
+    int blockersFrom(int node) {
+        return predStart[node];
+    }
+
+    int blockersTo(int node) {
+        return predStart[node + 1];
+    }
+
+    int blocker(int e) {
+        return pred[e];
+    }
+
+    /** Node indexes, every blocker before the tasks it blocks. Shared; do not modify. */
+    int[] topologicalOrder() {
+        return topoOrder;
+    }
+
+    /**
+     * Whether {@code toTaskId} can be reached from {@code fromTaskId} along "blocks" links. Linking
+     * blocker -> blocked closes a cycle exactly when the blocker is already reachable from the blocked task.
+     */
+    boolean reaches(long fromTaskId, long toTaskId) {
+        int from = indexOf(fromTaskId);
+        int to = indexOf(toTaskId);
+        if (from < 0 || to < 0) return fromTaskId == toTaskId;
+        BitSet seen = new BitSet(taskIds.length);
+        int[] queue = new int[taskIds.length];
+        int head = 0, tail = 0;
+        queue[tail++] = from;
+        seen.set(from);
+        while (head < tail) {
+            int node = queue[head++];
+            if (node == to) return true;
+            for (int e = succStart[node]; e < succStart[node + 1]; e++) {
+                int next = succ[e];
+                if (!seen.get(next)) {
+                    seen.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int[] kahn() {
+        int n = taskIds.length;
+        int[] inDegree = new int[n];
+        for (int i = 0; i < n; i++) inDegree[i] = predStart[i + 1] - predStart[i];
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) order[tail++] = i;
+        }
+        while (head < tail) {
+            int node = order[head++];
+            for (int e = succStart[node]; e < succStart[node + 1]; e++) {
+                if (--inDegree[succ[e]] == 0) order[tail++] = succ[e];
+            }
+        }
+        // Nodes left out sit on a cycle; links are checked on insert, so this only trims bad legacy data
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+}
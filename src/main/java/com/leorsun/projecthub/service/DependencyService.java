@@ -0,0 +1,288 @@
+package com.leorsun.projecthub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.TaskAccess;
+import com.leorsun.projecthub.repository.TaskDependencyRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.responses.CriticalPath;
+import com.leorsun.projecthub.responses.DependencyEdge;
+import com.leorsun.projecthub.responses.TaskSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * "Blocks / blocked by" links, the tasks that are ready to start and the critical path of a project.
+ * <p>
+ * Each project's links are cached as a {@link DependencyGraph} tagged with the version of its DEPENDENCIES row
+ * (see {@link TaskGraphLocks}). Linking and unlinking bump that version first, which also locks the row, so
+ * changes to one graph are serialized across nodes and every node notices them on its next read. Deleting or archiving a task drops
+ * its links through ON DELETE CASCADE without a bump; a cached graph can therefore hold links to tasks that are
+ * gone, never miss one. The views skip tasks that no longer exist, and a cycle found on the cached graph is
+ * confirmed against the table before a link is refused.
+ */
+@Service
+public class DependencyService {
+    private final TaskDependencyRepository dependencyRepository;
+    private final TaskRepository taskRepository;
+    private final TaskGraphLocks graphLocks;
+    private final MembershipCache membershipCache;
+    private final Cache<Long, DependencyGraph> graphs;
+
+    public DependencyService(TaskDependencyRepository dependencyRepository,
+                             TaskRepository taskRepository,
+                             TaskGraphLocks graphLocks,
+                             MembershipCache membershipCache,
+                             @Value("${projecthub.dependency-graph.max-edges:2000000}") long maxEdges) {
+        this.dependencyRepository = dependencyRepository;
+        this.taskRepository = taskRepository;
+        this.graphLocks = graphLocks;
+        this.membershipCache = membershipCache;
+        this.graphs = Caffeine.newBuilder()
+                .maximumWeight(maxEdges)
+                .weigher((Long projectId, DependencyGraph graph) -> Math.max(1, graph.edgeCount()))
+                .build();
+    }
+
+    /**
+     * Records that {@code blockerId} blocks {@code taskId}. Refused with 409 if the blocker already (transitively)
+     * waits for the task; linking twice is a no-op.
+     */
+    @Transactional
+    public DependencyEdge addBlocker(User actor, Long taskId, Long blockerId) {
+        if (blockerId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "blockerId is required");
+        }
+        if (blockerId.equals(taskId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A task cannot block itself");
+        }
+        Task task = authorize(taskRepository.findWithRole(taskId, actor.getId()), ProjectRole.MEMBER).task();
+        Long projectId = task.getProject().getId();
+        Long blockerProjectId = taskRepository.findProjectIdById(blockerId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Blocker task not found"));
+        if (!blockerProjectId.equals(projectId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both tasks must be in the same project");
+        }
+
+        long version = graphLocks.lock(projectId, TaskGraph.DEPENDENCIES);
+        DependencyEdge edge = new DependencyEdge(blockerId, taskId);
+        if (dependencyRepository.existsEdge(blockerId, taskId)) {
+            return edge;
+        }
+        // With the row locked nothing else changes the links, so the previous version is the current state
+        DependencyGraph graph = graphs.getIfPresent(projectId);
+        boolean cycle;
+        if (graph != null && graph.version() == version - 1) {
+            cycle = graph.reaches(taskId, blockerId);
+            if (cycle) {
+                // The cached graph may still hold links of deleted tasks; check the real ones
+                graph = loadGraph(projectId, version - 1);
+                cycle = graph.reaches(taskId, blockerId);
+            }
+        } else {
+            graph = loadGraph(projectId, version - 1);
+            cycle = graph.reaches(taskId, blockerId);
+        }
+        if (cycle) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Link would create a dependency cycle");
+        }
+
+        TaskDependency dependency = new TaskDependency();
+        dependency.setProject(task.getProject());
+        dependency.setBlocker(taskRepository.getReferenceById(blockerId));
+        dependency.setBlocked(taskRepository.getReferenceById(taskId));
+        dependencyRepository.save(dependency);
+
+        DependencyGraph next = graph.withEdge(version, blockerId, taskId);
+        afterCommit(() -> graphs.put(projectId, next));
+        return edge;
+    }
+
+    @Transactional
+    public void removeBlocker(User actor, Long taskId, Long blockerId) {
+        Task task = authorize(taskRepository.findWithRole(taskId, actor.getId()), ProjectRole.MEMBER).task();
+        graphLocks.lock(task.getProject().getId(), TaskGraph.DEPENDENCIES);
+        if (dependencyRepository.deleteEdge(blockerId, taskId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Dependency not found");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DependencyEdge> listDependencies(User user, Long projectId) {
+        assertMember(user, projectId);
+        return dependencyRepository.findEdges(projectId);
+    }
+
+    /**
+     * Open tasks none of whose blockers are still open, earliest due date first.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSummary> readyTasks(User user, Long projectId) {
+        assertMember(user, projectId);
+        DependencyGraph graph = currentGraph(projectId);
+        List<TaskSummary> tasks = taskRepository.findSummariesByProjectId(projectId);
+        TaskSummary[] nodes = nodeTasks(graph, tasks);
+
+        List<TaskSummary> ready = new ArrayList<>();
+        for (TaskSummary task : tasks) {
+            if (!isOpen(task)) continue;
+            int node = graph.indexOf(task.getId());
+            boolean blocked = false;
+            if (node >= 0) {
+                for (int e = graph.blockersFrom(node); e < graph.blockersTo(node) && !blocked; e++) {
+                    blocked = isOpen(nodes[graph.blocker(e)]);
+                }
+            }
+            if (!blocked) ready.add(task);
+        }
+        ready.sort(Comparator.comparing(TaskSummary::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(TaskSummary::getId));
+        return ready;
+    }
+
+    /**
+     * The chain of open tasks that decides when the project can finish. Walking the blockers in topological
+     * order, each open task finishes at the later of its own due date and its latest-finishing open blocker;
+     * the path ends at the task that finishes last (the longer chain on ties) and is traced back through
+     * those blockers.
+     */
+    @Transactional(readOnly = true)
+    public CriticalPath criticalPath(User user, Long projectId) {
+        assertMember(user, projectId);
+        DependencyGraph graph = currentGraph(projectId);
+        List<TaskSummary> tasks = taskRepository.findSummariesByProjectId(projectId);
+        TaskSummary[] nodes = nodeTasks(graph, tasks);
+
+        int n = nodes.length;
+        LocalDate[] finish = new LocalDate[n];
+        int[] length = new int[n];
+        int[] previous = new int[n];
+        int end = -1;
+        for (int node : graph.topologicalOrder()) {
+            previous[node] = -1;
+            if (!isOpen(nodes[node])) continue;
+            int best = -1;
+            for (int e = graph.blockersFrom(node); e < graph.blockersTo(node); e++) {
+                int blocker = graph.blocker(e);
+                if (length[blocker] > 0 && (best < 0 || later(finish[blocker], length[blocker], finish[best], length[best]))) {
+                    best = blocker;
+                }
+            }
+            finish[node] = nodes[node].getDueDate();
+            length[node] = 1;
+            if (best >= 0) {
+                finish[node] = max(finish[node], finish[best]);
+                length[node] = length[best] + 1;
+                previous[node] = best;
+            }
+            if (end < 0 || later(finish[node], length[node], finish[end], length[end])) {
+                end = node;
+            }
+        }
+
+        List<TaskSummary> path = new ArrayList<>();
+        for (int node = end; node >= 0; node = previous[node]) {
+            path.add(nodes[node]);
+        }
+        Collections.reverse(path);
+        LocalDate pathFinish = end >= 0 ? finish[end] : null;
+        // A lone task without links can still outlast every chain
+        for (TaskSummary task : tasks) {
+            if (isOpen(task) && graph.indexOf(task.getId()) < 0
+                    && later(task.getDueDate(), 1, pathFinish, path.size())) {
+                path = List.of(task);
+                pathFinish = task.getDueDate();
+            }
+        }
+        return new CriticalPath(pathFinish, path);
+    }
+
+    private DependencyGraph currentGraph(Long projectId) {
+        // Version first: edges read after it can only be newer, and newer versions replace the entry
+        Optional<Long> version = graphLocks.currentVersion(projectId, TaskGraph.DEPENDENCIES);
+        if (version.isEmpty()) {
+            return DependencyGraph.fromRows(-1, dependencyRepository.findEdgeRows(projectId));
+        }
+        DependencyGraph graph = graphs.getIfPresent(projectId);
+        if (graph == null || graph.version() != version.get()) {
+            // Built outside the cache's compute so no map lock is held across the query (see MembershipCache)
+            graph = loadGraph(projectId, version.get());
+            graphs.put(projectId, graph);
+        }
+        return graph;
+    }
+
+    private DependencyGraph loadGraph(Long projectId, long version) {
+        return DependencyGraph.fromRows(version, dependencyRepository.findEdgeRows(projectId));
+    }
+
+    // Task rows aligned with the graph's node indexes; null where the task no longer exists
+    private static TaskSummary[] nodeTasks(DependencyGraph graph, List<TaskSummary> tasks) {
+        TaskSummary[] nodes = new TaskSummary[graph.nodeCount()];
+        for (TaskSummary task : tasks) {
+            int node = graph.indexOf(task.getId());
+            if (node >= 0) nodes[node] = task;
+        }
+        return nodes;
+    }
+
+    private static boolean isOpen(TaskSummary task) {
+        return task != null && task.getStatus() != TaskStatus.DONE;
+    }
+
+    // Later finish wins, no due date counts as earliest; then the longer chain
+    private static boolean later(LocalDate finish, int length, LocalDate otherFinish, int otherLength) {
+        int c = Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()).compare(finish, otherFinish);
+        return c != 0 ? c > 0 : length > otherLength;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void assertMember(User user, Long projectId) {
+        if (membershipCache.getRole(projectId, user.getId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
+        }
+    }
+
+    private TaskAccess authorize(Optional<TaskAccess> access, ProjectRole required) {
+        TaskAccess found = access
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        if (found.role() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
+        }
+        if (!found.role().atLeast(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        }
+        return found;
+    }
+}
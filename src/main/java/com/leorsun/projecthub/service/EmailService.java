@@ -1,17 +1,46 @@
 package com.leorsun.projecthub.service;
 
+import com.leorsun.projecthub.config.Bulkhead;
+import com.leorsun.projecthub.config.FlightEvents;
+import com.leorsun.projecthub.config.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class EmailService {
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
+    @Lazy
     private JavaMailSender emailSender;
 
+    @Autowired
+    @Qualifier("mailBulkhead")
+    private Bulkhead mailBulkhead;
+
+    @Autowired
+    @Qualifier("mailExecutor")
+    private ExecutorService mailExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public void sendVerificationEmail(String to, String subject, String text) throws MessagingException {
         MimeMessage message = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
@@ -20,6 +49,68 @@ public class EmailService {
         helper.setSubject(subject);
         helper.setText(text, true);
 
-        emailSender.send(message);
+        // Includes the wait for a bulkhead slot; outcome "rejected" means no slot came free in time
+        Timer.Sample sample = Timer.start(meterRegistry);
+        FlightEvents.MailDispatch event = new FlightEvents.MailDispatch();
+        event.begin();
+        String outcome = "failure";
+        try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.MAIL)) {
+            // SMTP is slow and rate limited; bound concurrent sessions instead of opening one per request
+            try {
+                if (!mailBulkhead.tryAcquire()) {
+                    outcome = "rejected";
+                    throw new MessagingException("Mail bulkhead full: no SMTP slot within " + mailBulkhead.getMaxWait().toMillis() + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessagingException("Interrupted waiting for an SMTP slot", e);
+            }
+            try {
+                emailSender.send(message);
+                outcome = "success";
+            } finally {
+                mailBulkhead.release();
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("projecthub.mail.send", "outcome", outcome));
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Best-effort send once the current transaction commits (right away if there is none), so nothing is mailed
+     * for a rolled-back write. The message is handed to the mail executor rather than sent inline: afterCommit
+     * runs before the connection goes back to the pool, and the caller should not wait on SMTP either.
+     * Failures are logged.
+     */
+    public void sendAfterCommit(String to, String subject, String text) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(to, subject, text);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(to, subject, text);
+            }
+        });
+    }
+
+    private void dispatch(String to, String subject, String text) {
+        try {
+            mailExecutor.execute(() -> sendQuietly(to, subject, text));
+        } catch (RejectedExecutionException e) {
+            // Only while shutting down
+            log.warn("Could not queue '{}' to {}", subject, to, e);
+        }
+    }
+
+    private void sendQuietly(String to, String subject, String text) {
+        try {
+            sendVerificationEmail(to, subject, text);
+        } catch (MessagingException | MailException e) {
+            log.warn("Could not send '{}' to {}", subject, to, e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.leorsun.projecthub.service;
 
+import com.leorsun.projecthub.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -26,6 +28,9 @@ public class JwtService {
     @Value("${security.jwt.refresh-expiration-time:2592000000}") // default 30 days
     private long refreshExpiration;
 
+    // Built once: each build() runs a ServiceLoader lookup that serializes concurrent requests on the jar lock
+    private volatile JwtParser parser;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -98,14 +103,7 @@ public class JwtService {
     }
 
     private String tryGetEmail(UserDetails userDetails) {
-        try {
-            Class<?> userClass = Class.forName("com.leorsun.projecthub.model.User");
-            if (userClass.isInstance(userDetails)) {
-                return (String) userClass.getMethod("getEmail").invoke(userDetails);
-            }
-        } catch (Exception ignored) {
-        }
-        return null;
+        return userDetails instanceof User user ? user.getEmail() : null;
     }
 
     private boolean isTokenExpired(String token) {
@@ -117,12 +115,16 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser().parseClaimsJws(token).getBody();
+    }
+
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(getSignInKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
     private Key getSignInKey() {
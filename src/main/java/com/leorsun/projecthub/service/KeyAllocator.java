@@ -0,0 +1,106 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.repository.ProjectKeyCounterRepository;
+import com.leorsun.projecthub.repository.ProjectRepository;
+import com.leorsun.projecthub.repository.ProjectTaskCounterRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands out generated project keys and per-project task numbers from counter rows. Each allocation is a single
+ * atomic increment, whose row lock lines up concurrent callers for the same prefix or project (and only those)
+ * until their transaction commits; nothing probes for free values in a loop. Numbers of rolled-back or deleted
+ * tasks are not reused.
+ * <p>
+ * A counter row is created the first time its prefix or project is seen, seeded with one query over the
+ * existing keys or task numbers and then incremented like any other. Should two transactions seed the same row
+ * at once, the second insert waits for the first and does nothing, so both go on to increment the same row.
+ */
+@Service
+public class KeyAllocator {
+    private static final int MAX_BASE_LENGTH = 6;
+
+    private final ProjectKeyCounterRepository keyCounterRepository;
+    private final ProjectTaskCounterRepository taskCounterRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+
+    public KeyAllocator(ProjectKeyCounterRepository keyCounterRepository,
+                        ProjectTaskCounterRepository taskCounterRepository,
+                        ProjectRepository projectRepository,
+                        TaskRepository taskRepository) {
+        this.keyCounterRepository = keyCounterRepository;
+        this.taskCounterRepository = taskCounterRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    static String sanitizeKey(String raw) {
+        return raw.trim().toUpperCase().replaceAll("[^A-Z0-9]", "");
+    }
+
+    /** Up to six key characters taken from the project name; "PRJ" when the name has none. */
+    static String keyBase(String name) {
+        String base = sanitizeKey(name);
+        if (base.length() > MAX_BASE_LENGTH) base = base.substring(0, MAX_BASE_LENGTH);
+        return base.isEmpty() ? "PRJ" : base;
+    }
+
+    static String withSuffix(String base, int suffix) {
+        return suffix == 0 ? base : base + suffix;
+    }
+
+    /**
+     * Reserves the next generated key for a project name: the bare base first, then base1, base2, ...
+     */
+    @Transactional
+    public String reserveProjectKey(String name) {
+        String base = keyBase(name);
+        String key = withSuffix(base, nextSuffix(base));
+        // Only explicitly chosen keys can sit on a generated slot; skip past them
+        while (projectRepository.existsByKeyIgnoreCase(key)) {
+            key = withSuffix(base, nextSuffix(base));
+        }
+        return key;
+    }
+
+    private int nextSuffix(String base) {
+        if (keyCounterRepository.increment(base) == 0) {
+            int last = projectRepository.findKeysStartingWith(base).stream()
+                    .mapToInt(key -> suffixOf(base, key))
+                    .max().orElse(-1);
+            keyCounterRepository.insertIfAbsent(base, last);
+            keyCounterRepository.increment(base);
+        }
+        return keyCounterRepository.findLastSuffix(base).orElseThrow();
+    }
+
+    // Suffix of an existing key under this base: 0 for the base itself, n for base + n, -1 if unrelated
+    private static int suffixOf(String base, String key) {
+        String rest = key.substring(base.length());
+        if (rest.isEmpty()) return 0;
+        if (rest.length() > 9 || !rest.chars().allMatch(Character::isDigit) || rest.charAt(0) == '0') return -1;
+        return Integer.parseInt(rest);
+    }
+
+    /** Starts the task numbering of a newly created project. */
+    @Transactional
+    public void startTaskNumbers(Long projectId) {
+        taskCounterRepository.insertIfAbsent(projectId, 0);
+    }
+
+    /**
+     * Allocates the next task number in the project. Call it as late as possible in the creating transaction:
+     * the counter row stays locked until commit.
+     */
+    @Transactional
+    public long nextTaskNumber(Long projectId) {
+        if (taskCounterRepository.increment(projectId) == 0) {
+            // Project created before numbering (or outside ProjectService): continue after its highest number
+            taskCounterRepository.insertIfAbsent(projectId, taskRepository.findMaxNumber(projectId));
+            taskCounterRepository.increment(projectId);
+        }
+        return taskCounterRepository.findLastNumber(projectId).orElseThrow();
+    }
+}
@@ -0,0 +1,142 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.CreateLabelDto;
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.LabelRepository;
+import com.leorsun.projecthub.repository.ProjectRepository;
+import com.leorsun.projecthub.repository.TaskAccess;
+import com.leorsun.projecthub.repository.TaskLabelRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Project labels and which tasks carry them. Every change is passed on to {@link BoardFilterService}.
+ */
+@Service
+public class LabelService {
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final Pattern COLOR = Pattern.compile("#[0-9a-fA-F]{6}");
+
+    private final LabelRepository labelRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final MembershipCache membershipCache;
+    private final BoardFilterService boardFilterService;
+
+    public LabelService(LabelRepository labelRepository,
+                        TaskLabelRepository taskLabelRepository,
+                        TaskRepository taskRepository,
+                        ProjectRepository projectRepository,
+                        MembershipCache membershipCache,
+                        BoardFilterService boardFilterService) {
+        this.labelRepository = labelRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.membershipCache = membershipCache;
+        this.boardFilterService = boardFilterService;
+    }
+
+    @Transactional
+    public Label createLabel(User actor, Long projectId, CreateLabelDto dto) {
+        requireRole(actor, projectId, ProjectRole.MEMBER);
+        String name = dto.getName() == null ? "" : dto.getName().trim();
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Label name must be 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+        if (dto.getColor() != null && !COLOR.matcher(dto.getColor()).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Color must look like #1f883d");
+        }
+        if (labelRepository.existsByName(projectId, name)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Label already exists");
+        }
+        Project project = projectRepository.findById(projectId)
+                .filter(p -> !p.isDeleted())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        Label label = new Label();
+        label.setProject(project);
+        label.setName(name);
+        label.setColor(dto.getColor());
+        try {
+            return labelRepository.saveAndFlush(label);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Label already exists");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Label> listLabels(User user, Long projectId) {
+        requireRole(user, projectId, ProjectRole.VIEWER);
+        return labelRepository.findByProjectId(projectId);
+    }
+
+    /** Removes the label from the project and from every task carrying it. */
+    @Transactional
+    public void deleteLabel(User actor, Long projectId, Long labelId) {
+        requireRole(actor, projectId, ProjectRole.ADMIN);
+        findLabel(labelId, projectId);
+        labelRepository.deleteAllByIdIn(List.of(labelId));
+        boardFilterService.labelDeleted(projectId, labelId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Label> labelsOf(User user, Long taskId) {
+        authorize(taskRepository.findWithRole(taskId, user.getId()), ProjectRole.VIEWER);
+        return taskLabelRepository.findLabelsOfTask(taskId);
+    }
+
+    /** Puts a label on a task; labelling twice is a no-op. */
+    @Transactional
+    public void addLabel(User actor, Long taskId, Long labelId) {
+        Task task = authorize(taskRepository.findWithRole(taskId, actor.getId()), ProjectRole.MEMBER).task();
+        Long projectId = task.getProject().getId();
+        findLabel(labelId, projectId);
+        if (taskLabelRepository.link(taskId, labelId) == 0) {
+            return;
+        }
+        boardFilterService.labelChanged(projectId, taskId, labelId, true);
+    }
+
+    @Transactional
+    public void removeLabel(User actor, Long taskId, Long labelId) {
+        Task task = authorize(taskRepository.findWithRole(taskId, actor.getId()), ProjectRole.MEMBER).task();
+        if (taskLabelRepository.deleteLink(taskId, labelId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task does not have this label");
+        }
+        boardFilterService.labelChanged(task.getProject().getId(), taskId, labelId, false);
+    }
+
+    private Label findLabel(Long labelId, Long projectId) {
+        return labelRepository.findInProject(labelId, projectId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Label not found"));
+    }
+
+    private void requireRole(User user, Long projectId, ProjectRole role) {
+        ProjectRole actual = membershipCache.getRole(projectId, user.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member"));
+        if (!actual.atLeast(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        }
+    }
+
+    private TaskAccess authorize(Optional<TaskAccess> access, ProjectRole required) {
+        TaskAccess found = access
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        if (found.role() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
+        }
+        if (!found.role().atLeast(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        }
+        return found;
+    }
+}
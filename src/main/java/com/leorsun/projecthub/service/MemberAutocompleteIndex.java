@@ -0,0 +1,60 @@
+package com.leorsun.projecthub.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.responses.MemberSuggestion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-project member prefix indexes, built lazily from one join query and dropped on membership changes.
+ * Total size is bounded by member count across cached projects; cold projects are evicted first. Entries expire
+ * with the membership cache's TTL, which bounds how long a change made through another node goes unseen here.
+ */
+@Component
+public class MemberAutocompleteIndex {
+    private final ProjectMemberRepository memberRepository;
+    // Pending builds are cache entries too, so an invalidation drops a build that read the old members
+    private final AsyncCache<Long, ProjectMemberIndex> indexes;
+
+    public MemberAutocompleteIndex(ProjectMemberRepository memberRepository,
+                                   @Value("${projecthub.autocomplete.max-members:500000}") long maxMembers,
+                                   @Value("${projecthub.membership-cache.ttl:30s}") Duration ttl) {
+        this.memberRepository = memberRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxMembers)
+                .weigher((Long projectId, ProjectMemberIndex index) -> Math.max(1, index.size()))
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    public List<MemberSuggestion> search(Long projectId, String prefix, int limit) {
+        CompletableFuture<ProjectMemberIndex> pending = new CompletableFuture<>();
+        // Only the pending future is installed under the map lock; the query runs outside it (see MembershipCache)
+        CompletableFuture<ProjectMemberIndex> entry = indexes.get(projectId, (k, executor) -> pending);
+        if (entry != pending) {
+            return entry.join().search(prefix, limit);
+        }
+        ProjectMemberIndex index;
+        try {
+            index = ProjectMemberIndex.build(memberRepository.findSuggestionsByProjectId(projectId));
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        pending.complete(index);
+        return index.search(prefix, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        indexes.synchronous().invalidate(event.projectId());
+    }
+}
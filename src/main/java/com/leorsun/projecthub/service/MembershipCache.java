@@ -0,0 +1,194 @@
+package com.leorsun.projecthub.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leorsun.projecthub.config.FlightEvents;
+import com.leorsun.projecthub.config.ReadWriteRoutingDataSource;
+import com.leorsun.projecthub.config.RequestTiming;
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.repository.ProjectMembershipVersionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Caches the caller's role per (project, user) so authorization checks stay in memory on the hot path.
+ * Roles are always read from the primary, so a replica never hands out a revoked one. A miss is read on the
+ * caller's own connection, never a second one, so inside a read-only transaction the check has to come before
+ * its first query.
+ * <p>
+ * Entries are evicted on {@link MembershipChangedEvent}s once the change commits, and a load that overlapped
+ * an eviction is not kept. Those events stay on the node that made the change; for the others every change
+ * also bumps the project's membership version ({@link #bumpVersion}). Each role is cached with the version it
+ * was read at, and a hit is only used while that is still the project's version as last read from the primary,
+ * which is re-read at most every projecthub.membership-cache.revalidate.
+ */
+@Component
+public class MembershipCache {
+    private record Key(Long projectId, Long userId) {
+    }
+
+    private record Membership(Optional<ProjectRole> role, long version) {
+    }
+
+    private static final int STRIPES = 64;
+
+    private final ProjectMemberRepository memberRepository;
+    private final ProjectMembershipVersionRepository versionRepository;
+    private final TransactionTemplate primaryReads;
+    // The caller that installs a pending entry loads it; concurrent callers for the key wait on that load
+    private final AsyncCache<Key, Membership> roles;
+    // Latest membership version seen per project
+    private final Cache<Long, Long> versions;
+    // Bumped per project stripe before every eviction; a load that saw an older stamp is used once, not cached
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public MembershipCache(ProjectMemberRepository memberRepository,
+                           ProjectMembershipVersionRepository versionRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${projecthub.membership-cache.max-size:100000}") long maxSize,
+                           @Value("${projecthub.membership-cache.ttl:30s}") Duration ttl,
+                           @Value("${projecthub.membership-cache.revalidate:2s}") Duration revalidate) {
+        this.memberRepository = memberRepository;
+        this.versionRepository = versionRepository;
+        this.primaryReads = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.primaryReads.setReadOnly(true);
+        this.roles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(revalidate)
+                .build();
+    }
+
+    /**
+     * Returns the user's role in the project, or empty if they are not a member. Non-membership is cached too.
+     */
+    public Optional<ProjectRole> getRole(Long projectId, Long userId) {
+        if (ReadWriteRoutingDataSource.holdsReplicaConnection()) {
+            // Checked on hits too, so a misordered caller fails every time and not just on a miss
+            throw new IllegalStateException("Membership must be checked before a read-only transaction's first query");
+        }
+        FlightEvents.MembershipCheck event = new FlightEvents.MembershipCheck();
+        event.begin();
+        try (RequestTiming.Phase ignored = RequestTiming.phase(RequestTiming.AUTHZ)) {
+            Key key = new Key(projectId, userId);
+            Optional<ProjectRole> role = null;
+            while (role == null) {
+                long stamp = stamps.get(stripe(projectId));
+                CompletableFuture<Membership> pending = new CompletableFuture<>();
+                // Only the pending future is installed under the map lock; the query runs outside it, since a
+                // virtual thread waiting for a connection there would pin its carrier
+                CompletableFuture<Membership> entry = roles.get(key, (k, executor) -> pending);
+                event.cached = entry != pending;
+                if (entry == pending) {
+                    Membership loaded;
+                    try {
+                        loaded = load(projectId, userId);
+                    } catch (RuntimeException e) {
+                        pending.completeExceptionally(e);
+                        throw e;
+                    }
+                    pending.complete(loaded);
+                    if (stamps.get(stripe(projectId)) != stamp) {
+                        roles.asMap().remove(key, pending);
+                    }
+                    role = loaded.role();
+                } else {
+                    Membership cached = entry.join();
+                    if (cached.version() >= currentVersion(projectId)) {
+                        role = cached.role();
+                    } else {
+                        // The membership changed through another node since this was read
+                        roles.asMap().remove(key, entry);
+                    }
+                }
+            }
+            if (event.shouldCommit()) {
+                event.projectId = projectId;
+                event.userId = userId;
+                event.role = role.map(Enum::name).orElse(null);
+                event.commit();
+            }
+            return role;
+        }
+    }
+
+    /**
+     * Moves the project's membership version on, in the transaction that changes the membership. Other nodes
+     * reload their cached roles for the project once they re-read the version.
+     */
+    public void bumpVersion(Long projectId) {
+        if (versionRepository.increment(projectId) == 0) {
+            versionRepository.insertIfAbsent(projectId, 0);
+            versionRepository.increment(projectId);
+        }
+    }
+
+    public void evict(Long projectId, Long userId) {
+        stamps.incrementAndGet(stripe(projectId));
+        roles.synchronous().invalidate(new Key(projectId, userId));
+    }
+
+    public void evictProject(Long projectId) {
+        stamps.incrementAndGet(stripe(projectId));
+        roles.asMap().keySet().removeIf(k -> k.projectId().equals(projectId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        if (event.userId() == null) {
+            evictProject(event.projectId());
+        } else {
+            evict(event.projectId(), event.userId());
+        }
+    }
+
+    private Membership load(Long projectId, Long userId) {
+        // No row for a deleted or unknown project: nobody is a member, at no particular version
+        Membership loaded = readFromPrimary(() -> memberRepository.findRoleAtVersion(projectId, userId)
+                .map(r -> new Membership(Optional.ofNullable(r.role()), r.version()))
+                .orElse(new Membership(Optional.empty(), 0)));
+        seen(projectId, loaded.version());
+        return loaded;
+    }
+
+    private long currentVersion(Long projectId) {
+        Long version = versions.getIfPresent(projectId);
+        if (version != null) {
+            return version;
+        }
+        // Read outside the map lock, as roles are
+        return seen(projectId, readFromPrimary(() -> versionRepository.findVersion(projectId).orElse(0L)));
+    }
+
+    private long seen(Long projectId, long version) {
+        return versions.asMap().merge(projectId, version, Math::max);
+    }
+
+    private <T> T readFromPrimary(Supplier<T> read) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return ReadWriteRoutingDataSource.onPrimary(() -> primaryReads.execute(tx -> read.get()));
+        }
+        // Inside the caller's transaction, on its connection: a transaction of our own would hold a second one.
+        // A read-only caller's first query then takes that connection from the primary
+        return ReadWriteRoutingDataSource.onPrimary(read);
+    }
+
+    private static int stripe(Long projectId) {
+        return (int) Math.floorMod(projectId, (long) STRIPES);
+    }
+}
@@ -0,0 +1,11 @@
+package com.leorsun.projecthub.service;
+
+/**
+ * Published whenever a project's membership changes. A null userId means every membership of the
+ * project is affected (e.g. the project was deleted).
+ */
+public record MembershipChangedEvent(Long projectId, Long userId) {
+    public static MembershipChangedEvent wholeProject(Long projectId) {
+        return new MembershipChangedEvent(projectId, null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.ProjectDeletion;
+import com.leorsun.projecthub.model.ProjectDeletionStatus;
+import com.leorsun.projecthub.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Purges soft-deleted projects in bounded batches. Every batch runs in its own short transaction
+ * together with the progress update, so a crash leaves the job PENDING with accurate counts and the
+ * next run simply picks up whatever rows are left.
+ */
+@Component
+public class ProjectDeletionWorker {
+    private static final Logger log = LoggerFactory.getLogger(ProjectDeletionWorker.class);
+
+    private final ProjectDeletionRepository deletionRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ProjectInviteRepository inviteRepository;
+    private final ProjectMemberRepository memberRepository;
+    private final ProjectTaskCounterRepository taskCounterRepository;
+    private final ProjectTaskGraphRepository taskGraphRepository;
+    private final LabelRepository labelRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${projecthub.deletion.batch-size:500}")
+    private int batchSize;
+
+    public ProjectDeletionWorker(ProjectDeletionRepository deletionRepository,
+                                 ProjectRepository projectRepository,
+                                 TaskRepository taskRepository,
+                                 ArchivedTaskRepository archivedTaskRepository,
+                                 ProjectInviteRepository inviteRepository,
+                                 ProjectMemberRepository memberRepository,
+                                 ProjectTaskCounterRepository taskCounterRepository,
+                                 ProjectTaskGraphRepository taskGraphRepository,
+                                 LabelRepository labelRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.deletionRepository = deletionRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.inviteRepository = inviteRepository;
+        this.memberRepository = memberRepository;
+        this.taskCounterRepository = taskCounterRepository;
+        this.taskGraphRepository = taskGraphRepository;
+        this.labelRepository = labelRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${projecthub.deletion.poll-interval-ms:5000}")
+    public void processPending() {
+        for (Long jobId : deletionRepository.findIdsByStatus(ProjectDeletionStatus.PENDING)) {
+            try {
+                while (Boolean.TRUE.equals(transactionTemplate.execute(tx -> runBatch(jobId)))) {
+                    // keep going until the job reports nothing left
+                }
+            } catch (RuntimeException e) {
+                // Leave the job PENDING; the next poll resumes from the remaining rows
+                log.warn("Project deletion job {} failed, will retry", jobId, e);
+            }
+        }
+    }
+
+    /**
+     * Deletes one batch of the next non-empty dependent table. Returns true while there is more work.
+     */
+    private boolean runBatch(Long jobId) {
+        ProjectDeletion job = deletionRepository.lockById(jobId).orElse(null);
+        if (job == null || job.getStatus() == ProjectDeletionStatus.COMPLETED) {
+            return false;
+        }
+        Long projectId = job.getProjectId();
+        PageRequest batch = PageRequest.of(0, batchSize);
+
+        List<Long> taskIds = taskRepository.findIdsByProjectId(projectId, batch);
+        if (!taskIds.isEmpty()) {
+            job.setTasksDeleted(job.getTasksDeleted() + taskRepository.deleteAllByIdIn(taskIds));
+            return true;
+        }
+        List<Long> archivedIds = archivedTaskRepository.findIdsByProjectId(projectId, batch);
+        if (!archivedIds.isEmpty()) {
+            job.setTasksDeleted(job.getTasksDeleted() + archivedTaskRepository.deleteAllByIdIn(archivedIds));
+            return true;
+        }
+        // Their task links went with the tasks (ON DELETE CASCADE); not counted on the job
+        List<Long> labelIds = labelRepository.findIdsByProjectId(projectId, batch);
+        if (!labelIds.isEmpty()) {
+            labelRepository.deleteAllByIdIn(labelIds);
+            return true;
+        }
+        List<Long> inviteIds = inviteRepository.findIdsByProjectId(projectId, batch);
+        if (!inviteIds.isEmpty()) {
+            job.setInvitesDeleted(job.getInvitesDeleted() + inviteRepository.deleteAllByIdIn(inviteIds));
+            return true;
+        }
+        List<Long> memberIds = memberRepository.findIdsByProjectId(projectId, batch);
+        if (!memberIds.isEmpty()) {
+            job.setMembersDeleted(job.getMembersDeleted() + memberRepository.deleteAllByIdIn(memberIds));
+            return true;
+        }
+
+        taskCounterRepository.deleteByProjectId(projectId);
+        taskGraphRepository.deleteByProjectId(projectId);
+        projectRepository.deleteById(projectId);
+        job.setStatus(ProjectDeletionStatus.COMPLETED);
+        job.setCompletedAt(LocalDateTime.now());
+        log.info("Project {} purged: {} tasks, {} invites, {} members",
+                projectId, job.getTasksDeleted(), job.getInvitesDeleted(), job.getMembersDeleted());
+        return false;
+    }
+}
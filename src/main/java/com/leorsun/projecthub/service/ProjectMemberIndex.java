@@ -0,0 +1,90 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.responses.MemberSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix index over one project's members. Normalized usernames and emails are kept in a single
+ * sorted array, so a lookup is a binary search followed by a short scan.
+ */
+final class ProjectMemberIndex {
+    private final String[] keys;
+    private final int[] owners; // owners[i] = index into members for keys[i]
+    private final int[] twins; // twins[i] = position of the owner's other key (username <-> email)
+    private final MemberSuggestion[] members;
+
+    private ProjectMemberIndex(String[] keys, int[] owners, int[] twins, MemberSuggestion[] members) {
+        this.keys = keys;
+        this.owners = owners;
+        this.twins = twins;
+        this.members = members;
+    }
+
+    static ProjectMemberIndex build(Collection<MemberSuggestion> source) {
+        MemberSuggestion[] members = source.toArray(new MemberSuggestion[0]);
+        Integer[] order = new Integer[members.length * 2];
+        String[] raw = new String[order.length];
+        for (int i = 0; i < members.length; i++) {
+            raw[2 * i] = normalize(members[i].getUsername());
+            raw[2 * i + 1] = normalize(members[i].getEmail());
+            order[2 * i] = 2 * i;
+            order[2 * i + 1] = 2 * i + 1;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> raw[i]));
+
+        String[] keys = new String[order.length];
+        int[] owners = new int[order.length];
+        int[] positions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = raw[order[i]];
+            owners[i] = order[i] / 2;
+            positions[order[i]] = i;
+        }
+        int[] twins = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            twins[i] = positions[order[i] ^ 1];
+        }
+        return new ProjectMemberIndex(keys, owners, twins, members);
+    }
+
+    /**
+     * Up to {@code limit} distinct members whose username or email starts with {@code prefix}, in key order.
+     */
+    List<MemberSuggestion> search(String prefix, int limit) {
+        String p = normalize(prefix);
+        int from = lowerBound(p);
+        List<MemberSuggestion> result = new ArrayList<>(Math.min(limit, members.length));
+        for (int i = from; i < keys.length && result.size() < limit && keys[i].startsWith(p); i++) {
+            // Matches are contiguous, so a twin between from and i matched too and already added the member
+            int twin = twins[i];
+            if (twin < from || twin > i) {
+                result.add(members[owners[i]]);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return members.length;
+    }
+
+    private int lowerBound(String p) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(p) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+}
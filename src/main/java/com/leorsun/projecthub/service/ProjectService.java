@@ -1,76 +1,128 @@
 package com.leorsun.projecthub.service;
 
+import com.leorsun.projecthub.config.FlightEvents;
 import com.leorsun.projecthub.dto.CreateProjectDto;
 import com.leorsun.projecthub.dto.InviteRequestDto;
 import com.leorsun.projecthub.dto.UpdateProjectDto;
 import com.leorsun.projecthub.model.*;
 import com.leorsun.projecthub.repository.*;
-import jakarta.mail.MessagingException;
+import com.leorsun.projecthub.responses.MemberSuggestion;
+import com.leorsun.projecthub.responses.ProjectSummary;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class ProjectService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository memberRepository;
     private final ProjectInviteRepository inviteRepository;
     private final UserRepository userRepository;
+    private final ProjectDeletionRepository deletionRepository;
     private final EmailService emailService;
+    private final MembershipCache membershipCache;
+    private final MemberAutocompleteIndex autocompleteIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KeyAllocator keyAllocator;
 
     public ProjectService(ProjectRepository projectRepository,
                           ProjectMemberRepository memberRepository,
                           ProjectInviteRepository inviteRepository,
                           UserRepository userRepository,
-                          EmailService emailService) {
+                          ProjectDeletionRepository deletionRepository,
+                          EmailService emailService,
+                          MembershipCache membershipCache,
+                          MemberAutocompleteIndex autocompleteIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          KeyAllocator keyAllocator) {
         this.projectRepository = projectRepository;
         this.memberRepository = memberRepository;
         this.inviteRepository = inviteRepository;
         this.userRepository = userRepository;
+        this.deletionRepository = deletionRepository;
         this.emailService = emailService;
+        this.membershipCache = membershipCache;
+        this.autocompleteIndex = autocompleteIndex;
+        this.eventPublisher = eventPublisher;
+        this.keyAllocator = keyAllocator;
     }
 
+    @Transactional
     public Project createProject(User owner, CreateProjectDto dto) {
         if (dto.getName() == null || dto.getName().isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Project name is required");
         }
-        String key = dto.getKey() != null && !dto.getKey().isBlank() ? sanitizeKey(dto.getKey()) : generateKeyFromName(dto.getName());
-        if (projectRepository.existsByKeyIgnoreCase(key)) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Project key already exists");
+        String key;
+        if (dto.getKey() != null && !dto.getKey().isBlank()) {
+            key = KeyAllocator.sanitizeKey(dto.getKey());
+            if (projectRepository.existsByKeyIgnoreCase(key)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Project key already exists");
+            }
+        } else {
+            key = keyAllocator.reserveProjectKey(dto.getName());
         }
         Project project = new Project();
         project.setName(dto.getName().trim());
         project.setKey(key);
         project.setDescription(dto.getDescription());
         project.setOwner(owner);
-        project = projectRepository.save(project);
+        try {
+            // Flushed here so a key taken by a concurrent create surfaces as a conflict, not at commit
+            project = projectRepository.saveAndFlush(project);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Project key already exists");
+        }
+        keyAllocator.startTaskNumbers(project.getId());
 
         ProjectMember ownerMember = new ProjectMember();
         ownerMember.setProject(project);
         ownerMember.setUser(owner);
         ownerMember.setRole(ProjectRole.OWNER);
         memberRepository.save(ownerMember);
+        membershipChanged(new MembershipChangedEvent(project.getId(), owner.getId()));
 
         return project;
     }
 
-    public List<Project> listMyProjects(User user) {
-        return memberRepository.findByUser_Id(user.getId()).stream()
-                .map(ProjectMember::getProject)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<ProjectSummary> listMyProjects(User user, Integer page, Integer size, String sort) {
+        Pageable pageable = Pageable.unpaged();
+        if (page != null || size != null) {
+            int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE || (page != null && page < 0)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size");
+            }
+            pageable = PageRequest.of(page == null ? 0 : page, pageSize);
+        }
+        return switch (sort == null ? "activity" : sort) {
+            case "activity" -> projectRepository.findSummariesByActivity(user.getId(), pageable);
+            case "name" -> projectRepository.findSummariesByName(user.getId(), pageable);
+            case "created" -> projectRepository.findSummariesByCreated(user.getId(), pageable);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + sort);
+        };
     }
 
+    @Transactional(readOnly = true)
     public Project getProject(User user, Long projectId) {
         requireMember(user, projectId);
-        return projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        return findActiveProject(projectId);
     }
 
+    @Transactional
     public Project updateProject(User user, Long projectId, UpdateProjectDto dto) {
         Project project = getProject(user, projectId);
         requireRole(user, projectId, ProjectRole.ADMIN);
@@ -79,17 +131,46 @@ public class ProjectService {
         return projectRepository.save(project);
     }
 
+    @Transactional
     public void deleteProject(User user, Long projectId) {
         Project project = getProject(user, projectId);
         requireRole(user, projectId, ProjectRole.OWNER);
-        projectRepository.delete(project);
+        // Hide the project right away; ProjectDeletionWorker removes its rows in batches
+        project.setDeletedAt(LocalDateTime.now());
+        projectRepository.save(project);
+
+        ProjectDeletion deletion = new ProjectDeletion();
+        deletion.setProjectId(projectId);
+        deletion.setRequestedBy(user.getId());
+        deletionRepository.save(deletion);
+        membershipChanged(MembershipChangedEvent.wholeProject(projectId));
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectDeletion getDeletionStatus(User user, Long projectId) {
+        // Membership may already be purged, so only the requester can follow progress
+        return deletionRepository.findByProjectId(projectId)
+                .filter(d -> d.getRequestedBy().equals(user.getId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Deletion not found"));
     }
 
+    @Transactional(readOnly = true)
     public List<ProjectMember> listMembers(User user, Long projectId) {
         requireMember(user, projectId);
         return memberRepository.findByProject_Id(projectId);
     }
 
+    @Transactional(readOnly = true)
+    public List<MemberSuggestion> autocompleteMembers(User user, Long projectId, String prefix, Integer limit) {
+        requireMember(user, projectId);
+        int max = limit == null ? DEFAULT_SUGGESTIONS : limit;
+        if (max < 1 || max > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return autocompleteIndex.search(projectId, prefix == null ? "" : prefix, max);
+    }
+
+    @Transactional
     public void removeMember(User actor, Long projectId, Long userId) {
         requireRole(actor, projectId, ProjectRole.ADMIN);
         ProjectMember m = memberRepository.findByProject_IdAndUser_Id(projectId, userId)
@@ -102,9 +183,13 @@ public class ProjectService {
             }
         }
         memberRepository.delete(m);
+        membershipChanged(new MembershipChangedEvent(projectId, userId));
     }
 
+    @Transactional
     public ProjectInvite invite(User inviter, Long projectId, InviteRequestDto dto) {
+        FlightEvents.InviteCreated event = new FlightEvents.InviteCreated();
+        event.begin();
         requireRole(inviter, projectId, ProjectRole.ADMIN);
         if (dto.getEmail() == null || dto.getEmail().isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email is required");
@@ -112,8 +197,7 @@ public class ProjectService {
         if (inviteRepository.existsByProject_IdAndEmailIgnoreCase(projectId, dto.getEmail())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Invite already sent to this email");
         }
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        Project project = findActiveProject(projectId);
         ProjectInvite invite = new ProjectInvite();
         invite.setProject(project);
         invite.setEmail(dto.getEmail().trim());
@@ -124,9 +208,13 @@ public class ProjectService {
         invite = inviteRepository.save(invite);
 
         sendInviteEmail(invite);
+        event.projectId = projectId;
+        event.role = invite.getRole().name();
+        event.commit();
         return invite;
     }
 
+    @Transactional
     public void acceptInvite(User user, String token) {
         ProjectInvite invite = inviteRepository.findByToken(token)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Invite not found"));
@@ -136,6 +224,9 @@ public class ProjectService {
         if (invite.getExpiresAt() != null && invite.getExpiresAt().isBefore(LocalDateTime.now())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invite expired");
         }
+        if (invite.getProject().isDeleted()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
         // If user already a member, just mark accepted
         if (!memberRepository.existsByProject_IdAndUser_Id(invite.getProject().getId(), user.getId())) {
             ProjectMember m = new ProjectMember();
@@ -143,6 +234,7 @@ public class ProjectService {
             m.setUser(user);
             m.setRole(invite.getRole());
             memberRepository.save(m);
+            membershipChanged(new MembershipChangedEvent(invite.getProject().getId(), user.getId()));
         }
         invite.setAcceptedAt(LocalDateTime.now());
         inviteRepository.save(invite);
@@ -154,43 +246,36 @@ public class ProjectService {
                 "</b> as <b>" + invite.getRole() + "</b>.</p>" +
                 "<p>Use this token to accept: <b>" + invite.getToken() + "</b></p>" +
                 "<p>Or call POST /api/invites/" + invite.getToken() + "/accept from the app.</p>";
-        try {
-            emailService.sendVerificationEmail(invite.getEmail(), subject, html);
-        } catch (MessagingException e) {
-            // Best-effort email; do not fail invite creation
-        }
+        // Best-effort, after commit: never holds the transaction open on SMTP or mails an invite that rolled back
+        emailService.sendAfterCommit(invite.getEmail(), subject, html);
+    }
+
+    // The version reaches other nodes' caches; the event evicts this node's entries once the change commits
+    private void membershipChanged(MembershipChangedEvent event) {
+        membershipCache.bumpVersion(event.projectId());
+        eventPublisher.publishEvent(event);
+    }
+
+    private Project findActiveProject(Long projectId) {
+        return projectRepository.findById(projectId)
+                .filter(p -> !p.isDeleted())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
     }
 
     private void requireMember(User user, Long projectId) {
-        if (!memberRepository.existsByProject_IdAndUser_Id(projectId, user.getId())) {
+        if (membershipCache.getRole(projectId, user.getId()).isEmpty()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
         }
     }
 
     private void requireRole(User user, Long projectId, ProjectRole required) {
-        ProjectMember member = memberRepository.findByProject_IdAndUser_Id(projectId, user.getId())
+        ProjectRole role = membershipCache.getRole(projectId, user.getId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member"));
-        if (!member.getRole().atLeast(required)) {
+        if (!role.atLeast(required)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
         }
     }
 
-    private String sanitizeKey(String raw) {
-        return raw.trim().toUpperCase().replaceAll("[^A-Z0-9]", "");
-    }
-
-    private String generateKeyFromName(String name) {
-        String base = sanitizeKey(name).replaceAll("\\s+", "");
-        if (base.length() > 6) base = base.substring(0, 6);
-        String candidate = base.isEmpty() ? "PRJ" : base;
-        int suffix = 1;
-        while (projectRepository.existsByKeyIgnoreCase(candidate)) {
-            candidate = base + suffix++;
-            if (candidate.length() > 10) candidate = base.substring(0, Math.max(1, 10 - String.valueOf(suffix - 1).length())) + (suffix - 1);
-        }
-        return candidate;
-    }
-
     private String escape(String s) {
         return s == null ? "" : s.replace("<", "&lt;").replace(">", "&gt;");
     }
@@ -0,0 +1,141 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.TaskGraph;
+import com.leorsun.projecthub.model.TaskStatus;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.repository.TaskAccess;
+import com.leorsun.projecthub.repository.TaskClosureRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.responses.SubtaskSummary;
+import com.leorsun.projecthub.responses.TaskRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Epic / story / subtask hierarchies. Each task keeps its direct parent plus a rollup of all its descendants
+ * (subtaskCount, subtasksDone); task_closure holds every ancestor/descendant pair, so a subtree, an ancestor chain
+ * or a status breakdown is one indexed query at any depth.
+ * <p>
+ * TaskService keeps the rollups current as subtasks are created, finished, reopened and deleted, with one
+ * update over the changed task's ancestors. Moving a subtree rewrites the closure rows crossing its boundary and
+ * recounts the ancestors it left and joined. All hierarchy writes take the project's HIERARCHY lock
+ * ({@link TaskGraphLocks}) first, so they never interleave within a project, nor wait on task creation.
+ */
+@Service
+public class SubtaskService {
+    private final TaskRepository taskRepository;
+    private final TaskClosureRepository closureRepository;
+    private final TaskGraphLocks graphLocks;
+    private final EntityManager entityManager;
+
+    public SubtaskService(TaskRepository taskRepository,
+                          TaskClosureRepository closureRepository,
+                          TaskGraphLocks graphLocks,
+                          EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.closureRepository = closureRepository;
+        this.graphLocks = graphLocks;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Descendants of a task down to {@code depth} levels (all of them when null), shallowest first.
+     */
+    @Transactional(readOnly = true)
+    public List<SubtaskSummary> listSubtasks(User user, Long taskId, Integer depth) {
+        if (depth != null && depth < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Depth must be at least 1");
+        }
+        authorize(taskRepository.findWithRole(taskId, user.getId()), null);
+        return closureRepository.findDescendants(taskId, depth == null ? Integer.MAX_VALUE : depth);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskRollup rollup(User user, Long taskId) {
+        Task task = authorize(taskRepository.findWithRole(taskId, user.getId()), null).task();
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        for (Object[] row : closureRepository.countDescendantsByStatus(taskId)) {
+            byStatus.put((TaskStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return new TaskRollup(taskId, task.getSubtaskCount(), task.getSubtasksDone(), byStatus);
+    }
+
+    /**
+     * Moves a task, with its whole subtree, under {@code parentId}; null makes it top-level. Refused with 409
+     * when the new parent lies inside the subtree being moved.
+     */
+    @Transactional
+    public Task setParent(User actor, Long taskId, Long parentId) {
+        Task task = authorize(taskRepository.findWithRole(taskId, actor.getId()), ProjectRole.MEMBER).task();
+        Long projectId = task.getProject().getId();
+        if (parentId != null) {
+            if (parentId.equals(taskId)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A task cannot be its own parent");
+            }
+            Long parentProjectId = taskRepository.findProjectIdById(parentId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent task not found"));
+            if (!parentProjectId.equals(projectId)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent must be in the same project");
+            }
+        }
+        if (Objects.equals(task.getParentId(), parentId)) {
+            return task;
+        }
+
+        graphLocks.lock(projectId, TaskGraph.HIERARCHY);
+        // The parent read above may predate a move that committed while we waited
+        entityManager.refresh(task, LockModeType.PESSIMISTIC_WRITE);
+        if (Objects.equals(task.getParentId(), parentId)) {
+            return task;
+        }
+        if (parentId != null && closureRepository.isDescendant(taskId, parentId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A task cannot move under its own subtree");
+        }
+        Set<Long> affected = new LinkedHashSet<>(closureRepository.findAncestorIds(taskId));
+        closureRepository.unlinkSubtree(taskId);
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.updateParent(taskId, parentId == null ? null : taskRepository.getReferenceById(parentId), now);
+        if (parentId != null) {
+            closureRepository.linkToParent(parentId, taskId);
+            closureRepository.linkToAncestorsOf(parentId, taskId);
+            closureRepository.linkDescendantsToParent(parentId, taskId);
+            closureRepository.linkDescendantsToAncestorsOf(parentId, taskId);
+            affected.add(parentId);
+            affected.addAll(closureRepository.findAncestorIds(parentId));
+        }
+        if (!affected.isEmpty()) {
+            taskRepository.recountRollups(affected);
+        }
+
+        task.setParentId(parentId);
+        task.setUpdatedAt(now);
+        return task;
+    }
+
+    private TaskAccess authorize(Optional<TaskAccess> access, ProjectRole required) {
+        TaskAccess found = access
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        if (found.role() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
+        }
+        if (required != null && !found.role().atLeast(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        }
+        return found;
+    }
+}
@@ -0,0 +1,122 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.ArchivedTaskLabelRepository;
+import com.leorsun.projecthub.repository.ArchivedTaskRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.responses.ArchivedTaskPage;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read access to archived tasks and moving them back onto the board. Archived tasks keep their id, number and
+ * labels, so links and KEY-123 references work again once a task is restored.
+ */
+@Service
+public class TaskArchiveService {
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ArchivedTaskLabelRepository archivedTaskLabelRepository;
+    private final TaskRepository taskRepository;
+    private final MembershipCache membershipCache;
+    private final BoardFilterService boardFilterService;
+
+    public TaskArchiveService(ArchivedTaskRepository archivedTaskRepository,
+                              ArchivedTaskLabelRepository archivedTaskLabelRepository,
+                              TaskRepository taskRepository,
+                              MembershipCache membershipCache,
+                              BoardFilterService boardFilterService) {
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.archivedTaskLabelRepository = archivedTaskLabelRepository;
+        this.taskRepository = taskRepository;
+        this.membershipCache = membershipCache;
+        this.boardFilterService = boardFilterService;
+    }
+
+    /**
+     * Archived tasks of a project, most recently archived first, optionally filtered by a title substring.
+     */
+    @Transactional(readOnly = true)
+    public ArchivedTaskPage listArchived(User user, Long projectId, String query, String cursor, Integer limit) {
+        requireRole(user, projectId, ProjectRole.VIEWER);
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        // Cursor is "<archivedAt>|<id>" of the last task on the previous page
+        LocalDateTime beforeArchivedAt = END_OF_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = Cursors.decode(cursor);
+            int sep = decoded.indexOf('|');
+            try {
+                beforeArchivedAt = LocalDateTime.parse(decoded.substring(0, sep));
+                beforeId = Long.parseLong(decoded.substring(sep + 1));
+            } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw Cursors.invalid();
+            }
+        }
+        String pattern = query == null || query.isBlank() ? "%" : "%" + escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+
+        List<ArchivedTask> tasks = archivedTaskRepository.findPage(projectId, pattern, beforeArchivedAt, beforeId,
+                Limit.of(pageSize));
+        String nextCursor = null;
+        if (tasks.size() == pageSize) {
+            ArchivedTask last = tasks.get(tasks.size() - 1);
+            nextCursor = Cursors.encode(last.getArchivedAt() + "|" + last.getId());
+        }
+        return new ArchivedTaskPage(tasks, nextCursor);
+    }
+
+    // Separate short reads rather than one transaction: the role is checked before the task is loaded, and a
+    // read-only transaction that had already queried the replica could not read it from the primary (MembershipCache)
+    public ArchivedTask getArchived(User user, Long taskId) {
+        Long projectId = archivedTaskRepository.findProjectId(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived task not found"));
+        requireRole(user, projectId, ProjectRole.VIEWER);
+        return archivedTaskRepository.findWithPeople(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived task not found"));
+    }
+
+    /**
+     * Moves an archived task back to the end of its status column. It counts as touched now, so the archive
+     * worker leaves it alone for another full min-age.
+     */
+    @Transactional
+    public Task restore(User actor, Long taskId) {
+        Long projectId = archivedTaskRepository.findProjectId(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived task not found"));
+        requireRole(actor, projectId, ProjectRole.MEMBER);
+        ArchivedTask archived = archivedTaskRepository.getReferenceById(taskId);
+        int orderIndex = taskRepository.findNextOrderIndex(projectId, archived.getStatus());
+        archivedTaskRepository.copyToTasks(taskId, orderIndex, LocalDateTime.now());
+        archivedTaskLabelRepository.copyToTasks(taskId);
+        archivedTaskRepository.deleteAllByIdIn(List.of(taskId));
+        // Back under its old id, below newer tasks: the board index is rebuilt rather than patched
+        boardFilterService.invalidate(List.of(projectId));
+        return taskRepository.findById(taskId).orElseThrow();
+    }
+
+    private void requireRole(User user, Long projectId, ProjectRole role) {
+        ProjectRole actual = membershipCache.getRole(projectId, user.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member"));
+        if (!actual.atLeast(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        }
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
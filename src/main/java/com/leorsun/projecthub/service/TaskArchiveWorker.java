@@ -0,0 +1,94 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.repository.ArchivedTaskLabelRepository;
+import com.leorsun.projecthub.repository.ArchivedTaskRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves tasks that have been DONE for longer than projecthub.archive.min-age from tasks to archived_tasks, in
+ * bounded batches that each copy and delete in one short transaction. Boards, column scans and the tasks
+ * indexes then only carry open and recently finished work; archived tasks stay readable through
+ * {@link TaskArchiveService}.
+ */
+@Component
+public class TaskArchiveWorker {
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveWorker.class);
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ArchivedTaskLabelRepository archivedTaskLabelRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardFilterService boardFilterService;
+
+    @Value("${projecthub.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${projecthub.archive.min-age:30d}")
+    private Duration minAge;
+
+    @Value("${projecthub.archive.batch-size:500}")
+    private int batchSize;
+
+    public TaskArchiveWorker(TaskRepository taskRepository,
+                             ArchivedTaskRepository archivedTaskRepository,
+                             ArchivedTaskLabelRepository archivedTaskLabelRepository,
+                             TransactionTemplate transactionTemplate,
+                             BoardFilterService boardFilterService) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.archivedTaskLabelRepository = archivedTaskLabelRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.boardFilterService = boardFilterService;
+    }
+
+    @Scheduled(fixedDelayString = "${projecthub.archive.poll-interval-ms:60000}")
+    public void archiveCompleted() {
+        if (!enabled) {
+            return;
+        }
+        archiveDoneBefore(LocalDateTime.now().minus(minAge));
+    }
+
+    /**
+     * Archives everything DONE and untouched since {@code cutoff}; returns how many tasks were moved.
+     */
+    public long archiveDoneBefore(LocalDateTime cutoff) {
+        long total = 0;
+        try {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(tx -> archiveBatch(cutoff));
+                total += moved;
+            } while (moved == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Task archival stopped after {} tasks, will retry", total, e);
+        }
+        if (total > 0) {
+            log.info("Archived {} tasks completed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = taskRepository.lockArchivableIds(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        boardFilterService.invalidate(taskRepository.findProjectIdsByIdIn(ids));
+        archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+        archivedTaskLabelRepository.copyFromTasks(ids);
+        taskRepository.deleteAllByIdIn(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,44 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.TaskGraph;
+import com.leorsun.projecthub.repository.ProjectTaskGraphRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Serializes changes to a project's dependency links or subtask hierarchy, each on its own row in
+ * project_task_graphs. Task creation only locks the number counter (KeyAllocator), so it does not queue behind
+ * either graph, and the two graphs do not queue behind each other.
+ * <p>
+ * A row is created on the first change to its graph; should two transactions create the same one at once, the
+ * second insert waits for the first and does nothing, and both lock the same row.
+ */
+@Service
+public class TaskGraphLocks {
+    private final ProjectTaskGraphRepository graphRepository;
+
+    public TaskGraphLocks(ProjectTaskGraphRepository graphRepository) {
+        this.graphRepository = graphRepository;
+    }
+
+    /**
+     * Bumps the graph's version, holding its row until commit, and returns the new version. Versions only grow,
+     * so a cache can tag entries with them.
+     */
+    @Transactional
+    public long lock(Long projectId, TaskGraph graph) {
+        if (graphRepository.increment(projectId, graph) == 0) {
+            graphRepository.insertIfAbsent(projectId, graph, 0);
+            graphRepository.increment(projectId, graph);
+        }
+        return graphRepository.findVersion(projectId, graph).orElseThrow();
+    }
+
+    /** The graph's committed version as of now; empty if it has never been changed. */
+    @Transactional(readOnly = true)
+    public Optional<Long> currentVersion(Long projectId, TaskGraph graph) {
+        return graphRepository.findVersion(projectId, graph);
+    }
+}
@@ -1,49 +1,89 @@
 package com.leorsun.projecthub.service;
 
+import com.leorsun.projecthub.config.FlightEvents;
 import com.leorsun.projecthub.dto.AssignTaskDto;
 import com.leorsun.projecthub.dto.CreateTaskDto;
 import com.leorsun.projecthub.dto.MoveTaskDto;
 import com.leorsun.projecthub.dto.UpdateTaskDto;
 import com.leorsun.projecthub.model.*;
 import com.leorsun.projecthub.repository.*;
+import com.leorsun.projecthub.responses.TaskSummary;
+import com.leorsun.projecthub.responses.TaskSummaryPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    // Upper due date bound when none is given; within what both PostgreSQL and H2 dates can hold
+    private static final LocalDate NO_DUE_BOUND = LocalDate.of(9999, 12, 31);
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
-    private final ProjectMemberRepository memberRepository;
     private final UserRepository userRepository;
+    private final MembershipCache membershipCache;
+    private final EntityManager entityManager;
+    private final KeyAllocator keyAllocator;
+    private final TaskGraphLocks graphLocks;
+    private final TaskClosureRepository closureRepository;
+    private final BoardFilterService boardFilterService;
 
     public TaskService(TaskRepository taskRepository,
                        ProjectRepository projectRepository,
-                       ProjectMemberRepository memberRepository,
-                       UserRepository userRepository) {
+                       UserRepository userRepository,
+                       MembershipCache membershipCache,
+                       EntityManager entityManager,
+                       KeyAllocator keyAllocator,
+                       TaskGraphLocks graphLocks,
+                       TaskClosureRepository closureRepository,
+                       BoardFilterService boardFilterService) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
-        this.memberRepository = memberRepository;
         this.userRepository = userRepository;
+        this.membershipCache = membershipCache;
+        this.entityManager = entityManager;
+        this.keyAllocator = keyAllocator;
+        this.graphLocks = graphLocks;
+        this.closureRepository = closureRepository;
+        this.boardFilterService = boardFilterService;
     }
 
     private void assertMember(User user, Long projectId) {
-        if (!memberRepository.existsByProject_IdAndUser_Id(projectId, user.getId())) {
+        if (membershipCache.getRole(projectId, user.getId()).isEmpty()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
         }
     }
 
     private boolean isAtLeast(User user, Long projectId, ProjectRole role) {
-        return memberRepository.findByProject_IdAndUser_Id(projectId, user.getId())
-                .map(m -> m.getRole().atLeast(role)).orElse(false);
+        return membershipCache.getRole(projectId, user.getId())
+                .map(r -> r.atLeast(role)).orElse(false);
     }
 
+    @Transactional
     public Task createTask(User actor, Long projectId, CreateTaskDto dto) {
+        FlightEvents.TaskOperation event = new FlightEvents.TaskOperation();
+        event.begin();
         assertMember(actor, projectId);
         Project project = projectRepository.findById(projectId)
+                .filter(p -> !p.isDeleted())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
         Task task = new Task();
         task.setProject(project);
@@ -57,94 +97,310 @@ public class TaskService {
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignee not found"));
             task.setAssignee(assignee);
         }
+        Task parent = null;
+        if (dto.getParentId() != null) {
+            parent = taskRepository.findById(dto.getParentId())
+                    .filter(p -> p.getProject().getId().equals(projectId))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent task not found in this project"));
+            task.setParent(parent);
+            task.setParentId(parent.getId());
+        }
         // set orderIndex to end of current status list
         List<Task> column = taskRepository.findByProject_IdAndStatusOrderByOrderIndexAsc(projectId, task.getStatus());
         int nextIndex = column.stream().map(Task::getOrderIndex).filter(i -> i != null).max(Comparator.naturalOrder()).orElse(-1) + 1;
         task.setOrderIndex(nextIndex);
-        return taskRepository.save(task);
+        // Last, so the project's counter row is locked only for the insert and commit
+        task.setNumber(keyAllocator.nextTaskNumber(projectId));
+        Task saved = taskRepository.save(task);
+        if (parent != null) {
+            // Keeps the parent's ancestry still until commit; always taken after the number, never before
+            graphLocks.lock(projectId, TaskGraph.HIERARCHY);
+            taskRepository.flush();
+            closureRepository.linkToParent(parent.getId(), saved.getId());
+            closureRepository.linkToAncestorsOf(parent.getId(), saved.getId());
+            taskRepository.adjustAncestorRollups(saved.getId(), 1, saved.getStatus() == TaskStatus.DONE ? 1 : 0);
+        }
+        boardFilterService.taskSaved(projectId, saved.getId(), saved.getStatus(), saved.getPriority(), dto.getAssigneeId());
+        // rows: the status column scanned for the next order index
+        commit(event, "create", projectId, saved.getId(), column.size());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Task> listTasks(User user, Long projectId) {
         assertMember(user, projectId);
         return taskRepository.findByProject_IdOrderByOrderIndexAsc(projectId);
     }
 
+    /**
+     * Feeds the board to {@code sink} row by row, detaching each task once it has been handed over so the
+     * persistence context stays small however large the board is. The membership check comes first.
+     */
+    @Transactional(readOnly = true)
+    public void streamTasks(User user, Long projectId, Consumer<Task> sink) {
+        assertMember(user, projectId);
+        try (Stream<Task> tasks = taskRepository.streamByProjectId(projectId)) {
+            tasks.forEach(task -> {
+                sink.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TaskSummaryPage listMyTasks(User user, String scope, TaskStatus status, TaskPriority priority,
+                                       LocalDate dueBefore, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        // Cursor is "<dueDate>:<id>" with an empty date once paging has reached tasks without a due date
+        boolean inNulls = false;
+        LocalDate afterDue = LocalDate.of(1, 1, 1);
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = Cursors.decode(cursor);
+            int sep = decoded.indexOf(':');
+            try {
+                String due = decoded.substring(0, sep);
+                inNulls = due.isEmpty();
+                if (!inNulls) afterDue = LocalDate.parse(due);
+                afterId = Long.parseLong(decoded.substring(sep + 1));
+            } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw Cursors.invalid();
+            }
+        }
+
+        String mode = scope == null ? "all" : scope;
+        if (!mode.equals("assigned") && !mode.equals("reported") && !mode.equals("all")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown scope: " + scope);
+        }
+        Long userId = user.getId();
+        Set<TaskStatus> statuses = status == null ? EnumSet.allOf(TaskStatus.class) : EnumSet.of(status);
+        Set<TaskPriority> priorities = priority == null ? EnumSet.allOf(TaskPriority.class) : EnumSet.of(priority);
+        // Dated tasks up to dueBefore first; a page that runs past them continues with the undated ones, which a
+        // dueBefore filter excludes
+        List<TaskSummary> tasks = new ArrayList<>(pageSize);
+        if (!inNulls) {
+            LocalDate bound = dueBefore == null ? NO_DUE_BOUND : dueBefore;
+            tasks.addAll(switch (mode) {
+                case "assigned" -> taskRepository.findDatedAssignedTo(userId, statuses, priorities, bound, afterDue, afterId, Limit.of(pageSize));
+                case "reported" -> taskRepository.findDatedReportedBy(userId, statuses, priorities, bound, afterDue, afterId, Limit.of(pageSize));
+                default -> taskRepository.findDatedAssignedToOrReportedBy(userId, statuses, priorities, bound, afterDue, afterId, pageSize);
+            });
+            afterId = 0L;
+        }
+        int rest = pageSize - tasks.size();
+        if (rest > 0 && dueBefore == null) {
+            tasks.addAll(switch (mode) {
+                case "assigned" -> taskRepository.findUndatedAssignedTo(userId, statuses, priorities, afterId, Limit.of(rest));
+                case "reported" -> taskRepository.findUndatedReportedBy(userId, statuses, priorities, afterId, Limit.of(rest));
+                default -> taskRepository.findUndatedAssignedToOrReportedBy(userId, statuses, priorities, afterId, rest);
+            });
+        }
+
+        String nextCursor = null;
+        if (tasks.size() == pageSize) {
+            TaskSummary last = tasks.get(tasks.size() - 1);
+            nextCursor = Cursors.encode((last.getDueDate() == null ? "" : last.getDueDate().toString()) + ":" + last.getId());
+        }
+        return new TaskSummaryPage(tasks, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
     public Task getTask(User user, Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        assertMember(user, task.getProject().getId());
-        return task;
+        return authorize(taskRepository.findWithRole(taskId, user.getId()), null).task();
+    }
+
+    /**
+     * Resolves a human-readable key such as CAP-123: the project key, a dash, and the task's number in it.
+     */
+    @Transactional(readOnly = true)
+    public Task getTaskByKey(User user, String taskKey) {
+        int dash = taskKey.lastIndexOf('-');
+        long number;
+        try {
+            number = Long.parseLong(taskKey.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task key must look like KEY-123");
+        }
+        if (dash < 1 || number < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task key must look like KEY-123");
+        }
+        return authorize(taskRepository.findWithRoleByKey(taskKey.substring(0, dash), number, user.getId()), null).task();
     }
 
+    @Transactional
     public Task updateTask(User actor, Long taskId, UpdateTaskDto dto) {
-        Task task = getTask(actor, taskId);
-        Long projectId = task.getProject().getId();
         // Allow MEMBER to edit tasks; admins/owners naturally allowed
-        if (!isAtLeast(actor, projectId, ProjectRole.MEMBER)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        TaskAccess access = authorize(taskRepository.findForWrite(taskId, actor.getId(), dto.getStatus(), dto.getAssigneeId()),
+                ProjectRole.MEMBER);
+        Task task = access.task();
+        if (dto.getAssigneeId() != null && access.assignee() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignee not found");
         }
-        if (dto.getTitle() != null) task.setTitle(dto.getTitle());
-        if (dto.getDescription() != null) task.setDescription(dto.getDescription());
+        Long parentId = lockHierarchy(task);
+        String title = dto.getTitle() != null ? dto.getTitle() : task.getTitle();
+        String description = dto.getDescription() != null ? dto.getDescription() : task.getDescription();
+        TaskStatus status = task.getStatus();
+        Integer orderIndex = task.getOrderIndex();
         if (dto.getStatus() != null && dto.getStatus() != task.getStatus()) {
-            task.setStatus(dto.getStatus());
+            status = dto.getStatus();
             // reset order to end of new column
-            List<Task> column = taskRepository.findByProject_IdAndStatusOrderByOrderIndexAsc(projectId, task.getStatus());
-            int nextIndex = column.stream().map(Task::getOrderIndex).filter(i -> i != null).max(Comparator.naturalOrder()).orElse(-1) + 1;
-            task.setOrderIndex(nextIndex);
+            orderIndex = access.nextOrderIndex();
         }
-        if (dto.getPriority() != null) task.setPriority(dto.getPriority());
-        task.setDueDate(dto.getDueDate());
-        if (dto.getAssigneeId() != null) {
-            User assignee = userRepository.findById(dto.getAssigneeId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignee not found"));
-            task.setAssignee(assignee);
-        } else if (dto.getAssigneeId() == null) {
-            // explicit null means unassign if present in payload
+        TaskPriority priority = dto.getPriority() != null ? dto.getPriority() : task.getPriority();
+        // explicit null assigneeId leaves the current assignee in place
+        User assignee = dto.getAssigneeId() != null ? access.assignee() : task.getAssignee();
+        adjustDoneRollups(task, status);
+        LocalDateTime now = LocalDateTime.now();
+        if (taskRepository.updateFields(taskId, title, description, status, orderIndex, priority, dto.getDueDate(),
+                assignee, now, parentId) == 0) {
+            throw changedConcurrently();
         }
-        return taskRepository.save(task);
+
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setStatus(status);
+        task.setOrderIndex(orderIndex);
+        task.setPriority(priority);
+        task.setDueDate(dto.getDueDate());
+        task.setAssignee(assignee);
+        task.setUpdatedAt(now);
+        boardFilterService.taskSaved(task.getProject().getId(), taskId, status, priority, assigneeId(assignee));
+        return task;
     }
 
+    @Transactional
     public void deleteTask(User actor, Long taskId) {
-        Task task = getTask(actor, taskId);
-        Long projectId = task.getProject().getId();
-        boolean canDelete = isAtLeast(actor, projectId, ProjectRole.ADMIN) || (task.getReporter() != null && task.getReporter().getId().equals(actor.getId()));
+        TaskAccess access = authorize(taskRepository.findWithRole(taskId, actor.getId()), null);
+        Task task = access.task();
+        boolean canDelete = access.role().atLeast(ProjectRole.ADMIN) || (task.getReporter() != null && task.getReporter().getId().equals(actor.getId()));
         if (!canDelete) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role to delete task");
         }
-        taskRepository.delete(task);
+        if (task.getParentId() != null || task.getSubtaskCount() > 0) {
+            graphLocks.lock(task.getProject().getId(), TaskGraph.HIERARCHY);
+            entityManager.refresh(task);
+            if (task.getSubtaskCount() > 0) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Task has subtasks; delete or move them first");
+            }
+            taskRepository.adjustAncestorRollups(taskId, -1, task.getStatus() == TaskStatus.DONE ? -1 : 0);
+        }
+        taskRepository.deleteTask(taskId);
+        boardFilterService.taskRemoved(task.getProject().getId(), taskId);
     }
 
+    @Transactional
     public Task moveTask(User actor, Long taskId, MoveTaskDto dto) {
-        Task task = getTask(actor, taskId);
-        if (!isAtLeast(actor, task.getProject().getId(), ProjectRole.MEMBER)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
-        }
+        FlightEvents.TaskOperation event = new FlightEvents.TaskOperation();
+        event.begin();
+        TaskAccess access = authorize(taskRepository.findForWrite(taskId, actor.getId(), dto.getStatus(), null),
+                ProjectRole.MEMBER);
+        Task task = access.task();
+        Long parentId = lockHierarchy(task);
+        TaskStatus status = task.getStatus();
+        Integer orderIndex = task.getOrderIndex();
         if (dto.getStatus() != null && dto.getStatus() != task.getStatus()) {
-            task.setStatus(dto.getStatus());
+            status = dto.getStatus();
             // place at end of new column
-            List<Task> column = taskRepository.findByProject_IdAndStatusOrderByOrderIndexAsc(task.getProject().getId(), task.getStatus());
-            int nextIndex = column.stream().map(Task::getOrderIndex).filter(i -> i != null).max(Comparator.naturalOrder()).orElse(-1) + 1;
-            task.setOrderIndex(nextIndex);
+            orderIndex = access.nextOrderIndex();
         }
         if (dto.getOrderIndex() != null) {
-            task.setOrderIndex(dto.getOrderIndex());
+            orderIndex = dto.getOrderIndex();
+        }
+        adjustDoneRollups(task, status);
+        LocalDateTime now = LocalDateTime.now();
+        int rows = taskRepository.updatePosition(taskId, status, orderIndex, now, parentId);
+        if (rows == 0) {
+            throw changedConcurrently();
         }
-        return taskRepository.save(task);
+
+        task.setStatus(status);
+        task.setOrderIndex(orderIndex);
+        task.setUpdatedAt(now);
+        boardFilterService.taskSaved(task.getProject().getId(), taskId, status, task.getPriority(), assigneeId(task.getAssignee()));
+        commit(event, "move", task.getProject().getId(), taskId, rows);
+        return task;
     }
 
+    @Transactional
     public Task assignTask(User actor, Long taskId, AssignTaskDto dto) {
-        Task task = getTask(actor, taskId);
-        if (!isAtLeast(actor, task.getProject().getId(), ProjectRole.MEMBER)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
+        FlightEvents.TaskOperation event = new FlightEvents.TaskOperation();
+        event.begin();
+        TaskAccess access = authorize(taskRepository.findForWrite(taskId, actor.getId(), null, dto.getAssigneeId()),
+                ProjectRole.MEMBER);
+        if (dto.getAssigneeId() != null && access.assignee() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignee not found");
         }
-        if (dto.getAssigneeId() == null) {
-            task.setAssignee(null);
-        } else {
-            User assignee = userRepository.findById(dto.getAssigneeId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignee not found"));
-            task.setAssignee(assignee);
+        LocalDateTime now = LocalDateTime.now();
+        int rows = taskRepository.updateAssignee(taskId, access.assignee(), now);
+        if (rows == 0) {
+            throw changedConcurrently();
+        }
+
+        Task task = access.task();
+        task.setAssignee(access.assignee());
+        task.setUpdatedAt(now);
+        boardFilterService.taskSaved(task.getProject().getId(), taskId, task.getStatus(), task.getPriority(), assigneeId(access.assignee()));
+        commit(event, "assign", task.getProject().getId(), taskId, rows);
+        return task;
+    }
+
+    /**
+     * A subtask takes the project's hierarchy lock, as subtree moves do, and re-reads its row under it before
+     * anything looks at its status, so concurrent moves of siblings (or of the task itself) reach the ancestors'
+     * rollups exactly once. Returns the parent the task's own update must still find: tasks outside a hierarchy
+     * skip the lock, keeping their moves at two statements, and their update is refused should they gain a
+     * parent meanwhile.
+     */
+    private Long lockHierarchy(Task task) {
+        if (task.getParentId() != null) {
+            graphLocks.lock(task.getProject().getId(), TaskGraph.HIERARCHY);
+            entityManager.refresh(task, LockModeType.PESSIMISTIC_WRITE);
+        }
+        return task.getParentId();
+    }
+
+    /** Carries a subtask moving into or out of DONE up to every ancestor's rollup in one statement. */
+    private void adjustDoneRollups(Task task, TaskStatus newStatus) {
+        int delta = (newStatus == TaskStatus.DONE ? 1 : 0) - (task.getStatus() == TaskStatus.DONE ? 1 : 0);
+        if (delta != 0 && task.getParentId() != null) {
+            taskRepository.adjustAncestorRollups(task.getId(), 0, delta);
+        }
+    }
+
+    private static ResponseStatusException changedConcurrently() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Task was moved or deleted concurrently, retry");
+    }
+
+    private static Long assigneeId(User assignee) {
+        return assignee == null ? null : assignee.getId();
+    }
+
+    private static void commit(FlightEvents.TaskOperation event, String operation, Long projectId, Long taskId, int rows) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.projectId = projectId;
+            event.taskId = taskId;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    /**
+     * Turns a fused task + role lookup into 404/403. A null {@code required} only demands membership.
+     */
+    private TaskAccess authorize(Optional<TaskAccess> access, ProjectRole required) {
+        TaskAccess found = access
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        if (found.role() == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a project member");
+        }
+        if (required != null && !found.role().atLeast(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient role");
         }
-        return taskRepository.save(task);
+        return found;
     }
 
     private String nonBlank(String s, String message) {
@@ -2,21 +2,63 @@ package com.leorsun.projecthub.service;
 
 import com.leorsun.projecthub.model.User;
 import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.responses.UserDirectoryPage;
+import com.leorsun.projecthub.responses.UserSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 public class UserService {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
     private final UserRepository userRepository;
     public UserService(UserRepository userRepository, EmailService emailService) {
         this.userRepository = userRepository;
     }
 
-    public List<User> allUsers() {
-        List<User> users = new ArrayList<>();
-        userRepository.findAll().forEach(users::add);
-        return users;
+    @Transactional(readOnly = true)
+    public UserDirectoryPage directory(User caller, String query, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String afterName = "";
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = Cursors.decode(cursor);
+            int sep = decoded.lastIndexOf(':');
+            try {
+                afterName = decoded.substring(0, sep);
+                afterId = Long.parseLong(decoded.substring(sep + 1));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                throw Cursors.invalid();
+            }
+        }
+
+        List<UserSummary> users;
+        if (query == null || query.isBlank()) {
+            users = userRepository.findDirectoryPage(caller.getId(), afterName, afterId, Limit.of(pageSize));
+        } else {
+            String prefix = escapeLike(query.trim().toLowerCase(Locale.ROOT)) + "%";
+            users = userRepository.searchDirectoryPage(caller.getId(), prefix, afterName, afterId, Limit.of(pageSize));
+        }
+
+        String nextCursor = null;
+        if (users.size() == pageSize) {
+            UserSummary last = users.get(users.size() - 1);
+            nextCursor = Cursors.encode(last.getUsername().toLowerCase(Locale.ROOT) + ":" + last.getId());
+        }
+        return new UserDirectoryPage(users, nextCursor);
+    }
+
+    private String escapeLike(String s) {
+        return s.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
-}
\ No newline at end of file
+}
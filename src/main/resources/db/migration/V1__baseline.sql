@@ -0,0 +1,82 @@
+-- Schema as previously produced by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip this script, so it
+-- must not gain anything they lack; changes go in later versions.
+
+create sequence users_seq start with 1 increment by 50;
+create sequence projects_seq start with 1 increment by 50;
+create sequence project_members_seq start with 1 increment by 50;
+create sequence project_invites_seq start with 1 increment by 50;
+create sequence tasks_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    verification_code varchar(255),
+    verification_expiration timestamp(6),
+    enabled boolean not null,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table projects (
+    id bigint not null,
+    name varchar(255) not null,
+    project_key varchar(255) not null,
+    description varchar(2000),
+    owner_id bigint not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_projects_key unique (project_key),
+    constraint fk_projects_owner foreign key (owner_id) references users
+);
+
+create table project_members (
+    id bigint not null,
+    project_id bigint not null,
+    user_id bigint not null,
+    role varchar(255) not null check (role in ('OWNER','ADMIN','MEMBER','VIEWER')),
+    joined_at timestamp(6),
+    primary key (id),
+    constraint uk_project_user unique (project_id, user_id),
+    constraint fk_project_members_project foreign key (project_id) references projects,
+    constraint fk_project_members_user foreign key (user_id) references users
+);
+
+create table project_invites (
+    id bigint not null,
+    project_id bigint not null,
+    email varchar(255) not null,
+    token varchar(255) not null,
+    role varchar(255) not null check (role in ('OWNER','ADMIN','MEMBER','VIEWER')),
+    expires_at timestamp(6),
+    accepted_at timestamp(6),
+    invited_by bigint not null,
+    created_at timestamp(6),
+    primary key (id),
+    constraint uk_project_invites_token unique (token),
+    constraint fk_project_invites_project foreign key (project_id) references projects,
+    constraint fk_project_invites_invited_by foreign key (invited_by) references users
+);
+
+create table tasks (
+    id bigint not null,
+    project_id bigint not null,
+    title varchar(255) not null,
+    description varchar(5000),
+    status varchar(255) not null check (status in ('TODO','DOING','DONE')),
+    priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH')),
+    assignee_id bigint,
+    reporter_id bigint,
+    due_date date,
+    order_index integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint fk_tasks_project foreign key (project_id) references projects,
+    constraint fk_tasks_assignee foreign key (assignee_id) references users,
+    constraint fk_tasks_reporter foreign key (reporter_id) references users
+);
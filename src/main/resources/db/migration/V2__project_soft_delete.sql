@@ -0,0 +1,23 @@
+-- Soft-deleted projects: deleted_at hides the project at once, project_deletions tracks the background purge of
+-- its rows (ProjectDeletionWorker).
+
+alter table projects add column deleted_at timestamp(6);
+
+create sequence project_deletions_seq start with 1 increment by 50;
+
+create table project_deletions (
+    id bigint not null,
+    project_id bigint not null,
+    requested_by bigint not null,
+    status varchar(255) not null check (status in ('PENDING','COMPLETED')),
+    tasks_deleted bigint not null,
+    invites_deleted bigint not null,
+    members_deleted bigint not null,
+    requested_at timestamp(6),
+    updated_at timestamp(6),
+    completed_at timestamp(6),
+    primary key (id),
+    constraint uk_project_deletions_project unique (project_id)
+);
+-- Worker scan for pending project deletions
+create index idx_project_deletions_status on project_deletions (status, requested_at);
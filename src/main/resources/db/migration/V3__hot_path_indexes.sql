@@ -0,0 +1,24 @@
+-- Indexes for the hot lookups. "if not exists" because ddl-auto=update already created the
+-- @Index-declared ones on databases that predate migrations.
+
+-- Board columns: listTasks, end-of-column order index, status counts
+create index if not exists idx_tasks_project_status_order on tasks (project_id, status, order_index);
+-- Last activity per project in the my-projects summary
+create index if not exists idx_tasks_project_updated on tasks (project_id, updated_at);
+-- My work (assigned / reported), filtered by status and ordered by due date
+create index if not exists idx_tasks_assignee_status_due on tasks (assignee_id, status, due_date);
+create index if not exists idx_tasks_reporter_status_due on tasks (reporter_id, status, due_date);
+
+-- Memberships of a user (my projects, directory scoping); (project_id, user_id) is covered by uk_project_user
+create index if not exists idx_project_members_user on project_members (user_id, project_id);
+
+-- Duplicate-invite check: existsByProject_IdAndEmailIgnoreCase
+create index if not exists idx_project_invites_project_email on project_invites (project_id, lower(email));
+
+-- Case-insensitive lookups (repositories compare lower(...)); the plain unique indexes cannot serve them.
+-- The pattern_ops variants serve the directory's prefix LIKE under non-C collations.
+create index if not exists idx_users_email_lower on users (lower(email));
+create index if not exists idx_users_email_lower_pattern on users (lower(email) text_pattern_ops);
+create index if not exists idx_users_username_lower on users (lower(username), id);
+create index if not exists idx_users_username_lower_pattern on users (lower(username) text_pattern_ops);
+create index if not exists idx_projects_key_lower on projects (lower(project_key));
@@ -0,0 +1,27 @@
+-- Human-readable task numbers (KEY-123) and the counters KeyAllocator hands numbers and project keys out of.
+
+alter table tasks add column task_number bigint;
+-- Existing tasks are numbered per project in creation order
+update tasks t set task_number = n.rn
+from (select id, row_number() over (partition by project_id order by created_at, id) as rn from tasks) n
+where t.id = n.id;
+-- Also serves the KEY-123 lookup (project_id, task_number)
+alter table tasks add constraint uk_tasks_project_number unique (project_id, task_number);
+
+create table project_task_counters (
+    project_id bigint not null,
+    last_number bigint not null,
+    primary key (project_id)
+);
+insert into project_task_counters (project_id, last_number)
+select p.id, coalesce(max(t.task_number), 0) from projects p left join tasks t on t.project_id = p.id group by p.id;
+
+-- Seeded lazily, per prefix, from the keys already in use
+create table project_key_counters (
+    prefix varchar(255) not null,
+    last_suffix integer not null,
+    primary key (prefix)
+);
+
+-- Prefix scan over existing keys when a key counter is seeded (lower(project_key) like 'web%')
+create index if not exists idx_projects_key_lower_pattern on projects (lower(project_key) text_pattern_ops);
@@ -0,0 +1,29 @@
+-- Cold storage for completed tasks (TaskArchiveWorker): same columns as tasks plus archived_at, so the hot
+-- table and its indexes only carry open work and recently finished tasks.
+
+create table archived_tasks (
+    id bigint not null,
+    project_id bigint not null,
+    title varchar(255) not null,
+    description varchar(5000),
+    status varchar(255) not null check (status in ('TODO','DOING','DONE')),
+    priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH')),
+    assignee_id bigint,
+    reporter_id bigint,
+    due_date date,
+    order_index integer,
+    task_number bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (id),
+    constraint fk_archived_tasks_project foreign key (project_id) references projects,
+    constraint fk_archived_tasks_assignee foreign key (assignee_id) references users,
+    constraint fk_archived_tasks_reporter foreign key (reporter_id) references users
+);
+
+-- Per-project archive listing, newest first
+create index if not exists idx_archived_tasks_project_archived on archived_tasks (project_id, archived_at, id);
+
+-- Archival scan: partial, so it covers only DONE rows and stays small however large the open backlog is
+create index if not exists idx_tasks_done_updated on tasks (updated_at) where status = 'DONE';
@@ -0,0 +1,31 @@
+-- "blocks / blocked by" links between tasks of one project, and the lock row whose version keys cached
+-- dependency graphs.
+
+create sequence task_dependencies_seq start with 1 increment by 50;
+
+create table task_dependencies (
+    id bigint not null,
+    project_id bigint not null,
+    blocker_id bigint not null,
+    blocked_id bigint not null,
+    created_at timestamp(6),
+    primary key (id),
+    constraint fk_task_dependencies_project foreign key (project_id) references projects,
+    constraint fk_task_dependencies_blocker foreign key (blocker_id) references tasks on delete cascade,
+    constraint fk_task_dependencies_blocked foreign key (blocked_id) references tasks on delete cascade,
+    -- Also serves the cascade from the blocker side
+    constraint uk_task_dependencies_edge unique (blocker_id, blocked_id)
+);
+-- Whole-graph load per project, and the cascade from the blocked side
+create index if not exists idx_task_dependencies_project on task_dependencies (project_id);
+create index if not exists idx_task_dependencies_blocked on task_dependencies (blocked_id);
+
+-- Lock and version row per project and graph (TaskGraphLocks), apart from project_task_counters so that graph
+-- changes and task creation do not queue behind each other. Created on a graph's first change.
+create table project_task_graphs (
+    project_id bigint not null,
+    graph varchar(20) not null,
+    version bigint not null,
+    primary key (project_id, graph),
+    constraint ck_project_task_graphs_graph check (graph in ('DEPENDENCIES'))
+);
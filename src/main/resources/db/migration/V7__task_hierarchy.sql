@@ -0,0 +1,25 @@
+-- Epic / story / subtask hierarchies: the direct parent and descendant rollups on tasks, every ancestor pair in
+-- task_closure.
+
+alter table tasks add column parent_id bigint;
+alter table tasks add column subtask_count integer not null default 0;
+alter table tasks add column subtasks_done integer not null default 0;
+alter table tasks add constraint fk_tasks_parent foreign key (parent_id) references tasks on delete set null;
+create index if not exists idx_tasks_parent on tasks (parent_id);
+
+-- No row for a task itself; depth 1 is a direct child
+create table task_closure (
+    ancestor_id bigint not null,
+    descendant_id bigint not null,
+    depth integer not null,
+    primary key (ancestor_id, descendant_id),
+    constraint fk_task_closure_ancestor foreign key (ancestor_id) references tasks on delete cascade,
+    constraint fk_task_closure_descendant foreign key (descendant_id) references tasks on delete cascade
+);
+-- Ancestor chains and rollup updates, and the cascade from the descendant side
+create index if not exists idx_task_closure_descendant on task_closure (descendant_id, ancestor_id);
+
+-- Hierarchy changes get their own lock row
+alter table project_task_graphs drop constraint ck_project_task_graphs_graph;
+alter table project_task_graphs add constraint ck_project_task_graphs_graph
+    check (graph in ('DEPENDENCIES','HIERARCHY'));
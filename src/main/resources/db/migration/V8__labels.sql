@@ -0,0 +1,37 @@
+-- Project-scoped labels and the task <-> label links the board filter indexes.
+
+create sequence labels_seq start with 1 increment by 50;
+
+create table labels (
+    id bigint not null,
+    project_id bigint not null,
+    name varchar(50) not null,
+    color varchar(7),
+    created_at timestamp(6),
+    primary key (id),
+    constraint fk_labels_project foreign key (project_id) references projects
+);
+-- Names are unique per project ignoring case, as LabelService checks. Also serves listing a project's labels and
+-- the existsByName check
+create unique index if not exists uk_labels_project_name_lower on labels (project_id, lower(name));
+
+create table task_labels (
+    task_id bigint not null,
+    label_id bigint not null,
+    primary key (task_id, label_id),
+    constraint fk_task_labels_task foreign key (task_id) references tasks on delete cascade,
+    constraint fk_task_labels_label foreign key (label_id) references labels on delete cascade
+);
+-- Index builds read a project's links label by label; also the cascade from the label side
+create index if not exists idx_task_labels_label on task_labels (label_id, task_id);
+
+-- Labels of archived tasks (task_labels rows go with the task), put back when the task is restored
+create table archived_task_labels (
+    task_id bigint not null,
+    label_id bigint not null,
+    primary key (task_id, label_id),
+    constraint fk_archived_task_labels_task foreign key (task_id) references archived_tasks on delete cascade,
+    constraint fk_archived_task_labels_label foreign key (label_id) references labels on delete cascade
+);
+-- The cascade from the label side
+create index if not exists idx_archived_task_labels_label on archived_task_labels (label_id, task_id);
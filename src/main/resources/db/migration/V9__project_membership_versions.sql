@@ -0,0 +1,9 @@
+-- Per-project membership version, bumped with every membership change. MembershipCache compares it with the
+-- version its cached roles were read at, so a change made through another node reaches every node.
+-- A project without a row is at version 0.
+
+create table project_membership_versions (
+    project_id bigint not null,
+    version bigint not null,
+    primary key (project_id)
+);
@@ -0,0 +1,39 @@
+package com.leorsun.projecthub;
+
+import com.leorsun.projecthub.config.QueryCounter;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Query-count assertions for tests: wrap a MockMvc call or a service call and pin how many SQL statements it
+ * may issue. The work must run on the calling thread (MockMvc and direct calls do).
+ */
+public final class QueryCountAssertions {
+    private static final int REPEAT_THRESHOLD = 3;
+
+    private QueryCountAssertions() {
+    }
+
+    /** Runs the action and fails if it issued more than {@code max} statements or repeated one (N+1). */
+    public static QueryCounter.Scope assertQueryCount(int max, ThrowingCallable action) {
+        QueryCounter.Scope scope = QueryCounter.open();
+        try (scope) {
+            action.call();
+        } catch (Throwable e) {
+            fail("Action under query count failed", e);
+        }
+        assertThat(scope.repeated(REPEAT_THRESHOLD)).as("statements repeated %d+ times (N+1)", REPEAT_THRESHOLD).isEmpty();
+        assertThat(scope.total()).as("SQL statements issued:%n%s", describe(scope)).isLessThanOrEqualTo(max);
+        return scope;
+    }
+
+    private static String describe(QueryCounter.Scope scope) {
+        return scope.statements().entrySet().stream()
+                .map(e -> e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
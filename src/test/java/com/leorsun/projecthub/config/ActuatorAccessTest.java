@@ -0,0 +1,64 @@
+package com.leorsun.projecthub.config;
+
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Actuator sharing the API port, as the test profile configures it: any signed-up user holds a token there, so
+ * only the probe and the scrape answer.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:actuator-access;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=unused",
+        "projecthub.jfr.enabled=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ActuatorAccessTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void probesAndTheScrapeNeedNoToken() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+
+    @Test
+    void signedUpUsersCannotReadMetricsOrDumpTheRecording() throws Exception {
+        User user = new User("someone", "someone@example.com", "secret");
+        user.setEnabled(true);
+        userRepository.save(user);
+        String token = "Bearer " + jwtService.generateToken(user);
+
+        mockMvc.perform(get("/actuator/jfr").header("Authorization", token)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", token)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator").header("Authorization", token)).andExpect(status().isForbidden());
+    }
+}
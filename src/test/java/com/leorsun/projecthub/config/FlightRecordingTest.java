@@ -0,0 +1,49 @@
+package com.leorsun.projecthub.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecordingTest {
+
+    @Test
+    void dumpContainsDomainEventsButNoEnvironment() throws Exception {
+        Path copy = Files.createTempFile("flight-recording-test", ".jfr");
+        try (FlightRecording recording = new FlightRecording(new MockEnvironment())) {
+            FlightEvents.TaskOperation event = new FlightEvents.TaskOperation();
+            event.begin();
+            event.operation = "move";
+            event.projectId = 7;
+            event.taskId = 42;
+            event.rows = 1;
+            event.commit();
+
+            Resource dump = recording.dump().getBody();
+            try (InputStream in = dump.getInputStream()) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            assertThat(dump.getFile()).doesNotExist();
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(copy);
+            assertThat(events).filteredOn(e -> e.getEventType().getName().equals("projecthub.TaskOperation"))
+                    .singleElement()
+                    .satisfies(e -> {
+                        assertThat(e.getString("operation")).isEqualTo("move");
+                        assertThat(e.getLong("taskId")).isEqualTo(42);
+                    });
+            assertThat(events).noneMatch(e -> e.getEventType().getName().equals("jdk.InitialEnvironmentVariable"));
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.leorsun.projecthub.config;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.service.MembershipCache;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica. Hibernate creates the schema on the primary,
+ * which is copied to the replica; the rows differ so each read shows where it was routed.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "projecthub.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "projecthub.datasource.read-your-writes-window=1h"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({BulkheadConfiguration.class, ReadReplicaConfiguration.class, MembershipCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MembershipCache membershipCache;
+    @Autowired
+    private ReadYourWritesGuard guard;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        Path schema = Files.createTempFile("primary-schema", ".sql");
+        try (Connection primary = DriverManager.getConnection("jdbc:h2:mem:primary", "sa", "");
+             Statement statement = primary.createStatement()) {
+            statement.execute("script nodata to '" + schema + "'");
+        }
+        try (Statement replica = replica().createStatement()) {
+            replica.execute("drop all objects");
+            replica.execute("runscript from '" + schema + "'");
+            replica.execute("insert into users (id, username, email, password, enabled) values (1000, 'on-replica', 'r@example.com', 'x', true)");
+        }
+        Files.delete(schema);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        readWrite.executeWithoutResult(tx -> userRepository.save(new User("on-primary", "p@example.com", "x")));
+
+        assertThat(usernamesIn(readOnly)).containsExactly("on-replica");
+        assertThat(usernamesIn(readWrite)).containsExactly("on-primary");
+        // Spring Data's own read methods are read-only transactions too
+        assertThat(usernames()).containsExactly("on-replica");
+    }
+
+    @Test
+    void aClientsOwnWriteKeepsItsReadsOnThePrimaryOnAnyNode() {
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        try (ReadYourWritesGuard.Scope scope = guard.open(new MockHttpServletRequest(), written)) {
+            readWrite.executeWithoutResult(tx -> userRepository.save(new User("writer", "w@example.com", "x")));
+            assertThat(usernamesIn(readOnly)).containsExactly("writer");
+        }
+        String lastWrite = written.getHeader(ReadYourWritesGuard.HEADER);
+        assertThat(lastWrite).isNotNull();
+        assertThat(written.getCookie(ReadYourWritesGuard.COOKIE)).isNotNull()
+                .satisfies(cookie -> assertThat(cookie.getValue()).isEqualTo(lastWrite));
+
+        // Another client, and work outside any request, read from the replica
+        assertThat(usernamesIn(readOnly, new MockHttpServletRequest())).containsExactly("on-replica");
+        assertThat(usernamesIn(readOnly)).containsExactly("on-replica");
+
+        // The writer's next requests carry the write time back, by header or by cookie
+        MockHttpServletRequest byHeader = new MockHttpServletRequest();
+        byHeader.addHeader(ReadYourWritesGuard.HEADER, lastWrite);
+        assertThat(usernamesIn(readOnly, byHeader)).containsExactly("writer");
+        MockHttpServletRequest byCookie = new MockHttpServletRequest();
+        byCookie.setCookies(new Cookie(ReadYourWritesGuard.COOKIE, lastWrite));
+        assertThat(usernamesIn(readOnly, byCookie)).containsExactly("writer");
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.addHeader(ReadYourWritesGuard.HEADER, Long.toString(Long.parseLong(lastWrite) - Duration.ofHours(2).toMillis()));
+        assertThat(usernamesIn(readOnly, expired)).containsExactly("on-replica");
+    }
+
+    @Test
+    void rolesAreReadFromThePrimaryEvenInsideReadOnlyTransactions() throws SQLException {
+        User member = readWrite.execute(tx -> userRepository.save(new User("member", "m@example.com", "x")));
+        // Only the primary knows about the membership yet, as right after an invite is accepted
+        try (Connection primary = primary(); Statement statement = primary.createStatement()) {
+            statement.execute("insert into projects (id, name, project_key, owner_id, created_at, updated_at) values (500, 'Lagging', 'LAG', " + member.getId() + ", now(), now())");
+            statement.execute("insert into project_members (id, project_id, user_id, role, joined_at) values (500, 500, " + member.getId() + ", 'OWNER', now())");
+        }
+        try {
+            List<String> afterMiss = readOnly.execute(tx -> {
+                assertThat(membershipCache.getRole(500L, member.getId())).contains(ProjectRole.OWNER);
+                // The miss was read on the transaction's own connection, so it stays on the primary
+                return usernames();
+            });
+            assertThat(afterMiss).containsExactly("member");
+            List<String> afterHit = readOnly.execute(tx -> {
+                assertThat(membershipCache.getRole(500L, member.getId())).contains(ProjectRole.OWNER);
+                return usernames();
+            });
+            assertThat(afterHit).containsExactly("on-replica");
+        } finally {
+            try (Connection primary = primary(); Statement statement = primary.createStatement()) {
+                statement.execute("delete from project_members where id = 500");
+                statement.execute("delete from projects where id = 500");
+            }
+        }
+    }
+
+    @Test
+    void checkingMembershipAfterAReplicaReadFails() {
+        // It could only reach the primary over a second connection
+        assertThatThrownBy(() -> readOnly.executeWithoutResult(tx -> {
+            usernames();
+            membershipCache.getRole(500L, 1000L);
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(membershipCache.getRole(500L, 1000L)).isEmpty();
+    }
+
+    private List<String> usernamesIn(TransactionTemplate transaction) {
+        return transaction.execute(tx -> usernames());
+    }
+
+    private List<String> usernamesIn(TransactionTemplate transaction, MockHttpServletRequest request) {
+        try (ReadYourWritesGuard.Scope scope = guard.open(request, new MockHttpServletResponse())) {
+            return usernamesIn(transaction);
+        }
+    }
+
+    private List<String> usernames() {
+        return StreamSupport.stream(userRepository.findAll().spliterator(), false).map(User::getUsername).toList();
+    }
+
+    private static Connection primary() throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:mem:primary", "sa", "");
+    }
+
+    private static Connection replica() throws SQLException {
+        return DriverManager.getConnection(REPLICA_URL, "sa", "");
+    }
+}
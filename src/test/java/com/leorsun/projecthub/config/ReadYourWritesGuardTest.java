@@ -0,0 +1,58 @@
+package com.leorsun.projecthub.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesGuardTest {
+    private static final Instant NOW = Instant.parse("2030-01-01T12:00:00Z");
+
+    private final ReadYourWritesGuard guard =
+            new ReadYourWritesGuard(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void writeTimesFromAnotherNodesClockPinWithinTheWindowEitherWay() {
+        assertThat(pinned(NOW.toEpochMilli() + 2_000)).isTrue();
+        assertThat(pinned(NOW.toEpochMilli() - 4_000)).isTrue();
+        assertThat(pinned(NOW.toEpochMilli() - 6_000)).isFalse();
+        assertThat(pinned(NOW.toEpochMilli() + 6_000)).isFalse();
+    }
+
+    @Test
+    void malformedValuesAndWorkOutsideRequestsAreNotPinned() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadYourWritesGuard.HEADER, "soon");
+        try (ReadYourWritesGuard.Scope scope = guard.open(request, new MockHttpServletResponse())) {
+            assertThat(guard.isPinnedToPrimary()).isFalse();
+        }
+        guard.recordWrite();
+        assertThat(guard.tracksClient()).isFalse();
+        assertThat(guard.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void aWriteAfterTheResponseWasCommittedStillPinsTheRestOfTheRequest() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCommitted(true);
+        try (ReadYourWritesGuard.Scope scope = guard.open(new MockHttpServletRequest(), response)) {
+            guard.recordWrite();
+            assertThat(guard.isPinnedToPrimary()).isTrue();
+        }
+        assertThat(response.getHeader(ReadYourWritesGuard.HEADER)).isNull();
+    }
+
+    private boolean pinned(long lastWrite) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadYourWritesGuard.HEADER, Long.toString(lastWrite));
+        try (ReadYourWritesGuard.Scope scope = guard.open(request, new MockHttpServletResponse())) {
+            return guard.isPinnedToPrimary();
+        }
+    }
+}
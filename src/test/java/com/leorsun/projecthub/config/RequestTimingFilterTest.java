@@ -0,0 +1,117 @@
+package com.leorsun.projecthub.config;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.repository.ProjectRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.assertj.core.data.Offset;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:request-timing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=unused",
+        "projecthub.request-timing.server-timing=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestTimingFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private ProjectMemberRepository memberRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private String token;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User("owner", "owner@example.com", "secret");
+        owner.setEnabled(true);
+        userRepository.save(owner);
+        project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(owner);
+        projectRepository.save(project);
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member.setRole(ProjectRole.OWNER);
+        memberRepository.save(member);
+        Task task = new Task();
+        task.setProject(project);
+        task.setTitle("Task");
+        task.setReporter(owner);
+        taskRepository.save(task);
+        token = "Bearer " + jwtService.generateToken(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void authenticatedRequestReportsItsPhases() throws Exception {
+        String header = mockMvc.perform(get("/api/projects/{id}/tasks", project.getId()).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Task"))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        Map<String, Double> phases = parse(header);
+        assertThat(phases).containsKeys(RequestTiming.JWT, RequestTiming.USER, RequestTiming.AUTHZ,
+                RequestTiming.DB, RequestTiming.SERIALIZE, RequestTiming.APP, "total");
+        double sum = phases.entrySet().stream().filter(e -> !e.getKey().equals("total"))
+                .mapToDouble(Map.Entry::getValue).sum();
+        // Phases are exclusive, so together they account for the total (allowing for rounding)
+        assertThat(sum).isCloseTo(phases.get("total"), Offset.offset(0.1 * phases.size()));
+    }
+
+    @Test
+    void anonymousRequestStillGetsATotal() throws Exception {
+        String header = mockMvc.perform(get("/actuator/health"))
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertThat(parse(header)).containsKey("total").doesNotContainKey(RequestTiming.JWT);
+    }
+
+    private static Map<String, Double> parse(String header) {
+        assertThat(header).isNotNull();
+        return Arrays.stream(header.split(",\\s*"))
+                .map(entry -> entry.split(";dur="))
+                .collect(Collectors.toMap(parts -> parts[0], parts -> Double.parseDouble(parts[1])));
+    }
+}
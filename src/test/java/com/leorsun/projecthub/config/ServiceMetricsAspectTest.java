@@ -0,0 +1,81 @@
+package com.leorsun.projecthub.config;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.service.BoardFilterService;
+import com.leorsun.projecthub.service.KeyAllocator;
+import com.leorsun.projecthub.service.MembershipCache;
+import com.leorsun.projecthub.service.TaskService;
+import com.leorsun.projecthub.service.TaskGraphLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({TaskService.class, KeyAllocator.class, TaskGraphLocks.class, MembershipCache.class, BoardFilterService.class, ServiceMetricsAspect.class, ServiceMetricsAspectTest.Registry.class})
+class ServiceMetricsAspectTest {
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private Project project;
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = new User("owner", "owner@example.com", "secret");
+        owner.setEnabled(true);
+        em.persist(owner);
+
+        project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(owner);
+        em.persist(project);
+
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member.setRole(ProjectRole.OWNER);
+        em.persist(member);
+        em.flush();
+    }
+
+    @Test
+    void timesOperationsByServiceMethodAndOutcome() {
+        taskService.listTasks(owner, project.getId());
+        taskService.listTasks(owner, project.getId());
+        assertThatThrownBy(() -> taskService.getTask(owner, -1L)).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(meterRegistry.get("projecthub.service")
+                .tags("service", "TaskService", "method", "listTasks", "outcome", "SUCCESS").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("projecthub.service")
+                .tags("service", "TaskService", "method", "getTask", "outcome", "CLIENT_ERROR").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.leorsun.projecthub.controller;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.repository.ProjectRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.leorsun.projecthub.QueryCountAssertions.assertQueryCount;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the read endpoints, counted across the whole request: JWT user lookup, membership check,
+ * the query itself and any lazy loads while the response is serialized. Rows are committed up front so nothing
+ * is served from the test's persistence context.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=unused",
+        "projecthub.query-budget.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointQueryBudgetTest {
+    private static final int TEAM = 8;
+    private static final int TASKS = 24;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private ProjectMemberRepository memberRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private String token;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        List<User> team = new ArrayList<>();
+        for (int i = 0; i < TEAM; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "secret");
+            user.setEnabled(true);
+            team.add(userRepository.save(user));
+        }
+        project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(team.get(0));
+        projectRepository.save(project);
+        for (int i = 0; i < TEAM; i++) {
+            ProjectMember member = new ProjectMember();
+            member.setProject(project);
+            member.setUser(team.get(i));
+            member.setRole(i == 0 ? ProjectRole.OWNER : ProjectRole.MEMBER);
+            memberRepository.save(member);
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task();
+            t.setProject(project);
+            t.setTitle("Task " + i);
+            t.setAssignee(team.get(i % TEAM));
+            t.setReporter(team.get((i + 1) % TEAM));
+            t.setOrderIndex(i);
+            tasks.add(t);
+        }
+        task = taskRepository.saveAll(tasks).get(0);
+        token = "Bearer " + jwtService.generateToken(team.get(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void boardListsTasksWithAssigneesInOneQuery() {
+        assertQueryCount(3, () -> mockMvc.perform(get("/api/projects/{id}/tasks", project.getId()).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TASKS))
+                .andExpect(jsonPath("$[0].assignee.username").value("user0")));
+    }
+
+    @Test
+    void memberListLoadsUsersWithTheMembers() {
+        assertQueryCount(3, () -> mockMvc.perform(get("/api/projects/{id}/members", project.getId()).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TEAM))
+                .andExpect(jsonPath("$[0].user.username").exists()));
+    }
+
+    @Test
+    void singleTaskStaysWithinBudget() {
+        assertQueryCount(3, () -> mockMvc.perform(get("/api/tasks/{id}", task.getId()).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reporter.username").exists()));
+    }
+}
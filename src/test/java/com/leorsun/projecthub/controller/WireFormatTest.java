@@ -0,0 +1,156 @@
+package com.leorsun.projecthub.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.repository.ProjectRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The board and single-task endpoints in each negotiated format: same shapes as JSON, just a different encoding.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:wire-format;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=unused"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WireFormatTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final int TASKS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private ProjectMemberRepository memberRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private String token;
+    private String outsiderToken;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        User owner = enabledUser("owner");
+        User outsider = enabledUser("outsider");
+        project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(owner);
+        projectRepository.save(project);
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member.setRole(ProjectRole.OWNER);
+        memberRepository.save(member);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task();
+            t.setProject(project);
+            t.setTitle("Task " + i);
+            t.setAssignee(i % 2 == 0 ? owner : null);
+            t.setReporter(owner);
+            t.setOrderIndex(i);
+            tasks.add(t);
+        }
+        task = taskRepository.saveAll(tasks).get(0);
+        token = "Bearer " + jwtService.generateToken(owner);
+        outsiderToken = "Bearer " + jwtService.generateToken(outsider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void boardIsTheSameInEveryFormat() throws Exception {
+        JsonNode expected = json.readTree(fetch("/api/projects/" + project.getId() + "/tasks", MediaType.APPLICATION_JSON)
+                .getResponse().getContentAsByteArray());
+        assertThat(expected.size()).isEqualTo(TASKS);
+        assertThat(expected.get(0).get("assignee").get("username").asText()).isEqualTo("owner");
+
+        byte[] cbor = fetch("/api/projects/" + project.getId() + "/tasks", MediaType.APPLICATION_CBOR)
+                .getResponse().getContentAsByteArray();
+        byte[] smile = fetch("/api/projects/" + project.getId() + "/tasks", SMILE)
+                .getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readTree(cbor)).isEqualTo(expected);
+        assertThat(new SmileMapper().readTree(smile)).isEqualTo(expected);
+    }
+
+    @Test
+    void singleTaskNegotiatesToo() throws Exception {
+        JsonNode expected = json.readTree(fetch("/api/tasks/" + task.getId(), MediaType.APPLICATION_JSON)
+                .getResponse().getContentAsByteArray());
+
+        byte[] cbor = fetch("/api/tasks/" + task.getId(), MediaType.APPLICATION_CBOR).getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readTree(cbor)).isEqualTo(expected);
+    }
+
+    @Test
+    void streamedBoardStillChecksMembershipFirst() throws Exception {
+        mockMvc.perform(get("/api/projects/{id}/tasks", project.getId()).header("Authorization", outsiderToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unsupportedFormatIsNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/projects/{id}/tasks", project.getId()).header("Authorization", token)
+                        .accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    private MvcResult fetch(String path, MediaType format) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", token).accept(format))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(format))
+                .andReturn();
+    }
+
+    private User enabledUser(String name) {
+        User user = new User(name, name + "@example.com", "secret");
+        user.setEnabled(true);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,190 @@
+package com.leorsun.projecthub.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.leorsun.projecthub.model.TaskStatus;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.service.JwtService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a large tenant ({@link SyntheticDataset}) into a freshly booted app and drives a mix of login, board
+ * listing, move, assign and invite requests against it. Traffic follows memberships, so the huge boards also get
+ * the most requests. Excluded from the default build; run with {@code mvn test -Pload-test}
+ * (-Dtest=LargeTenantLoadTest for just this one). Scale with -Dload.users, -Dload.projects, -Dload.tasks,
+ * -Dload.concurrency and -Dload.requests; see {@link LoadTestApplication} for running against PostgreSQL.
+ * Per-endpoint throughput and latency percentiles are written to target/load/large-tenant.json.
+ */
+@Tag("load")
+class LargeTenantLoadTest {
+    private static final int USERS = Integer.getInteger("load.users", 10_000);
+    private static final int PROJECTS = Integer.getInteger("load.projects", 2_000);
+    private static final int TASKS = Integer.getInteger("load.tasks", 1_000_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 50_000);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+
+    @Test
+    void driveLargeTenant() throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestApplication.start("large-tenant")) {
+            long seedStart = System.nanoTime();
+            String hash = context.getBean(PasswordEncoder.class).encode(SyntheticDataset.PASSWORD);
+            SyntheticDataset dataset = SyntheticDataset.seed(context.getBean(DataSource.class), hash, USERS, PROJECTS, TASKS, SEED);
+            long seedMillis = (System.nanoTime() - seedStart) / 1_000_000;
+
+            Traffic traffic = new Traffic(context, dataset);
+            LoadGenerator generator = new LoadGenerator();
+            // Warm up JIT, pools and caches before measuring
+            generator.runMix(Math.min(CONCURRENCY, 50), Math.min(REQUESTS, 2_000), traffic.mix());
+            List<LoadGenerator.Result> results = generator.runMix(CONCURRENCY, REQUESTS, traffic.mix());
+
+            LoadGenerator.summaries(results).forEach(System.out::println);
+            write(report(dataset, seedMillis, results));
+            assertThat(results).allSatisfy(r -> assertThat(r.errors()).as(r.label() + " errors").isZero());
+        }
+    }
+
+    /** Requests picked from the seeded dataset: a random membership, then a task on that board. */
+    private static final class Traffic {
+        private final SyntheticDataset dataset;
+        private final JwtService jwtService;
+        private final String base;
+        private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+        private final int[] membershipProject;
+        private final int[] membershipUser;
+
+        Traffic(ConfigurableApplicationContext context, SyntheticDataset dataset) {
+            this.dataset = dataset;
+            this.jwtService = context.getBean(JwtService.class);
+            this.base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            membershipProject = new int[dataset.memberships];
+            membershipUser = new int[dataset.memberships];
+            int k = 0;
+            for (int p = 0; p < dataset.projects(); p++) {
+                for (int user : dataset.members[p]) {
+                    membershipProject[k] = p;
+                    membershipUser[k++] = user;
+                }
+            }
+        }
+
+        List<LoadGenerator.Operation> mix() {
+            return List.of(
+                    new LoadGenerator.Operation("login", 5, n -> login()),
+                    new LoadGenerator.Operation("board", 35, n -> board()),
+                    new LoadGenerator.Operation("move", 30, n -> move()),
+                    new LoadGenerator.Operation("assign", 20, n -> assign()),
+                    new LoadGenerator.Operation("invite", 10, this::invite));
+        }
+
+        private HttpRequest login() {
+            int user = ThreadLocalRandom.current().nextInt(dataset.users);
+            return json("POST", "/api/auth/login", null,
+                    "{\"email\":\"" + SyntheticDataset.email(user) + "\",\"password\":\"" + SyntheticDataset.PASSWORD + "\"}");
+        }
+
+        private HttpRequest board() {
+            int m = randomMembership();
+            return HttpRequest.newBuilder(URI.create(base + "/api/projects/" + (membershipProject[m] + 1) + "/tasks"))
+                    .header("Authorization", token(membershipUser[m]))
+                    .GET()
+                    .build();
+        }
+
+        private HttpRequest move() {
+            int m = randomMembershipWithTasks();
+            TaskStatus status = TaskStatus.values()[ThreadLocalRandom.current().nextInt(TaskStatus.values().length)];
+            return json("PATCH", "/api/tasks/" + randomTask(membershipProject[m]) + "/move", token(membershipUser[m]),
+                    "{\"status\":\"" + status + "\"}");
+        }
+
+        private HttpRequest assign() {
+            int m = randomMembershipWithTasks();
+            int[] team = dataset.members[membershipProject[m]];
+            long assignee = team[ThreadLocalRandom.current().nextInt(team.length)] + 1L;
+            return json("PATCH", "/api/tasks/" + randomTask(membershipProject[m]) + "/assign", token(membershipUser[m]),
+                    "{\"assigneeId\":" + assignee + "}");
+        }
+
+        private HttpRequest invite(int n) {
+            int project = ThreadLocalRandom.current().nextInt(dataset.projects());
+            return json("POST", "/api/projects/" + (project + 1) + "/invites", token(dataset.members[project][0]),
+                    "{\"email\":\"invitee" + n + "-" + System.nanoTime() + "@load.test\",\"role\":\"MEMBER\"}");
+        }
+
+        private int randomMembership() {
+            return ThreadLocalRandom.current().nextInt(dataset.memberships);
+        }
+
+        private int randomMembershipWithTasks() {
+            int m;
+            do {
+                m = randomMembership();
+            } while (dataset.taskCount[membershipProject[m]] == 0);
+            return m;
+        }
+
+        private long randomTask(int project) {
+            return dataset.firstTaskId[project] + ThreadLocalRandom.current().nextInt(dataset.taskCount[project]);
+        }
+
+        private String token(int user) {
+            return tokens.computeIfAbsent(user, u -> {
+                User principal = new User("user" + u, SyntheticDataset.email(u), "");
+                principal.setId(u + 1L);
+                return "Bearer " + jwtService.generateToken(principal);
+            });
+        }
+
+        private HttpRequest json(String method, String path, String token, String body) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) {
+                builder.header("Authorization", token);
+            }
+            return builder.build();
+        }
+    }
+
+    private static Map<String, Object> report(SyntheticDataset dataset, long seedMillis, List<LoadGenerator.Result> results) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("users", dataset.users);
+        data.put("projects", dataset.projects());
+        data.put("tasks", dataset.tasks());
+        data.put("memberships", dataset.memberships);
+        data.put("largestBoardTasks", dataset.taskCount[0]);
+        data.put("seedMillis", seedMillis);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("dataset", data);
+        report.put("concurrency", CONCURRENCY);
+        report.put("requests", REQUESTS);
+        report.put("endpoints", results.stream().map(LoadGenerator.Result::toMap).toList());
+        return report;
+    }
+
+    private static void write(Map<String, Object> report) throws IOException {
+        Path dir = Path.of("target", "load");
+        Files.createDirectories(dir);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(dir.resolve("large-tenant.json").toFile(), report);
+    }
+}
@@ -0,0 +1,127 @@
+package com.leorsun.projecthub.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load: keeps {@code concurrency} requests in flight until {@code total} have completed and
+ * records each request's latency. Clients run on virtual threads so the generator is never the bottleneck.
+ */
+final class LoadGenerator {
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    /** One endpoint in a mix; request {@code n} of the run goes to operations in proportion to their weights. */
+    record Operation(String label, int weight, IntFunction<HttpRequest> request) {
+    }
+
+    Result run(String label, int concurrency, int total, IntFunction<HttpRequest> requests) throws InterruptedException {
+        return runMix(concurrency, total, List.of(new Operation(label, 1, requests))).get(0);
+    }
+
+    /** Runs the operations interleaved in one closed loop and reports each separately over the shared run time. */
+    List<Result> runMix(int concurrency, int total, List<Operation> mix) throws InterruptedException {
+        // Deterministic interleaving: slot k of each round of sum(weights) requests belongs to one operation
+        int[] slots = new int[mix.stream().mapToInt(Operation::weight).sum()];
+        int k = 0;
+        for (int op = 0; op < mix.size(); op++) {
+            Arrays.fill(slots, k, k + mix.get(op).weight(), op);
+            k += mix.get(op).weight();
+        }
+        int[] operation = new int[total];
+        long[] latencies = new long[total];
+        boolean[] failed = new boolean[total];
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                inFlight.acquire();
+                int n = i;
+                operation[n] = slots[n % slots.length];
+                executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpRequest request = mix.get(operation[n]).request().apply(n);
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        failed[n] = response.statusCode() >= 400;
+                    } catch (Exception e) {
+                        failed[n] = true;
+                    } finally {
+                        latencies[n] = System.nanoTime() - t0;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<Result> results = new ArrayList<>();
+        for (int op = 0; op < mix.size(); op++) {
+            int count = 0;
+            int errors = 0;
+            long[] own = new long[total];
+            for (int n = 0; n < total; n++) {
+                if (operation[n] == op) {
+                    own[count++] = latencies[n];
+                    errors += failed[n] ? 1 : 0;
+                }
+            }
+            results.add(new Result(mix.get(op).label(), count, errors, elapsed, Arrays.copyOf(own, count)));
+        }
+        return results;
+    }
+
+    record Result(String label, int requests, int errors, long elapsedNanos, long[] latencies) {
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        String summary() {
+            return String.format("%-10s %7d req %5d err %9.1f req/s  p50 %8.1f ms  p99 %8.1f ms",
+                    label, requests, errors, throughput(), percentileMillis(50), percentileMillis(99));
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("endpoint", label);
+            map.put("requests", requests);
+            map.put("errors", errors);
+            map.put("throughputPerSecond", throughput());
+            map.put("p50Ms", percentileMillis(50));
+            map.put("p90Ms", percentileMillis(90));
+            map.put("p99Ms", percentileMillis(99));
+            map.put("maxMs", percentileMillis(100));
+            return map;
+        }
+    }
+
+    static List<String> summaries(List<Result> results) {
+        List<String> lines = new ArrayList<>();
+        results.forEach(r -> lines.add(r.summary()));
+        return lines;
+    }
+}
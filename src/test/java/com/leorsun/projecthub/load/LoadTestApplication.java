@@ -0,0 +1,69 @@
+package com.leorsun.projecthub.load;
+
+import com.leorsun.projecthub.ProjectHubApplication;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the real application on a random port for the load tests. Without -Dload.db.url the app runs against an
+ * in-memory H2 database with a Hibernate-created schema; with it, against that (empty) database after the Flyway
+ * migrations, e.g. -Dload.db.url=jdbc:postgresql://localhost:5432/projecthub_load -Dload.db.username=...
+ * Outgoing mail is discarded.
+ */
+final class LoadTestApplication {
+    private static final String DB_URL = System.getProperty("load.db.url");
+
+    private LoadTestApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... extraArgs) {
+        return start(name, DB_URL, extraArgs);
+    }
+
+    /** Always in-memory, for tests that boot more than once and seed the same rows each time. */
+    static ConfigurableApplicationContext startInMemory(String name, String... extraArgs) {
+        return start(name, null, extraArgs);
+    }
+
+    private static ConfigurableApplicationContext start(String name, String dbUrl, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+                "--spring.mail.username=load@example.com",
+                "--spring.mail.password=unused"));
+        if (dbUrl == null) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.flyway.enabled=false",
+                    "--projecthub.schema.verify-indexes=false"));
+        } else {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + dbUrl,
+                    "--spring.datasource.username=" + System.getProperty("load.db.username", ""),
+                    "--spring.datasource.password=" + System.getProperty("load.db.password", "")));
+        }
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(ProjectHubApplication.class)
+                // Primary over the SMTP sender from EmailConfiguration
+                .initializers(context -> ((GenericApplicationContext) context).registerBean("discardingMailSender",
+                        JavaMailSender.class, DiscardingMailSender::new, definition -> definition.setPrimary(true)))
+                .run(args.toArray(String[]::new));
+    }
+
+    private static final class DiscardingMailSender extends JavaMailSenderImpl {
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.leorsun.projecthub.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A large tenant written straight through JDBC batches: users, projects whose task counts follow a Zipf
+ * distribution (a handful of huge boards, a long tail of small ones), members in proportion to board size, and
+ * tasks spread over statuses, priorities and assignees. Ids are assigned here and the Hibernate sequences moved
+ * past them, so the app keeps inserting normally afterwards. Same seed, same dataset.
+ */
+final class SyntheticDataset {
+    static final String PASSWORD = "load-password";
+    private static final int BATCH = 5_000;
+    private static final String[] STATUSES = {"TODO", "DOING", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+
+    final int users;
+    final int[] taskCount;
+    final long[] firstTaskId;
+    // members[p][0] is the owner; user index u has id u + 1, project index p has id p + 1
+    final int[][] members;
+    final int memberships;
+
+    private SyntheticDataset(int users, int[] taskCount, long[] firstTaskId, int[][] members) {
+        this.users = users;
+        this.taskCount = taskCount;
+        this.firstTaskId = firstTaskId;
+        this.members = members;
+        int total = 0;
+        for (int[] m : members) {
+            total += m.length;
+        }
+        this.memberships = total;
+    }
+
+    static SyntheticDataset seed(DataSource dataSource, String passwordHash,
+                                 int users, int projects, int tasks, long seed) {
+        Random random = new Random(seed);
+        int[] taskCount = zipf(tasks, projects, 1.0);
+        long[] firstTaskId = new long[projects];
+        int[][] members = new int[projects][];
+        long nextTaskId = 1;
+        for (int p = 0; p < projects; p++) {
+            firstTaskId[p] = nextTaskId;
+            nextTaskId += taskCount[p];
+            int size = Math.min(users, 2 + taskCount[p] / 100);
+            Set<Integer> picked = new LinkedHashSet<>();
+            while (picked.size() < size) {
+                picked.add(random.nextInt(users));
+            }
+            members[p] = picked.stream().mapToInt(Integer::intValue).toArray();
+        }
+        SyntheticDataset dataset = new SyntheticDataset(users, taskCount, firstTaskId, members);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        dataset.insertUsers(jdbc, passwordHash);
+        dataset.insertProjects(jdbc, now);
+        dataset.insertMembers(jdbc, now);
+        dataset.insertTasks(jdbc, now, random);
+        dataset.insertTaskCounters(jdbc);
+        restartSequence(jdbc, "users_seq", users);
+        restartSequence(jdbc, "projects_seq", projects);
+        restartSequence(jdbc, "project_members_seq", dataset.memberships);
+        restartSequence(jdbc, "tasks_seq", nextTaskId - 1);
+        return dataset;
+    }
+
+    int projects() {
+        return taskCount.length;
+    }
+
+    long tasks() {
+        return firstTaskId[projects() - 1] + taskCount[projects() - 1] - 1;
+    }
+
+    static String email(int user) {
+        return "user" + user + "@load.test";
+    }
+
+    private void insertUsers(JdbcTemplate jdbc, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int u = 0; u < users; u++) {
+            rows.add(new Object[]{u + 1L, "user" + u, email(u), passwordHash, true});
+            flushIfFull(jdbc, "insert into users (id, username, email, password, enabled) values (?, ?, ?, ?, ?)", rows);
+        }
+        flush(jdbc, "insert into users (id, username, email, password, enabled) values (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertProjects(JdbcTemplate jdbc, Timestamp now) {
+        String sql = "insert into projects (id, name, project_key, owner_id, created_at, updated_at) values (?, ?, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int p = 0; p < projects(); p++) {
+            rows.add(new Object[]{p + 1L, "Project " + p, "P" + p, members[p][0] + 1L, now, now});
+            flushIfFull(jdbc, sql, rows);
+        }
+        flush(jdbc, sql, rows);
+    }
+
+    private void insertMembers(JdbcTemplate jdbc, Timestamp now) {
+        String sql = "insert into project_members (id, project_id, user_id, role, joined_at) values (?, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        long id = 1;
+        for (int p = 0; p < projects(); p++) {
+            for (int i = 0; i < members[p].length; i++) {
+                rows.add(new Object[]{id++, p + 1L, members[p][i] + 1L, i == 0 ? "OWNER" : "MEMBER", now});
+                flushIfFull(jdbc, sql, rows);
+            }
+        }
+        flush(jdbc, sql, rows);
+    }
+
+    private void insertTasks(JdbcTemplate jdbc, Timestamp now, Random random) {
+        String sql = "insert into tasks (id, project_id, task_number, title, description, status, priority, assignee_id, " +
+                "reporter_id, due_date, order_index, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int p = 0; p < projects(); p++) {
+            int[] nextOrder = new int[STATUSES.length];
+            int[] team = members[p];
+            for (int i = 0; i < taskCount[p]; i++) {
+                // Most work is done; boards keep a smaller open backlog
+                int status = random.nextInt(10) < 6 ? 2 : random.nextInt(2);
+                Long assignee = random.nextInt(5) == 0 ? null : team[random.nextInt(team.length)] + 1L;
+                Date due = random.nextInt(3) == 0 ? null : Date.valueOf(today.plusDays(random.nextInt(120) - 30));
+                rows.add(new Object[]{firstTaskId[p] + i, p + 1L, i + 1L, "Task " + i + " of P" + p, "Synthetic task for load testing",
+                        STATUSES[status], PRIORITIES[random.nextInt(PRIORITIES.length)], assignee,
+                        team[random.nextInt(team.length)] + 1L, due, nextOrder[status]++, now, now});
+                flushIfFull(jdbc, sql, rows);
+            }
+        }
+        flush(jdbc, sql, rows);
+    }
+
+    private void insertTaskCounters(JdbcTemplate jdbc) {
+        String sql = "insert into project_task_counters (project_id, last_number) values (?, ?)";
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int p = 0; p < projects(); p++) {
+            rows.add(new Object[]{p + 1L, (long) taskCount[p]});
+            flushIfFull(jdbc, sql, rows);
+        }
+        flush(jdbc, sql, rows);
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (rows.size() >= BATCH) {
+            flush(jdbc, sql, rows);
+        }
+    }
+
+    private static void flush(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    // Sequences hand out blocks of 50 (pooled optimizer), so start one block past the largest seeded id
+    private static void restartSequence(JdbcTemplate jdbc, String sequence, long maxId) {
+        jdbc.execute("alter sequence " + sequence + " restart with " + (maxId + 51));
+    }
+
+    // Rank r gets a share proportional to 1 / (r + 1)^exponent; rounding leftovers go to the largest board
+    private static int[] zipf(int total, int buckets, double exponent) {
+        double[] weights = new double[buckets];
+        double sum = 0;
+        for (int r = 0; r < buckets; r++) {
+            weights[r] = 1 / Math.pow(r + 1, exponent);
+            sum += weights[r];
+        }
+        int[] counts = new int[buckets];
+        int assigned = 0;
+        for (int r = 0; r < buckets; r++) {
+            counts[r] = (int) (total * weights[r] / sum);
+            assigned += counts[r];
+        }
+        counts[0] += total - assigned;
+        return counts;
+    }
+}
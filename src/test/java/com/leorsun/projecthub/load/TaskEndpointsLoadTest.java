@@ -0,0 +1,113 @@
+package com.leorsun.projecthub.load;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.repository.ProjectRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.repository.UserRepository;
+import com.leorsun.projecthub.service.JwtService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the app twice, once on the platform Tomcat pool and once on virtual threads, and drives the same
+ * task-endpoint mix through each. Both use the production pool size and bulkheads against in-memory H2.
+ * Excluded from the default build; run with {@code mvn test -Pload-test}. Tune with -Dload.concurrency and
+ * -Dload.requests. The comparison is written to target/load/task-endpoints.txt.
+ */
+@Tag("load")
+class TaskEndpointsLoadTest {
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20000);
+    private static final int TASKS = 200;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                results.add(drive(context, virtual ? "virtual" : "platform"));
+            }
+        }
+
+        List<String> lines = LoadGenerator.summaries(results);
+        lines.add(0, "concurrency=" + CONCURRENCY + " requests=" + REQUESTS + " tasks=" + TASKS);
+        lines.forEach(System.out::println);
+        write(lines);
+        assertThat(results).allSatisfy(r -> assertThat(r.errors()).as(r.label() + " errors").isZero());
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        return LoadTestApplication.startInMemory("load-" + virtual, "--spring.threads.virtual.enabled=" + virtual);
+    }
+
+    private static LoadGenerator.Result drive(ConfigurableApplicationContext context, String label) throws InterruptedException {
+        UserRepository users = context.getBean(UserRepository.class);
+        User user = new User("load", "load@example.com", "secret");
+        user.setEnabled(true);
+        users.save(user);
+
+        Project project = new Project();
+        project.setName("Load");
+        project.setKey("LOAD");
+        project.setOwner(user);
+        context.getBean(ProjectRepository.class).save(project);
+
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(user);
+        member.setRole(ProjectRole.OWNER);
+        context.getBean(ProjectMemberRepository.class).save(member);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setProject(project);
+            task.setTitle("Task " + i);
+            task.setReporter(user);
+            task.setOrderIndex(i);
+            tasks.add(task);
+        }
+        List<Long> taskIds = context.getBean(TaskRepository.class).saveAll(tasks).stream().map(Task::getId).toList();
+
+        String token = "Bearer " + context.getBean(JwtService.class).generateToken(user);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+
+        LoadGenerator generator = new LoadGenerator();
+        // Warm up JIT, pools and caches before measuring
+        generator.run(label, 50, 2000, n -> get(base + "/api/tasks/" + taskIds.get(n % TASKS), token));
+
+        return generator.run(label, CONCURRENCY, REQUESTS, n -> switch (n % 10) {
+            case 0 -> get(base + "/api/projects/" + project.getId() + "/tasks", token);
+            case 1 -> HttpRequest.newBuilder(URI.create(base + "/api/tasks/" + taskIds.get(n % TASKS) + "/move"))
+                    .header("Authorization", token)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"status\":\"" + TaskStatus.values()[n % 3] + "\"}"))
+                    .build();
+            default -> get(base + "/api/tasks/" + taskIds.get(n % TASKS), token);
+        });
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", token).GET().build();
+    }
+
+    private static void write(List<String> lines) throws IOException {
+        Path dir = Path.of("target", "load");
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("task-endpoints.txt"), lines);
+    }
+}
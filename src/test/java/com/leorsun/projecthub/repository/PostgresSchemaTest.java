@@ -0,0 +1,367 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.Label;
+import com.leorsun.projecthub.model.Project;
+import com.leorsun.projecthub.model.ProjectMember;
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.service.KeyAllocator;
+import com.leorsun.projecthub.service.MembershipCache;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Boots the application on a PostgreSQL container the way production runs: Flyway migrates an empty database,
+ * Hibernate validates the entities against it and SchemaIndexVerifier checks the expected indexes. Then EXPLAINs
+ * the queries whose indexes the H2 stand-in cannot express (functional lower(...) and partial indexes, see
+ * {@link QueryPlanTest}) and writes the plans to target/query-plans/postgres. Needs Docker; excluded from the
+ * default build, run with {@code mvn test -Ppostgres-test}.
+ */
+@Tag("postgres")
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "projecthub.schema.verify-indexes=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.leorsun.projecthub.repository.CapturingStatementInspector",
+        "security.jwt.secret-key=3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b",
+        "spring.mail.username=test@example.com",
+        "spring.mail.password=unused"})
+class PostgresSchemaTest {
+    private static final Path PLAN_DIR = Path.of("target", "query-plans", "postgres");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private ProjectInviteRepository inviteRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private LabelRepository labelRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private KeyAllocator keyAllocator;
+    @Autowired
+    private ProjectMemberRepository memberRepository;
+    @Autowired
+    private MembershipCache membershipCache;
+    @Autowired
+    private TaskLabelRepository taskLabelRepository;
+
+    @Test
+    void everyMigrationApplies() {
+        // Startup already failed otherwise: validate and the index check run against the migrated schema
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current()).isNotNull();
+    }
+
+    @Test
+    void databasesFromBeforeTheMigrationsAreBaselinedOntoTheSameSchema() {
+        String url = POSTGRES.getJdbcUrl();
+        DriverManagerDataSource legacy = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=legacy",
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        jdbcTemplate.execute("create schema legacy");
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(legacy);
+            legacyJdbc.update("insert into users (id, username, email, password, enabled) " +
+                    "values (1, 'owner', 'owner@example.com', 'secret', true)");
+            legacyJdbc.update("insert into projects (id, name, project_key, owner_id, created_at) " +
+                    "values (1, 'Web', 'WEB', 1, now())");
+            legacyJdbc.update("insert into tasks (id, project_id, title, status, priority, created_at) " +
+                    "values (1, 1, 'First', 'TODO', 'LOW', now() - interval '1 day'), " +
+                    "(2, 1, 'Second', 'DONE', 'LOW', now())");
+
+            // As application.properties configures it: V1 is recorded as the baseline and skipped, the rest apply
+            MigrateResult result = Flyway.configure()
+                    .dataSource(legacy)
+                    .schemas("legacy")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+            assertThat(result.success).isTrue();
+            assertThat(result.targetSchemaVersion).isEqualTo(flyway.info().current().getVersion().getVersion());
+
+            String current = jdbcTemplate.queryForObject("select current_schema()", String.class);
+            assertThat(columns("legacy")).isEqualTo(columns(current));
+            assertThat(indexes("legacy")).isEqualTo(indexes(current));
+            assertThat(legacyJdbc.queryForList("select task_number from tasks order by id", Long.class))
+                    .containsExactly(1L, 2L);
+            assertThat(legacyJdbc.queryForObject(
+                    "select last_number from project_task_counters where project_id = 1", Long.class)).isEqualTo(2L);
+        } finally {
+            jdbcTemplate.execute("drop schema legacy cascade");
+        }
+    }
+
+    @Test
+    void caseInsensitiveLookupsUseTheLowerIndexes() throws IOException {
+        // Equality may be served by the plain lower(...) index or its text_pattern_ops twin; either name matches
+        assertThat(plan("UserRepository.existsByEmailIgnoreCase",
+                () -> userRepository.existsByEmailIgnoreCase("a@example.com"), "a@example.com"))
+                .contains("idx_users_email_lower");
+        assertThat(plan("UserRepository.existsByUsernameIgnoreCase",
+                () -> userRepository.existsByUsernameIgnoreCase("alice"), "alice"))
+                .contains("idx_users_username_lower");
+        assertThat(plan("ProjectRepository.findByKeyIgnoreCase",
+                () -> projectRepository.findByKeyIgnoreCase("CAP"), "CAP"))
+                .contains("idx_projects_key_lower");
+        assertThat(plan("ProjectRepository.findKeysStartingWith",
+                () -> projectRepository.findKeysStartingWith("CA"), "CA"))
+                .contains("idx_projects_key_lower_pattern");
+        assertThat(plan("ProjectInviteRepository.existsByProject_IdAndEmailIgnoreCase",
+                () -> inviteRepository.existsByProject_IdAndEmailIgnoreCase(1L, "a@example.com"), 1L, "a@example.com"))
+                .contains("idx_project_invites_project_email");
+        assertThat(plan("LabelRepository.existsByName",
+                () -> labelRepository.existsByName(1L, "Bug"), 1L, "Bug"))
+                .contains("uk_labels_project_name_lower");
+    }
+
+    @Test
+    void myTasksUnionReadsEachScopeFromItsOwnIndex() throws IOException {
+        LocalDate start = LocalDate.of(1, 1, 1);
+        LocalDate end = LocalDate.of(9999, 12, 31);
+        // Per branch: member join, status, priority, scope, due bound, keyset (afterDue twice, afterId), branch limit
+        Object[] branch = {1L, "TODO", "HIGH", 1L, end, start, start, 0L, 50};
+        Object[] values = new Object[branch.length * 2 + 1];
+        System.arraycopy(branch, 0, values, 0, branch.length);
+        System.arraycopy(branch, 0, values, branch.length, branch.length);
+        values[values.length - 1] = 50;
+        assertThat(plan("TaskRepository.findDatedAssignedToOrReportedBy",
+                () -> taskRepository.findDatedAssignedToOrReportedBy(1L, EnumSet.of(TaskStatus.TODO),
+                        EnumSet.of(TaskPriority.HIGH), end, start, 0L, 50), values))
+                .contains("idx_tasks_assignee_status_due", "idx_tasks_reporter_status_due");
+    }
+
+    @Test
+    void labelNamesDifferingOnlyInCaseConflict() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            User owner = userRepository.save(new User("owner", "owner@example.com", "secret"));
+            Project project = new Project();
+            project.setName("Board");
+            project.setKey("BRD");
+            project.setOwner(owner);
+            projectRepository.save(project);
+            labelRepository.saveAndFlush(label(project, "Bug"));
+
+            assertThatThrownBy(() -> labelRepository.saveAndFlush(label(project, "bug")))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            tx.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void archivalScansThePartialDoneIndex() throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now();
+        assertThat(plan("TaskRepository.lockArchivableIds",
+                () -> transactionTemplate.executeWithoutResult(tx -> taskRepository.lockArchivableIds(cutoff, Limit.of(100))),
+                cutoff, 100))
+                .contains("idx_tasks_done_updated");
+    }
+
+    @Test
+    void concurrentFirstKeysUnderANewPrefixBothSucceed() throws Exception {
+        CountDownLatch seeded = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first transaction seeds the counter and keeps it uncommitted while the second one seeds it too
+            Future<String> first = executor.submit(() -> transactionTemplate.execute(tx -> {
+                String key = keyAllocator.reserveProjectKey("Zephyr");
+                seeded.countDown();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+                return key;
+            }));
+            seeded.await();
+            Future<String> second = executor.submit(() -> transactionTemplate.execute(
+                    tx -> keyAllocator.reserveProjectKey("Zephyr")));
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("ZEPHYR");
+            assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("ZEPHYR1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rolesAreReadWithTheProjectsMembershipVersion() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            User owner = userRepository.save(new User("owner", "owner@example.com", "secret"));
+            Project project = new Project();
+            project.setName("Board");
+            project.setKey("BRD");
+            project.setOwner(owner);
+            projectRepository.save(project);
+            ProjectMember member = new ProjectMember();
+            member.setProject(project);
+            member.setUser(owner);
+            member.setRole(ProjectRole.OWNER);
+            memberRepository.save(member);
+            assertThat(memberRepository.findRoleAtVersion(project.getId(), owner.getId()))
+                    .contains(new RoleAtVersion(ProjectRole.OWNER, 0));
+
+            membershipCache.bumpVersion(project.getId());
+            membershipCache.bumpVersion(project.getId());
+            assertThat(memberRepository.findRoleAtVersion(project.getId(), owner.getId()))
+                    .contains(new RoleAtVersion(ProjectRole.OWNER, 2));
+            assertThat(memberRepository.findRoleAtVersion(project.getId(), owner.getId() + 1))
+                    .contains(new RoleAtVersion(null, 2));
+            tx.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void concurrentlyLabellingATaskTwiceAddsOneLink() throws Exception {
+        Long[] ids = transactionTemplate.execute(tx -> {
+            User owner = userRepository.save(new User("labeller", "labeller@example.com", "secret"));
+            Project project = new Project();
+            project.setName("Labels");
+            project.setKey("LBL");
+            project.setOwner(owner);
+            projectRepository.save(project);
+            Task task = new Task();
+            task.setProject(project);
+            task.setTitle("Twice");
+            task.setNumber(1L);
+            return new Long[]{taskRepository.save(task).getId(), labelRepository.save(label(project, "bug")).getId()};
+        });
+        CountDownLatch linked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The second insert waits on the first one's uncommitted row, then finds it there
+            Future<Integer> first = executor.submit(() -> transactionTemplate.execute(tx -> {
+                int rows = taskLabelRepository.link(ids[0], ids[1]);
+                linked.countDown();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+                return rows;
+            }));
+            linked.await();
+            Future<Integer> second = executor.submit(() -> transactionTemplate.execute(
+                    tx -> taskLabelRepository.link(ids[0], ids[1])));
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(second.get(10, TimeUnit.SECONDS)).isZero();
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("delete from tasks where id = ?", ids[0]);
+            jdbcTemplate.update("delete from labels where id = ?", ids[1]);
+            jdbcTemplate.update("delete from projects where project_key = 'LBL'");
+            jdbcTemplate.update("delete from users where username = 'labeller'");
+        }
+    }
+
+    private List<String> columns(String schema) {
+        return jdbcTemplate.queryForList("""
+                select table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable
+                       || coalesce(' ' || character_maximum_length, '')
+                from information_schema.columns where table_schema = ? order by 1""", String.class, schema);
+    }
+
+    // Leaves out the indexes behind primary keys and unique constraints, whose names Hibernate generated
+    private List<String> indexes(String schema) {
+        return jdbcTemplate.queryForList("""
+                select i.indexname from pg_indexes i
+                where i.schemaname = ? and not exists (
+                    select 1 from pg_constraint c join pg_namespace n on n.oid = c.connamespace
+                    where n.nspname = i.schemaname and c.conname = i.indexname)
+                order by 1""", String.class, schema);
+    }
+
+    private static Label label(Project project, String name) {
+        Label label = new Label();
+        label.setProject(project);
+        label.setName(name);
+        return label;
+    }
+
+    /**
+     * Runs the repository call, then EXPLAINs the last SQL statement it issued with the given values bound in
+     * order. The tables are empty, so sequential scans are switched off to see which index the planner can use.
+     */
+    private String plan(String name, Runnable call, Object... values) throws IOException {
+        CapturingStatementInspector.STATEMENTS.clear();
+        call.run();
+        String sql = CapturingStatementInspector.STATEMENTS.get(CapturingStatementInspector.STATEMENTS.size() - 1);
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+            }
+            try (PreparedStatement ps = connection.prepareStatement("explain " + sql)) {
+                assertThat(ps.getParameterMetaData().getParameterCount()).as(sql).isEqualTo(values.length);
+                for (int i = 0; i < values.length; i++) {
+                    ps.setObject(i + 1, values[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    StringBuilder sb = new StringBuilder();
+                    while (rs.next()) sb.append(rs.getString(1)).append('\n');
+                    return sb.toString();
+                } finally {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("reset enable_seqscan");
+                    }
+                }
+            }
+        });
+        Files.createDirectories(PLAN_DIR);
+        Files.writeString(PLAN_DIR.resolve(name + ".txt"), sql + "\n\n" + plan);
+        return plan;
+    }
+}
@@ -0,0 +1,93 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.responses.ProjectSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ProjectRepositoryTest {
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summariesLoadInOneStatementWithRoleAndCounts() {
+        User me = em.persist(user("me"));
+        User other = em.persist(user("other"));
+        Project quiet = project("QUIET", me);
+        Project busy = project("BUSY", other);
+        Project gone = project("GONE", me);
+        gone.setDeletedAt(LocalDateTime.now());
+        member(quiet, me, ProjectRole.OWNER);
+        member(busy, other, ProjectRole.OWNER);
+        member(busy, me, ProjectRole.MEMBER);
+        member(gone, me, ProjectRole.OWNER);
+        task(busy, TaskStatus.TODO);
+        task(busy, TaskStatus.TODO);
+        task(busy, TaskStatus.DOING);
+        task(busy, TaskStatus.DONE);
+        em.flush();
+        em.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProjectSummary> summaries = projectRepository.findSummariesByActivity(me.getId(), Pageable.unpaged());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(summaries).extracting(ProjectSummary::getKey).containsExactly("BUSY", "QUIET");
+        ProjectSummary first = summaries.get(0);
+        assertThat(first.getRole()).isEqualTo(ProjectRole.MEMBER);
+        assertThat(first.getMemberCount()).isEqualTo(2);
+        assertThat(first.getTodoCount()).isEqualTo(2);
+        assertThat(first.getDoingCount()).isEqualTo(1);
+
+        assertThat(projectRepository.findSummariesByName(me.getId(), PageRequest.of(0, 1)))
+                .extracting(ProjectSummary::getKey).containsExactly("BUSY");
+    }
+
+    private Project project(String key, User owner) {
+        Project project = new Project();
+        project.setName(key.toLowerCase());
+        project.setKey(key);
+        project.setOwner(owner);
+        return em.persist(project);
+    }
+
+    private void member(Project project, User user, ProjectRole role) {
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(user);
+        member.setRole(role);
+        em.persist(member);
+    }
+
+    private void task(Project project, TaskStatus status) {
+        Task task = new Task();
+        task.setProject(project);
+        task.setTitle("t");
+        task.setStatus(status);
+        em.persist(task);
+    }
+
+    private static User user(String name) {
+        return new User(name, name + "@example.com", "secret");
+    }
+}
@@ -0,0 +1,143 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.ProjectDeletionStatus;
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures the plan of every hand-written and derived repository query on the H2 stand-in and writes it to
+ * target/query-plans. Composite-index paths are asserted; where H2's own foreign-key indexes tie with ours on an
+ * empty table we only assert that no table scan drives the query. The functional lower(...) and partial indexes
+ * only exist on PostgreSQL and are covered by {@link PostgresSchemaTest} instead.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.leorsun.projecthub.repository.CapturingStatementInspector")
+@ActiveProfiles("test")
+class QueryPlanTest {
+    private static final Path PLAN_DIR = Path.of("target", "query-plans");
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private ProjectMemberRepository memberRepository;
+    @Autowired
+    private ProjectInviteRepository inviteRepository;
+    @Autowired
+    private ProjectDeletionRepository deletionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(PLAN_DIR);
+    }
+
+    @Test
+    void taskQueries() throws IOException {
+        LocalDate start = LocalDate.of(1, 1, 1);
+        assertThat(plan("TaskRepository.findByProject_IdAndStatusOrderByOrderIndexAsc",
+                () -> taskRepository.findByProject_IdAndStatusOrderByOrderIndexAsc(1L, TaskStatus.TODO)))
+                .contains("IDX_TASKS_PROJECT_STATUS_ORDER");
+        Set<TaskStatus> todo = EnumSet.of(TaskStatus.TODO);
+        Set<TaskPriority> anyPriority = EnumSet.allOf(TaskPriority.class);
+        LocalDate end = LocalDate.of(9999, 12, 31);
+        assertThat(plan("TaskRepository.findDatedAssignedTo",
+                () -> taskRepository.findDatedAssignedTo(1L, todo, anyPriority, end, start, 0L, Limit.of(50))))
+                .doesNotContain("TASKS.tableScan");
+        assertThat(plan("TaskRepository.findDatedReportedBy",
+                () -> taskRepository.findDatedReportedBy(1L, todo, anyPriority, end, start, 0L, Limit.of(50))))
+                .doesNotContain("TASKS.tableScan");
+        plan("TaskRepository.findUndatedAssignedTo", () -> taskRepository.findUndatedAssignedTo(1L, todo, anyPriority, 0L, Limit.of(50)));
+        plan("TaskRepository.findUndatedReportedBy", () -> taskRepository.findUndatedReportedBy(1L, todo, anyPriority, 0L, Limit.of(50)));
+        plan("TaskRepository.findByProject_IdOrderByOrderIndexAsc", () -> taskRepository.findByProject_IdOrderByOrderIndexAsc(1L));
+        plan("TaskRepository.findRowWithRole", () -> taskRepository.findRowWithRole(1L, 1L));
+        plan("TaskRepository.findRowForWrite", () -> taskRepository.findRowForWrite(1L, 1L, TaskStatus.DOING, 1L));
+        assertThat(plan("TaskRepository.findDatedAssignedToOrReportedBy",
+                () -> taskRepository.findDatedAssignedToOrReportedBy(1L, todo, anyPriority, end, start, 0L, 50)))
+                .doesNotContain("TASKS.tableScan");
+        plan("TaskRepository.findUndatedAssignedToOrReportedBy",
+                () -> taskRepository.findUndatedAssignedToOrReportedBy(1L, todo, anyPriority, 0L, 50));
+        plan("TaskRepository.findIdsByProjectId", () -> taskRepository.findIdsByProjectId(1L, PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void membershipQueries() throws IOException {
+        assertThat(plan("ProjectMemberRepository.findRoleAtVersion", () -> memberRepository.findRoleAtVersion(1L, 1L)))
+                .contains("UK_PROJECT_USER");
+        assertThat(plan("ProjectMemberRepository.findByUser_Id", () -> memberRepository.findByUser_Id(1L)))
+                .doesNotContain("PROJECT_MEMBERS.tableScan");
+        plan("ProjectMemberRepository.existsByProject_IdAndUser_Id", () -> memberRepository.existsByProject_IdAndUser_Id(1L, 1L));
+        plan("ProjectMemberRepository.findByProject_IdAndUser_Id", () -> memberRepository.findByProject_IdAndUser_Id(1L, 1L));
+        plan("ProjectMemberRepository.findByProject_Id", () -> memberRepository.findByProject_Id(1L));
+        plan("ProjectMemberRepository.countByProject_IdAndRole", () -> memberRepository.countByProject_IdAndRole(1L, ProjectRole.OWNER));
+        plan("ProjectMemberRepository.findSuggestionsByProjectId", () -> memberRepository.findSuggestionsByProjectId(1L));
+        plan("ProjectMemberRepository.findIdsByProjectId", () -> memberRepository.findIdsByProjectId(1L, PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void projectUserInviteAndDeletionQueries() throws IOException {
+        assertThat(plan("ProjectDeletionRepository.findIdsByStatus", () -> deletionRepository.findIdsByStatus(ProjectDeletionStatus.PENDING)))
+                .contains("IDX_PROJECT_DELETIONS_STATUS");
+        plan("ProjectDeletionRepository.findByProjectId", () -> deletionRepository.findByProjectId(1L));
+        plan("ProjectRepository.findSummariesByActivity", () -> projectRepository.findSummariesByActivity(1L, Pageable.unpaged()));
+        plan("ProjectRepository.existsByKeyIgnoreCase", () -> projectRepository.existsByKeyIgnoreCase("CAP"));
+        plan("ProjectRepository.findByKeyIgnoreCase", () -> projectRepository.findByKeyIgnoreCase("CAP"));
+        plan("UserRepository.findByEmail", () -> userRepository.findByEmail("a@example.com"));
+        plan("UserRepository.existsByEmailIgnoreCase", () -> userRepository.existsByEmailIgnoreCase("a@example.com"));
+        plan("UserRepository.existsByUsernameIgnoreCase", () -> userRepository.existsByUsernameIgnoreCase("a"));
+        plan("UserRepository.findDirectoryPage", () -> userRepository.findDirectoryPage(1L, "", 0L, Limit.of(20)));
+        plan("UserRepository.searchDirectoryPage", () -> userRepository.searchDirectoryPage(1L, "a%", "", 0L, Limit.of(20)));
+        plan("ProjectInviteRepository.findByToken", () -> inviteRepository.findByToken("t"));
+        plan("ProjectInviteRepository.existsByProject_IdAndEmailIgnoreCase",
+                () -> inviteRepository.existsByProject_IdAndEmailIgnoreCase(1L, "a@example.com"));
+    }
+
+    /**
+     * Runs the repository call, then EXPLAINs the last SQL statement it issued and stores the plan.
+     */
+    private String plan(String name, Runnable call) throws IOException {
+        CapturingStatementInspector.STATEMENTS.clear();
+        call.run();
+        String sql = CapturingStatementInspector.STATEMENTS.get(CapturingStatementInspector.STATEMENTS.size() - 1);
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("explain " + sql)) {
+                for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                    ps.setObject(i, null);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    StringBuilder sb = new StringBuilder();
+                    while (rs.next()) sb.append(rs.getString(1)).append('\n');
+                    return sb.toString();
+                }
+            }
+        });
+        Files.writeString(PLAN_DIR.resolve(name + ".txt"), sql + "\n\n" + plan);
+        return plan;
+    }
+}
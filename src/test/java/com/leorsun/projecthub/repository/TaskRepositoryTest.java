@@ -0,0 +1,115 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.responses.TaskSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TaskRepositoryTest {
+    private static final LocalDate START = LocalDate.of(1, 1, 1);
+    private static final LocalDate NO_BOUND = LocalDate.of(9999, 12, 31);
+    private static final Set<TaskStatus> ALL_STATUSES = EnumSet.allOf(TaskStatus.class);
+    private static final Set<TaskPriority> ALL_PRIORITIES = EnumSet.allOf(TaskPriority.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    private User me;
+    private User other;
+    private Project mine;
+
+    @BeforeEach
+    void setUp() {
+        me = em.persist(new User("me", "me@example.com", "secret"));
+        other = em.persist(new User("other", "other@example.com", "secret"));
+
+        mine = project("MINE", me);
+        member(mine, me);
+        Project left = project("LEFT", other);
+        member(left, other);
+
+        task(mine, "late", LocalDate.of(2030, 5, 1), me, TaskStatus.TODO);
+        task(mine, "soon", LocalDate.of(2030, 1, 1), me, TaskStatus.DOING);
+        task(mine, "someday-a", null, me, TaskStatus.TODO);
+        task(mine, "someday-b", null, me, TaskStatus.TODO);
+        task(mine, "not-mine", LocalDate.of(2030, 1, 2), other, TaskStatus.TODO);
+        // still assigned to me, but I am no longer a member of that project
+        task(left, "left-behind", LocalDate.of(2029, 1, 1), me, TaskStatus.TODO);
+        em.flush();
+    }
+
+    @Test
+    void pagesByDueDateThenThroughTasksWithoutDueDate() {
+        List<TaskSummary> dated = taskRepository.findDatedAssignedTo(me.getId(), ALL_STATUSES, ALL_PRIORITIES, NO_BOUND, START, 0L, Limit.of(3));
+        assertThat(dated).extracting(TaskSummary::getTitle).containsExactly("soon", "late");
+
+        List<TaskSummary> first = taskRepository.findUndatedAssignedTo(me.getId(), ALL_STATUSES, ALL_PRIORITIES, 0L, Limit.of(1));
+        assertThat(first).extracting(TaskSummary::getTitle).containsExactly("someday-a");
+        List<TaskSummary> second = taskRepository.findUndatedAssignedTo(me.getId(), ALL_STATUSES, ALL_PRIORITIES, first.get(0).getId(), Limit.of(3));
+        assertThat(second).extracting(TaskSummary::getTitle).containsExactly("someday-b");
+    }
+
+    @Test
+    void filtersByStatusAndDueDate() {
+        assertThat(taskRepository.findDatedAssignedTo(me.getId(), EnumSet.of(TaskStatus.TODO), ALL_PRIORITIES, LocalDate.of(2031, 1, 1), START, 0L, Limit.of(10)))
+                .extracting(TaskSummary::getTitle).containsExactly("late");
+    }
+
+    @Test
+    void bothScopesListEachTaskOnceInKeysetOrder() {
+        Task reported = task(mine, "reported", LocalDate.of(2030, 3, 1), other, TaskStatus.TODO);
+        reported.setReporter(me);
+        em.flush();
+
+        List<TaskSummary> first = taskRepository.findDatedAssignedToOrReportedBy(me.getId(), ALL_STATUSES, ALL_PRIORITIES, NO_BOUND, START, 0L, 2);
+        assertThat(first).extracting(TaskSummary::getTitle).containsExactly("soon", "reported");
+        TaskSummary last = first.get(1);
+        assertThat(taskRepository.findDatedAssignedToOrReportedBy(me.getId(), ALL_STATUSES, ALL_PRIORITIES, NO_BOUND, last.getDueDate(), last.getId(), 2))
+                .extracting(TaskSummary::getTitle).containsExactly("late");
+        assertThat(taskRepository.findUndatedAssignedToOrReportedBy(me.getId(), ALL_STATUSES, ALL_PRIORITIES, 0L, 5))
+                .extracting(TaskSummary::getTitle).containsExactly("someday-a", "someday-b");
+    }
+
+    private Project project(String key, User owner) {
+        Project project = new Project();
+        project.setName(key);
+        project.setKey(key);
+        project.setOwner(owner);
+        return em.persist(project);
+    }
+
+    private void member(Project project, User user) {
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(user);
+        member.setRole(ProjectRole.MEMBER);
+        em.persist(member);
+    }
+
+    private Task task(Project project, String title, LocalDate due, User assignee, TaskStatus status) {
+        Task task = new Task();
+        task.setProject(project);
+        task.setTitle(title);
+        task.setDueDate(due);
+        task.setAssignee(assignee);
+        task.setReporter(assignee);
+        task.setStatus(status);
+        return em.persist(task);
+    }
+}
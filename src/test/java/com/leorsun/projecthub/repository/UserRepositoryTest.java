@@ -0,0 +1,79 @@
+package com.leorsun.projecthub.repository;
+
+import com.leorsun.projecthub.model.Project;
+import com.leorsun.projecthub.model.ProjectMember;
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.responses.UserSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    private User me;
+
+    @BeforeEach
+    void setUp() {
+        me = em.persist(new User("me", "me@example.com", "secret"));
+        User alice = em.persist(new User("Alice", "alice@example.com", "secret"));
+        User albert = em.persist(new User("albert", "bert@example.com", "secret"));
+        User stranger = em.persist(new User("alfred", "alfred@example.com", "secret"));
+
+        Project shared = project("SHR", me);
+        member(shared, me);
+        member(shared, alice);
+        member(shared, albert);
+        Project other = project("OTH", stranger);
+        member(other, stranger);
+        em.flush();
+    }
+
+    @Test
+    void directoryOnlyListsCoMembersInKeysetOrder() {
+        List<UserSummary> first = userRepository.findDirectoryPage(me.getId(), "", 0L, Limit.of(2));
+        assertThat(first).extracting(UserSummary::getUsername).containsExactly("albert", "Alice");
+
+        UserSummary last = first.get(1);
+        List<UserSummary> second = userRepository.findDirectoryPage(me.getId(), last.getUsername().toLowerCase(), last.getId(), Limit.of(2));
+        assertThat(second).extracting(UserSummary::getUsername).containsExactly("me");
+    }
+
+    @Test
+    void prefixSearchMatchesUsernameOrEmailCaseInsensitively() {
+        assertThat(userRepository.searchDirectoryPage(me.getId(), "al%", "", 0L, Limit.of(10)))
+                .extracting(UserSummary::getUsername).containsExactly("albert", "Alice");
+        assertThat(userRepository.searchDirectoryPage(me.getId(), "bert%", "", 0L, Limit.of(10)))
+                .extracting(UserSummary::getUsername).containsExactly("albert");
+    }
+
+    private Project project(String key, User owner) {
+        Project project = new Project();
+        project.setName(key);
+        project.setKey(key);
+        project.setOwner(owner);
+        return em.persist(project);
+    }
+
+    private void member(Project project, User user) {
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(user);
+        member.setRole(ProjectRole.MEMBER);
+        em.persist(member);
+    }
+}
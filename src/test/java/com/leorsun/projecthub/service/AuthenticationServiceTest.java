@@ -0,0 +1,80 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.RegisterUserDto;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthenticationServiceTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final AuthenticationService authenticationService = new AuthenticationService(userRepository,
+            mock(AuthenticationManager.class), passwordEncoder, mock(EmailService.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void takenEmailIsRejectedBeforeHashing() {
+        when(userRepository.existsByEmailIgnoreCase("taken@example.com")).thenReturn(true);
+
+        assertThatThrownBy(() -> authenticationService.signup(register("taken@example.com", "someone")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    void availableNamesAreCheckedAgainAfterHashing() {
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        authenticationService.signup(register("new@example.com", "newbie"));
+
+        var order = inOrder(userRepository, passwordEncoder);
+        order.verify(userRepository).existsByEmailIgnoreCase("new@example.com");
+        order.verify(passwordEncoder).encode("secret");
+        order.verify(userRepository).existsByEmailIgnoreCase("new@example.com");
+        order.verify(userRepository).save(any(User.class));
+        verify(userRepository, times(2)).existsByUsernameIgnoreCase("newbie");
+    }
+
+    @Test
+    void aSignupThatLosesTheRaceForTheNameIsAConflict() {
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        // Free at both checks; the other signup commits first
+        when(userRepository.existsByUsernameIgnoreCase("twin")).thenReturn(false, false, true);
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_users_username"));
+
+        assertThatThrownBy(() -> authenticationService.signup(register("twin@example.com", "twin")))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(e.getReason()).isEqualTo("Username already taken");
+                });
+    }
+
+    private static RegisterUserDto register(String email, String username) {
+        RegisterUserDto dto = new RegisterUserDto();
+        dto.setEmail(email);
+        dto.setUsername(username);
+        dto.setPassword("secret");
+        return dto;
+    }
+}
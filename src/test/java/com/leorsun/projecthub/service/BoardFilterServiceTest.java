@@ -0,0 +1,188 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.AssignTaskDto;
+import com.leorsun.projecthub.dto.CreateLabelDto;
+import com.leorsun.projecthub.dto.CreateTaskDto;
+import com.leorsun.projecthub.dto.MoveTaskDto;
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.responses.BoardFilterPage;
+import com.leorsun.projecthub.responses.TaskSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Labels and board filtering against committed rows, so the index sees changes the way it does in production:
+ * after each service transaction commits.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BoardFilterService.class, LabelService.class, TaskService.class, KeyAllocator.class, TaskGraphLocks.class, MembershipCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BoardFilterServiceTest {
+    @Autowired
+    private BoardFilterService boardFilterService;
+    @Autowired
+    private LabelService labelService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager em;
+
+    private User owner;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            owner = new User("owner", "owner@example.com", "secret");
+            em.persist(owner);
+            project = new Project();
+            project.setName("Board");
+            project.setKey("BRD");
+            project.setOwner(owner);
+            em.persist(project);
+            ProjectMember member = new ProjectMember();
+            member.setProject(project);
+            member.setUser(owner);
+            member.setRole(ProjectRole.OWNER);
+            em.persist(member);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from TaskLabel").executeUpdate();
+            em.createQuery("delete from Label").executeUpdate();
+            em.createQuery("delete from Task").executeUpdate();
+            em.createQuery("delete from ProjectTaskCounter").executeUpdate();
+            em.createQuery("delete from ProjectMember").executeUpdate();
+            em.createQuery("delete from Project").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    void filtersByLabelsAndFacetsAndFollowsTaskChanges() {
+        Label bug = label("bug");
+        Label ui = label("ui");
+        Task login = task("Login fails", TaskPriority.HIGH);
+        Task button = task("Button colour", TaskPriority.LOW);
+        Task docs = task("Docs", TaskPriority.MEDIUM);
+        labelService.addLabel(owner, login.getId(), bug.getId());
+        labelService.addLabel(owner, login.getId(), ui.getId());
+        labelService.addLabel(owner, button.getId(), ui.getId());
+        // Labelling twice is a no-op
+        labelService.addLabel(owner, login.getId(), bug.getId());
+
+        BoardFilterPage page = filter(List.of(bug.getId(), ui.getId()), "any", null);
+        assertThat(ids(page)).containsExactly(login.getId(), button.getId());
+        assertThat(page.getLabelCounts()).containsEntry(bug.getId(), 1).containsEntry(ui.getId(), 2);
+        assertThat(ids(filter(List.of(bug.getId(), ui.getId()), "all", null))).containsExactly(login.getId());
+
+        // Once built, the index follows changes without re-reading the board: only the page is queried
+        MoveTaskDto done = new MoveTaskDto();
+        done.setStatus(TaskStatus.DONE);
+        taskService.moveTask(owner, button.getId(), done);
+        AssignTaskDto assign = new AssignTaskDto();
+        assign.setAssigneeId(owner.getId());
+        taskService.assignTask(owner, docs.getId(), assign);
+        labelService.addLabel(owner, docs.getId(), ui.getId());
+        statistics().clear();
+
+        page = filter(List.of(ui.getId()), "any", List.of(TaskStatus.TODO));
+        assertThat(ids(page)).containsExactly(login.getId(), docs.getId());
+        assertThat(page.getAssigneeCounts()).containsEntry(owner.getId(), 1).containsEntry(BoardIndex.UNASSIGNED, 1);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+
+        taskService.deleteTask(owner, login.getId());
+        labelService.deleteLabel(owner, project.getId(), bug.getId());
+        page = filter(null, "any", null);
+        assertThat(page.getTotal()).isEqualTo(2);
+        assertThat(page.getStatusCounts()).containsEntry(TaskStatus.TODO, 1).containsEntry(TaskStatus.DONE, 1);
+        assertThat(page.getLabelCounts()).containsOnlyKeys(ui.getId());
+    }
+
+    @Test
+    void labelsAreUniquePerProjectAndPagesCarryACursor() {
+        label("bug");
+        assertThatThrownBy(() -> label("BUG"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        for (int i = 0; i < 3; i++) {
+            task("Task " + i, TaskPriority.MEDIUM);
+        }
+        BoardFilterPage first = boardFilterService.filter(owner, project.getId(), null, "any", null, null, null, null, 2);
+        assertThat(first.getTasks()).hasSize(2);
+        assertThat(first.getTotal()).isEqualTo(3);
+        BoardFilterPage second = boardFilterService.filter(owner, project.getId(), null, "any", null, null, null,
+                first.getNextCursor(), 2);
+        assertThat(second.getTasks()).hasSize(1);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void indexesAreReweighedAsTheyGrow() {
+        task("First", TaskPriority.MEDIUM);
+        filter(null, "any", null);
+        long built = boardFilterService.weighedBytes();
+
+        Label label = label("bulk");
+        for (int i = 0; i < 100; i++) {
+            labelService.addLabel(owner, task("Task " + i, TaskPriority.values()[i % 3]).getId(), label.getId());
+        }
+        assertThat(filter(null, "any", null).getTotal()).isEqualTo(101);
+        assertThat(boardFilterService.weighedBytes()).isGreaterThan(built);
+    }
+
+    private BoardFilterPage filter(List<Long> labels, String labelMode, List<TaskStatus> statuses) {
+        return boardFilterService.filter(owner, project.getId(), labels, labelMode, statuses, null, null, null, null);
+    }
+
+    private Label label(String name) {
+        CreateLabelDto dto = new CreateLabelDto();
+        dto.setName(name);
+        return labelService.createLabel(owner, project.getId(), dto);
+    }
+
+    private Task task(String title, TaskPriority priority) {
+        CreateTaskDto dto = new CreateTaskDto();
+        dto.setTitle(title);
+        dto.setPriority(priority);
+        return taskService.createTask(owner, project.getId(), dto);
+    }
+
+    private static List<Long> ids(BoardFilterPage page) {
+        return page.getTasks().stream().map(TaskSummary::getId).toList();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,95 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.TaskPriority;
+import com.leorsun.projecthub.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.leorsun.projecthub.model.TaskPriority.*;
+import static com.leorsun.projecthub.model.TaskStatus.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardIndexTest {
+    private static final long ALICE = 7;
+    private static final long BOB = 8;
+    private static final long BUG = 100;
+    private static final long UI = 101;
+
+    // 1: TODO HIGH alice [bug, ui]; 2: DOING LOW bob [bug]; 3: DONE HIGH unassigned [ui]; 4: TODO MEDIUM alice []
+    private final BoardIndex index = BoardIndex.build(
+            List.of(row(1, TODO, HIGH, ALICE), row(2, DOING, LOW, BOB), row(3, DONE, HIGH, null), row(4, TODO, MEDIUM, ALICE)),
+            List.of(new Object[]{1L, BUG}, new Object[]{1L, UI}, new Object[]{2L, BUG}, new Object[]{3L, UI}));
+
+    @Test
+    void facetsAreAndedAndValuesWithinAFacetOred() {
+        assertThat(ids(filter(Set.of(BUG, UI), false, Set.of(), Set.of(), Set.of()))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(filter(Set.of(BUG, UI), true, Set.of(), Set.of(), Set.of()))).containsExactly(1L);
+        assertThat(ids(filter(Set.of(BUG), false, Set.of(TODO, DONE), Set.of(), Set.of()))).containsExactly(1L);
+        assertThat(ids(filter(Set.of(), false, Set.of(), Set.of(HIGH), Set.of(BoardIndex.UNASSIGNED)))).containsExactly(3L);
+        // Unknown values match nothing rather than everything
+        assertThat(ids(filter(Set.of(999L), false, Set.of(), Set.of(), Set.of()))).isEmpty();
+        assertThat(ids(filter(Set.of(BUG, 999L), true, Set.of(), Set.of(), Set.of()))).isEmpty();
+    }
+
+    @Test
+    void countsEveryFacetValueOverTheMatches() {
+        BoardIndex.Result result = filter(Set.of(), false, Set.of(TODO, DOING), Set.of(), Set.of());
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.statusCounts()).containsEntry(TODO, 2).containsEntry(DOING, 1).containsEntry(DONE, 0);
+        assertThat(result.priorityCounts()).containsEntry(HIGH, 1).containsEntry(MEDIUM, 1).containsEntry(LOW, 1);
+        assertThat(result.assigneeCounts()).containsOnly(entry(ALICE, 2), entry(BOB, 1));
+        assertThat(result.labelCounts()).containsOnly(entry(BUG, 2), entry(UI, 1));
+    }
+
+    @Test
+    void mutationsMoveTasksBetweenBitmaps() {
+        index.put(4, DONE, MEDIUM, BOB);
+        index.label(4, UI, true);
+        index.label(1, UI, false);
+        index.remove(2);
+
+        assertThat(ids(filter(Set.of(UI), false, Set.of(DONE), Set.of(), Set.of(BOB)))).containsExactly(4L);
+        assertThat(ids(filter(Set.of(BUG), false, Set.of(), Set.of(), Set.of()))).containsExactly(1L);
+        assertThat(filter(Set.of(), false, Set.of(), Set.of(), Set.of(BOB)).assigneeCounts()).containsOnly(entry(BOB, 1));
+        assertThat(index.holes()).isEqualTo(1);
+
+        // New tasks append in id order; an older id asks for a rebuild instead
+        assertThat(index.put(5, TODO, LOW, null)).isTrue();
+        assertThat(index.put(2, TODO, LOW, null)).isFalse();
+        index.dropLabel(UI);
+        assertThat(filter(Set.of(), false, Set.of(), Set.of(), Set.of()).labelCounts()).containsOnly(entry(BUG, 1));
+    }
+
+    @Test
+    void pagesFollowTaskIds() {
+        BoardIndex.Result first = index.query(new BoardIndex.Filter(Set.of(), false, Set.of(), Set.of(), Set.of(), 0, 2));
+        assertThat(first.page()).containsExactly(1L, 2L);
+        assertThat(first.total()).isEqualTo(4);
+
+        BoardIndex.Result second = index.query(new BoardIndex.Filter(Set.of(), false, Set.of(), Set.of(), Set.of(), 2, 2));
+        assertThat(second.page()).containsExactly(3L, 4L);
+        assertThat(index.query(new BoardIndex.Filter(Set.of(), false, Set.of(), Set.of(), Set.of(), 4, 2)).page()).isEmpty();
+    }
+
+    private BoardIndex.Result filter(Set<Long> labels, boolean allLabels, Set<TaskStatus> statuses,
+                                     Set<TaskPriority> priorities, Set<Long> assignees) {
+        return index.query(new BoardIndex.Filter(labels, allLabels, statuses, priorities, assignees, 0, 100));
+    }
+
+    private static List<Long> ids(BoardIndex.Result result) {
+        return Arrays.stream(result.page()).boxed().toList();
+    }
+
+    private static Object[] row(long id, TaskStatus status, TaskPriority priority, Long assignee) {
+        return new Object[]{id, status, priority, assignee};
+    }
+
+    private static Map.Entry<Long, Integer> entry(long key, int value) {
+        return Map.entry(key, value);
+    }
+}
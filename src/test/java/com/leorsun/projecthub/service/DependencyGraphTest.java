@@ -0,0 +1,58 @@
+package com.leorsun.projecthub.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyGraphTest {
+    // 10 -> 20 -> 40, 10 -> 30 -> 40, 50 -> 30
+    private final DependencyGraph graph = DependencyGraph.build(7,
+            new long[]{10, 20, 10, 30, 50},
+            new long[]{20, 40, 30, 40, 30});
+
+    @Test
+    void indexesOnlyLinkedTasks() {
+        assertThat(graph.nodeCount()).isEqualTo(5);
+        assertThat(graph.edgeCount()).isEqualTo(5);
+        assertThat(graph.indexOf(99)).isEqualTo(-1);
+        int node = graph.indexOf(30);
+        long[] blockers = new long[graph.blockersTo(node) - graph.blockersFrom(node)];
+        for (int e = graph.blockersFrom(node); e < graph.blockersTo(node); e++) {
+            blockers[e - graph.blockersFrom(node)] = graph.taskId(graph.blocker(e));
+        }
+        Arrays.sort(blockers);
+        assertThat(blockers).containsExactly(10, 50);
+    }
+
+    @Test
+    void followsLinksTransitivelyAndOneWayOnly() {
+        assertThat(graph.reaches(10, 40)).isTrue();
+        assertThat(graph.reaches(50, 40)).isTrue();
+        assertThat(graph.reaches(40, 10)).isFalse();
+        assertThat(graph.reaches(20, 30)).isFalse();
+        assertThat(graph.reaches(10, 99)).isFalse();
+    }
+
+    @Test
+    void ordersBlockersBeforeTheTasksTheyBlock() {
+        int[] order = graph.topologicalOrder();
+        assertThat(order).hasSize(5);
+        int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) position[order[i]] = i;
+        long[][] edges = {{10, 20}, {20, 40}, {10, 30}, {30, 40}, {50, 30}};
+        for (long[] edge : edges) {
+            assertThat(position[graph.indexOf(edge[0])]).isLessThan(position[graph.indexOf(edge[1])]);
+        }
+    }
+
+    @Test
+    void withEdgeKeepsExistingLinks() {
+        DependencyGraph next = graph.withEdge(8, 40, 60);
+        assertThat(next.version()).isEqualTo(8);
+        assertThat(next.edgeCount()).isEqualTo(6);
+        assertThat(next.reaches(10, 60)).isTrue();
+        assertThat(graph.indexOf(60)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.responses.CriticalPath;
+import com.leorsun.projecthub.responses.DependencyEdge;
+import com.leorsun.projecthub.responses.TaskSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({DependencyService.class, TaskGraphLocks.class, MembershipCache.class})
+class DependencyServiceTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private DependencyService dependencyService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private Project project;
+    private Task design;
+    private Task build;
+    private Task release;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(new User("owner", "owner@example.com", "secret"));
+        project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(owner);
+        em.persist(project);
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member.setRole(ProjectRole.OWNER);
+        em.persist(member);
+
+        design = task("Design", TODAY.plusDays(10));
+        build = task("Build", TODAY.plusDays(5));
+        release = task("Release", TODAY.plusDays(20));
+        em.flush();
+    }
+
+    @Test
+    void rejectsLinksThatCloseACycle() {
+        link(design, build);
+        link(build, release);
+
+        assertThatThrownBy(() -> link(release, design))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> link(design, design)).isInstanceOf(ResponseStatusException.class);
+        // Linking twice is harmless
+        link(design, build);
+        assertThat(dependencyService.listDependencies(owner, project.getId()))
+                .extracting(DependencyEdge::getBlockerId, DependencyEdge::getBlockedId)
+                .containsExactlyInAnyOrder(
+                        tuple(design.getId(), build.getId()),
+                        tuple(build.getId(), release.getId()));
+    }
+
+    @Test
+    void readyTasksWaitForOpenBlockers() {
+        Task loose = task("Loose end", null);
+        link(design, build);
+        link(build, release);
+
+        assertThat(ready()).containsExactly(design.getId(), loose.getId());
+
+        done(design);
+        assertThat(ready()).containsExactly(build.getId(), loose.getId());
+    }
+
+    @Test
+    void criticalPathFollowsTheLatestFinishingChain() {
+        Task side = task("Side quest", TODAY.plusDays(15));
+        link(design, build);
+        link(build, release);
+
+        CriticalPath path = dependencyService.criticalPath(owner, project.getId());
+        assertThat(path.getFinish()).isEqualTo(TODAY.plusDays(20));
+        assertThat(path.getTasks()).extracting(TaskSummary::getId)
+                .containsExactly(design.getId(), build.getId(), release.getId());
+
+        done(design);
+        side.setDueDate(TODAY.plusDays(30));
+        em.flush();
+        path = dependencyService.criticalPath(owner, project.getId());
+        assertThat(path.getFinish()).isEqualTo(TODAY.plusDays(30));
+        assertThat(path.getTasks()).extracting(TaskSummary::getId).containsExactly(side.getId());
+    }
+
+    @Test
+    void linksOfDeletedTasksNoLongerCount() {
+        link(design, build);
+        link(build, release);
+        // Caches the graph with both links
+        assertThat(ready()).containsExactly(design.getId());
+
+        taskRepository.deleteTask(build.getId());
+
+        // The cached graph still has design -> build -> release; the real one has no path left
+        link(release, design);
+        assertThat(ready()).containsExactly(release.getId());
+    }
+
+    private void link(Task blocker, Task blocked) {
+        dependencyService.addBlocker(owner, blocked.getId(), blocker.getId());
+    }
+
+    private List<Long> ready() {
+        return dependencyService.readyTasks(owner, project.getId()).stream().map(TaskSummary::getId).toList();
+    }
+
+    private void done(Task task) {
+        task.setStatus(TaskStatus.DONE);
+        em.flush();
+    }
+
+    private Task task(String title, LocalDate dueDate) {
+        Task task = new Task();
+        task.setProject(project);
+        task.setTitle(title);
+        task.setReporter(owner);
+        task.setDueDate(dueDate);
+        return em.persist(task);
+    }
+}
@@ -0,0 +1,109 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.config.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailServiceTest {
+    private final JavaMailSender mailSender = Mockito.mock(JavaMailSender.class);
+    private final QueuingExecutor executor = new QueuingExecutor();
+    private final EmailService emailService = new EmailService();
+
+    @BeforeEach
+    void setUp() {
+        when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage(Session.getInstance(new Properties())));
+        ReflectionTestUtils.setField(emailService, "emailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "mailBulkhead", new Bulkhead("mail", 1, Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(emailService, "mailExecutor", executor);
+        ReflectionTestUtils.setField(emailService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void commitHandsTheMessageToTheMailExecutor() {
+        TransactionSynchronizationManager.initSynchronization();
+        emailService.sendAfterCommit("a@example.com", "Invite", "<p>hi</p>");
+        assertThat(executor.queued).isEmpty();
+
+        // Commit: the committing thread only queues the send
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        assertThat(executor.queued).hasSize(1);
+        verify(mailSender, never()).send(any(MimeMessage.class));
+
+        executor.queued.getFirst().run();
+        verify(mailSender).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void rollbackSendsNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        emailService.sendAfterCommit("a@example.com", "Invite", "<p>hi</p>");
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertThat(executor.queued).isEmpty();
+    }
+
+    private static final class QueuingExecutor extends AbstractExecutorService {
+        final List<Runnable> queued = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.Project;
+import com.leorsun.projecthub.model.Task;
+import com.leorsun.projecthub.model.User;
+import com.leorsun.projecthub.repository.ProjectKeyCounterRepository;
+import com.leorsun.projecthub.repository.ProjectTaskCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(KeyAllocator.class)
+class KeyAllocatorTest {
+    @Autowired
+    private KeyAllocator keyAllocator;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ProjectKeyCounterRepository keyCounterRepository;
+    @Autowired
+    private ProjectTaskCounterRepository taskCounterRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(new User("owner", "owner@example.com", "secret"));
+    }
+
+    @Test
+    void generatedKeysCountUpFromTheBarePrefix() {
+        assertThat(keyAllocator.reserveProjectKey("Web App")).isEqualTo("WEBAPP");
+        assertThat(keyAllocator.reserveProjectKey("web-app")).isEqualTo("WEBAPP1");
+        assertThat(keyAllocator.reserveProjectKey("  Website Redesign  ")).isEqualTo("WEBSIT");
+        assertThat(keyAllocator.reserveProjectKey("WEBAPP!")).isEqualTo("WEBAPP2");
+        assertThat(keyAllocator.reserveProjectKey("???")).isEqualTo("PRJ");
+    }
+
+    @Test
+    void newPrefixContinuesAfterKeysAlreadyInUse() {
+        project("CORE");
+        project("CORE3");
+        project("CORE07");
+        project("COREX");
+
+        assertThat(keyAllocator.reserveProjectKey("Core")).isEqualTo("CORE4");
+    }
+
+    @Test
+    void explicitKeysOnGeneratedSlotsAreSkipped() {
+        assertThat(keyAllocator.reserveProjectKey("Ops")).isEqualTo("OPS");
+        project("OPS1");
+        project("OPS2");
+
+        assertThat(keyAllocator.reserveProjectKey("Ops")).isEqualTo("OPS3");
+    }
+
+    @Test
+    void taskNumbersArePerProject() {
+        Project first = project("ONE");
+        Project second = project("TWO");
+        keyAllocator.startTaskNumbers(first.getId());
+        keyAllocator.startTaskNumbers(second.getId());
+
+        assertThat(keyAllocator.nextTaskNumber(first.getId())).isEqualTo(1);
+        assertThat(keyAllocator.nextTaskNumber(first.getId())).isEqualTo(2);
+        assertThat(keyAllocator.nextTaskNumber(second.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void projectWithoutCounterContinuesAfterItsHighestNumber() {
+        Project legacy = project("OLD");
+        Task task = new Task();
+        task.setProject(legacy);
+        task.setTitle("numbered before the counter existed");
+        task.setNumber(41L);
+        em.persist(task);
+        em.flush();
+
+        assertThat(keyAllocator.nextTaskNumber(legacy.getId())).isEqualTo(42);
+        assertThat(keyAllocator.nextTaskNumber(legacy.getId())).isEqualTo(43);
+    }
+
+    @Test
+    void seedingARowAnotherTransactionSeededFirstKeepsItsCount() {
+        // What the second of two concurrent first allocations finds once the first has committed
+        Project project = project("API");
+        keyCounterRepository.insertIfAbsent("API", 0);
+        taskCounterRepository.insertIfAbsent(project.getId(), 7);
+
+        assertThat(keyCounterRepository.insertIfAbsent("API", -1)).isZero();
+        assertThat(taskCounterRepository.insertIfAbsent(project.getId(), 0)).isZero();
+        assertThat(keyAllocator.reserveProjectKey("Api")).isEqualTo("API1");
+        assertThat(keyAllocator.nextTaskNumber(project.getId())).isEqualTo(8);
+    }
+
+    private Project project(String key) {
+        Project project = new Project();
+        project.setName(key.toLowerCase());
+        project.setKey(key);
+        project.setOwner(owner);
+        return em.persistAndFlush(project);
+    }
+}
@@ -0,0 +1,38 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.responses.MemberSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberAutocompleteIndexTest {
+    private final ProjectMemberRepository memberRepository = mock(ProjectMemberRepository.class);
+    private final MemberAutocompleteIndex autocomplete = new MemberAutocompleteIndex(memberRepository, 1000, Duration.ofMinutes(1));
+
+    @Test
+    void aBuildOverlappingAMembershipChangeIsNotCached() {
+        MemberSuggestion alice = new MemberSuggestion(1L, "alice", "alice@example.com", ProjectRole.OWNER);
+        MemberSuggestion bob = new MemberSuggestion(2L, "bob", "bob@example.com", ProjectRole.MEMBER);
+        // Bob joins, and the index is invalidated, while the first build is still reading the old members
+        when(memberRepository.findSuggestionsByProjectId(7L))
+                .thenAnswer(inv -> {
+                    autocomplete.onMembershipChanged(new MembershipChangedEvent(7L, 2L));
+                    return List.of(alice);
+                })
+                .thenReturn(List.of(alice, bob));
+
+        assertThat(autocomplete.search(7L, "b", 10)).isEmpty();
+        assertThat(autocomplete.search(7L, "b", 10)).extracting(MemberSuggestion::getUserId).containsExactly(2L);
+        assertThat(autocomplete.search(7L, "a", 10)).extracting(MemberSuggestion::getUserId).containsExactly(1L);
+        verify(memberRepository, times(2)).findSuggestionsByProjectId(7L);
+    }
+}
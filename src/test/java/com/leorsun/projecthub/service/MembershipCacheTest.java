@@ -0,0 +1,99 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.repository.ProjectMemberRepository;
+import com.leorsun.projecthub.repository.ProjectMembershipVersionRepository;
+import com.leorsun.projecthub.repository.RoleAtVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MembershipCacheTest {
+    private final ProjectMemberRepository memberRepository = mock(ProjectMemberRepository.class);
+    private final ProjectMembershipVersionRepository versionRepository = mock(ProjectMembershipVersionRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MembershipCache cache = new MembershipCache(memberRepository, versionRepository,
+            new TransactionTemplate(transactionManager), 1000, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Test
+    void aLoadOverlappingAnEvictionIsNotCached() {
+        // The member is removed (and the entry evicted) while the first lookup is still reading the old row
+        when(memberRepository.findRoleAtVersion(1L, 2L))
+                .thenAnswer(inv -> {
+                    cache.onMembershipChanged(new MembershipChangedEvent(1L, 2L));
+                    return member(ProjectRole.MEMBER, 0);
+                })
+                .thenReturn(member(null, 0));
+
+        assertThat(cache.getRole(1L, 2L)).contains(ProjectRole.MEMBER);
+        assertThat(cache.getRole(1L, 2L)).isEmpty();
+        assertThat(cache.getRole(1L, 2L)).isEmpty();
+        verify(memberRepository, times(2)).findRoleAtVersion(1L, 2L);
+    }
+
+    @Test
+    void aProjectWideEvictionAlsoDropsLoadsInFlight() {
+        when(memberRepository.findRoleAtVersion(1L, 2L))
+                .thenAnswer(inv -> {
+                    cache.onMembershipChanged(MembershipChangedEvent.wholeProject(1L));
+                    return member(ProjectRole.OWNER, 0);
+                })
+                .thenReturn(member(null, 0));
+
+        cache.getRole(1L, 2L);
+        assertThat(cache.getRole(1L, 2L)).isEmpty();
+    }
+
+    @Test
+    void aMissInsideATransactionIsReadOnItsConnection() {
+        when(memberRepository.findRoleAtVersion(1L, 2L)).thenReturn(member(ProjectRole.VIEWER, 0));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertThat(cache.getRole(1L, 2L)).contains(ProjectRole.VIEWER);
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+        verify(transactionManager, never()).getTransaction(any());
+
+        assertThat(cache.getRole(3L, 2L)).isEmpty();
+        verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void aChangeMadeThroughAnotherNodeIsPickedUpOnceTheVersionMoves() {
+        // Re-reads the version on every check
+        MembershipCache revalidating = new MembershipCache(memberRepository, versionRepository,
+                new TransactionTemplate(transactionManager), 1000, Duration.ofMinutes(1), Duration.ZERO);
+        when(memberRepository.findRoleAtVersion(1L, 2L)).thenReturn(member(ProjectRole.ADMIN, 3));
+        when(versionRepository.findVersion(1L)).thenReturn(Optional.of(3L));
+
+        assertThat(revalidating.getRole(1L, 2L)).contains(ProjectRole.ADMIN);
+        assertThat(revalidating.getRole(1L, 2L)).contains(ProjectRole.ADMIN);
+        verify(memberRepository).findRoleAtVersion(1L, 2L);
+
+        // Another node demoted the user; no event reaches this one
+        when(versionRepository.findVersion(1L)).thenReturn(Optional.of(4L));
+        when(memberRepository.findRoleAtVersion(1L, 2L)).thenReturn(member(ProjectRole.VIEWER, 4));
+
+        assertThat(revalidating.getRole(1L, 2L)).contains(ProjectRole.VIEWER);
+        assertThat(revalidating.getRole(1L, 2L)).contains(ProjectRole.VIEWER);
+        verify(memberRepository, times(2)).findRoleAtVersion(1L, 2L);
+    }
+
+    private static Optional<RoleAtVersion> member(ProjectRole role, long version) {
+        return Optional.of(new RoleAtVersion(role, version));
+    }
+}
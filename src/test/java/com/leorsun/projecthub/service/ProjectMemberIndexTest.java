@@ -0,0 +1,36 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.ProjectRole;
+import com.leorsun.projecthub.responses.MemberSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectMemberIndexTest {
+    private final ProjectMemberIndex index = ProjectMemberIndex.build(List.of(
+            new MemberSuggestion(1L, "Alice", "alice@example.com", ProjectRole.OWNER),
+            new MemberSuggestion(2L, "albert", "bert@example.com", ProjectRole.MEMBER),
+            new MemberSuggestion(3L, "carol", "al.c@example.com", ProjectRole.VIEWER)
+    ));
+
+    @Test
+    void matchesUsernameOrEmailPrefixOncePerMember() {
+        assertThat(index.search("AL", 10)).extracting(MemberSuggestion::getUserId).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("bert", 10)).extracting(MemberSuggestion::getUserId).containsExactly(2L);
+        assertThat(index.search("zed", 10)).isEmpty();
+    }
+
+    @Test
+    void aMemberMatchingTwiceTakesOneSlot() {
+        // "al" matches both of Alice's keys; the limit still yields two distinct members
+        assertThat(index.search("al", 2)).extracting(MemberSuggestion::getUserId).containsExactly(3L, 2L);
+        assertThat(index.search("alice", 10)).extracting(MemberSuggestion::getUserId).containsExactly(1L);
+    }
+
+    @Test
+    void honoursLimit() {
+        assertThat(index.search("", 2)).hasSize(2);
+    }
+}
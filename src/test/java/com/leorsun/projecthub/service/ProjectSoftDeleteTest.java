@@ -0,0 +1,98 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.CreateProjectDto;
+import com.leorsun.projecthub.dto.CreateTaskDto;
+import com.leorsun.projecthub.model.Project;
+import com.leorsun.projecthub.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A soft-deleted project disappears for its members right away, long before the purge removes their rows.
+ * Runs against committed transactions so the membership cache is evicted as it is in production.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProjectService.class, TaskService.class, KeyAllocator.class, TaskGraphLocks.class, MembershipCache.class, MemberAutocompleteIndex.class,
+        BoardFilterService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProjectSoftDeleteTest {
+    @MockitoBean
+    private EmailService emailService;
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager em;
+
+    private TransactionTemplate tx;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            owner = new User("owner", "owner@example.com", "secret");
+            em.persist(owner);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Task").executeUpdate();
+            em.createQuery("delete from ProjectDeletion").executeUpdate();
+            em.createQuery("delete from ProjectMember").executeUpdate();
+            em.createQuery("delete from ProjectTaskCounter").executeUpdate();
+            em.createQuery("delete from Project").executeUpdate();
+            em.createQuery("delete from ProjectKeyCounter").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    void deletedProjectIsClosedToItsMembers() {
+        CreateProjectDto project = new CreateProjectDto();
+        project.setName("Board");
+        Long projectId = projectService.createProject(owner, project).getId();
+        CreateTaskDto task = new CreateTaskDto();
+        task.setTitle("Before");
+        taskService.createTask(owner, projectId, task);
+        // Warm the role cache, as a member browsing the board would
+        assertThat(taskService.listTasks(owner, projectId)).hasSize(1);
+
+        projectService.deleteProject(owner, projectId);
+
+        assertClosed(() -> taskService.listTasks(owner, projectId));
+        assertClosed(() -> projectService.listMembers(owner, projectId));
+        assertClosed(() -> taskService.createTask(owner, projectId, task));
+        Boolean deleted = tx.execute(status -> em.find(Project.class, projectId).isDeleted());
+        assertThat(deleted).isTrue();
+    }
+
+    private static void assertClosed(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isIn(HttpStatus.NOT_FOUND, HttpStatus.FORBIDDEN));
+    }
+}
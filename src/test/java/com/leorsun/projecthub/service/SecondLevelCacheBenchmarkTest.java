@@ -0,0 +1,162 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.UpdateProjectDto;
+import com.leorsun.projecthub.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getProject + listMembers as a request would run them (one transaction each, member users touched as the
+ * JSON serializer would), with the second-level cache cleared before every call versus left warm.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        // Keeps MembershipCache's version re-read out of the warm loop, which measures the Hibernate caches
+        "projecthub.membership-cache.revalidate=1h"
+})
+@ActiveProfiles("test")
+@Import({ProjectService.class, KeyAllocator.class, MembershipCache.class, MemberAutocompleteIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheBenchmarkTest {
+    private static final int MEMBERS = 25;
+    private static final int ITERATIONS = 200;
+
+    @MockitoBean
+    private EmailService emailService;
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager em;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private User owner;
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            owner = new User("owner", "owner@example.com", "secret");
+            em.persist(owner);
+            Project project = new Project();
+            project.setName("Cached");
+            project.setKey("CCH");
+            project.setOwner(owner);
+            em.persist(project);
+            projectId = project.getId();
+            member(project, owner, ProjectRole.OWNER);
+            for (int i = 0; i < MEMBERS - 1; i++) {
+                User user = new User("user" + i, "user" + i + "@example.com", "secret");
+                em.persist(user);
+                member(project, user, ProjectRole.MEMBER);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from ProjectMember").executeUpdate();
+            em.createQuery("delete from Project").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    void warmCacheServesProjectAndMembersWithoutStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long coldNanos = 0;
+        long coldStatements = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            entityManagerFactory.getCache().evictAll();
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            statistics.clear();
+            long start = System.nanoTime();
+            request();
+            coldNanos += System.nanoTime() - start;
+            coldStatements += statistics.getPrepareStatementCount();
+        }
+
+        request();
+        statistics.clear();
+        long warmStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request();
+        }
+        long warmNanos = System.nanoTime() - warmStart;
+        long warmStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("getProject+listMembers (%d members) x%d: cold %.1f statements, %.3f ms/op; warm %.1f statements, %.3f ms/op%n",
+                MEMBERS, ITERATIONS,
+                (double) coldStatements / ITERATIONS, coldNanos / 1e6 / ITERATIONS,
+                (double) warmStatements / ITERATIONS, warmNanos / 1e6 / ITERATIONS);
+        assertThat(coldStatements / ITERATIONS).isGreaterThanOrEqualTo(2);
+        assertThat(warmStatements).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(ITERATIONS);
+    }
+
+    @Test
+    void writesThroughTheServiceInvalidateCachedEntries() {
+        request();
+        projectService.updateProject(owner, projectId, renameTo("Renamed"));
+        String name = tx.execute(status -> projectService.getProject(owner, projectId).getName());
+        assertThat(name).isEqualTo("Renamed");
+
+        projectService.removeMember(owner, projectId, memberIds().get(1));
+        assertThat(memberIds()).hasSize(MEMBERS - 2);
+    }
+
+    private void request() {
+        tx.executeWithoutResult(status -> {
+            projectService.getProject(owner, projectId).getOwner().getUsername();
+            for (ProjectMember member : projectService.listMembers(owner, projectId)) {
+                member.getUser().getUsername();
+            }
+        });
+    }
+
+    private List<Long> memberIds() {
+        return tx.execute(status -> projectService.listMembers(owner, projectId).stream()
+                .map(m -> m.getUser().getId()).filter(id -> !id.equals(owner.getId())).toList());
+    }
+
+    private static UpdateProjectDto renameTo(String name) {
+        UpdateProjectDto dto = new UpdateProjectDto();
+        dto.setName(name);
+        return dto;
+    }
+
+    private void member(Project project, User user, ProjectRole role) {
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(user);
+        member.setRole(role);
+        em.persist(member);
+    }
+}
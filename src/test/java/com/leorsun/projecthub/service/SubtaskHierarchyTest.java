@@ -0,0 +1,181 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.CreateTaskDto;
+import com.leorsun.projecthub.dto.MoveTaskDto;
+import com.leorsun.projecthub.dto.UpdateTaskDto;
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.responses.SubtaskSummary;
+import com.leorsun.projecthub.responses.TaskRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TaskService.class, SubtaskService.class, KeyAllocator.class, TaskGraphLocks.class, MembershipCache.class, BoardFilterService.class})
+class SubtaskHierarchyTest {
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private SubtaskService subtaskService;
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private Project project;
+    private Task epic;
+    private Task story;
+    private Task otherStory;
+    private Task subtask;
+    private Task otherSubtask;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(new User("owner", "owner@example.com", "secret"));
+        project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(owner);
+        em.persist(project);
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member.setRole(ProjectRole.OWNER);
+        em.persist(member);
+        em.flush();
+
+        epic = create("Epic", null);
+        story = create("Story", epic);
+        otherStory = create("Other story", epic);
+        subtask = create("Subtask", story);
+        otherSubtask = create("Other subtask", story);
+    }
+
+    @Test
+    void subtreeAndRollupsFollowStatusChanges() {
+        assertThat(subtaskService.listSubtasks(owner, epic.getId(), null))
+                .extracting(SubtaskSummary::getId, SubtaskSummary::getParentId, SubtaskSummary::getDepth)
+                .containsExactly(
+                        tuple(story.getId(), epic.getId(), 1),
+                        tuple(otherStory.getId(), epic.getId(), 1),
+                        tuple(subtask.getId(), story.getId(), 2),
+                        tuple(otherSubtask.getId(), story.getId(), 2));
+        assertThat(subtaskService.listSubtasks(owner, epic.getId(), 1)).hasSize(2);
+        assertThat(rollup(epic)).containsExactly(4, 0);
+
+        MoveTaskDto done = new MoveTaskDto();
+        done.setStatus(TaskStatus.DONE);
+        taskService.moveTask(owner, subtask.getId(), done);
+        assertThat(rollup(epic)).containsExactly(4, 1);
+        assertThat(rollup(story)).containsExactly(2, 1);
+        assertThat(rollup(otherStory)).containsExactly(0, 0);
+
+        TaskRollup breakdown = subtaskService.rollup(owner, epic.getId());
+        assertThat(breakdown.getByStatus()).isEqualTo(Map.of(TaskStatus.TODO, 3L, TaskStatus.DONE, 1L));
+
+        UpdateTaskDto reopen = new UpdateTaskDto();
+        reopen.setStatus(TaskStatus.DOING);
+        taskService.updateTask(owner, subtask.getId(), reopen);
+        assertThat(rollup(epic)).containsExactly(4, 0);
+        assertThat(rollup(story)).containsExactly(2, 0);
+    }
+
+    @Test
+    void movingASubtreeRelinksItAndRecountsBothSides() {
+        MoveTaskDto done = new MoveTaskDto();
+        done.setStatus(TaskStatus.DONE);
+        taskService.moveTask(owner, subtask.getId(), done);
+
+        subtaskService.setParent(owner, story.getId(), otherStory.getId());
+        assertThat(rollup(otherStory)).containsExactly(3, 1);
+        assertThat(rollup(epic)).containsExactly(4, 1);
+        assertThat(subtaskService.listSubtasks(owner, otherStory.getId(), null))
+                .extracting(SubtaskSummary::getId, SubtaskSummary::getDepth)
+                .containsExactly(tuple(story.getId(), 1), tuple(subtask.getId(), 2), tuple(otherSubtask.getId(), 2));
+        assertThat(subtaskService.listSubtasks(owner, epic.getId(), null))
+                .filteredOn(s -> s.getId().equals(subtask.getId()))
+                .extracting(SubtaskSummary::getDepth).containsExactly(3);
+
+        // A task cannot end up under its own subtree
+        assertThatThrownBy(() -> subtaskService.setParent(owner, epic.getId(), subtask.getId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        subtaskService.setParent(owner, story.getId(), null);
+        assertThat(rollup(epic)).containsExactly(1, 0);
+        assertThat(rollup(otherStory)).containsExactly(0, 0);
+        assertThat(rollup(story)).containsExactly(2, 1);
+        assertThat(reload(story).getParentId()).isNull();
+    }
+
+    @Test
+    void movesReadTheStatusAndParentUnderTheHierarchyLock() {
+        // Another transaction already moved the subtask to done; this context still holds it as todo
+        em.clear();
+        em.find(Task.class, subtask.getId());
+        native_("update tasks set status = 'DONE' where id = " + subtask.getId());
+        native_("update tasks set subtasks_done = 1 where id in (" + story.getId() + ", " + epic.getId() + ")");
+
+        MoveTaskDto done = new MoveTaskDto();
+        done.setStatus(TaskStatus.DONE);
+        taskService.moveTask(owner, subtask.getId(), done);
+        assertThat(rollup(story)).containsExactly(2, 1);
+        assertThat(rollup(epic)).containsExactly(4, 1);
+
+        // A task read as top-level that gained a parent meanwhile is not updated without the lock
+        Task loose = create("Loose", null);
+        em.clear();
+        em.find(Task.class, loose.getId());
+        native_("update tasks set parent_id = " + otherStory.getId() + " where id = " + loose.getId());
+        assertThatThrownBy(() -> taskService.moveTask(owner, loose.getId(), done))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void tasksWithSubtasksCannotBeDeleted() {
+        assertThatThrownBy(() -> taskService.deleteTask(owner, story.getId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        taskService.deleteTask(owner, subtask.getId());
+        assertThat(rollup(story)).containsExactly(1, 0);
+        assertThat(rollup(epic)).containsExactly(3, 0);
+        assertThat(subtaskService.listSubtasks(owner, epic.getId(), null)).hasSize(3);
+    }
+
+    private Task create(String title, Task parent) {
+        CreateTaskDto dto = new CreateTaskDto();
+        dto.setTitle(title);
+        dto.setParentId(parent == null ? null : parent.getId());
+        Task task = taskService.createTask(owner, project.getId(), dto);
+        em.flush();
+        return task;
+    }
+
+    private void native_(String sql) {
+        em.getEntityManager().createNativeQuery(sql).executeUpdate();
+    }
+
+    private Task reload(Task task) {
+        em.clear();
+        return em.find(Task.class, task.getId());
+    }
+
+    private Integer[] rollup(Task task) {
+        Task fresh = reload(task);
+        return new Integer[]{fresh.getSubtaskCount(), fresh.getSubtasksDone()};
+    }
+}
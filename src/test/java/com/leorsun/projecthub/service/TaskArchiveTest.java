@@ -0,0 +1,210 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.repository.ArchivedTaskLabelRepository;
+import com.leorsun.projecthub.repository.ArchivedTaskRepository;
+import com.leorsun.projecthub.repository.TaskLabelRepository;
+import com.leorsun.projecthub.repository.TaskRepository;
+import com.leorsun.projecthub.responses.ArchivedTaskPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Archival round trip against committed rows: only long-finished tasks leave the board, archived ones can be
+ * paged and searched, and a restore brings a task back under its old id and number.
+ */
+@DataJpaTest(properties = {"projecthub.archive.enabled=false", "projecthub.archive.batch-size=2"})
+@ActiveProfiles("test")
+@Import({TaskArchiveWorker.class, TaskArchiveService.class, MembershipCache.class, BoardFilterService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskArchiveTest {
+    @Autowired
+    private TaskArchiveWorker worker;
+    @Autowired
+    private TaskArchiveService archiveService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+    @Autowired
+    private TaskLabelRepository taskLabelRepository;
+    @Autowired
+    private ArchivedTaskLabelRepository archivedTaskLabelRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager em;
+
+    private TransactionTemplate tx;
+    private int nextOrderIndex;
+    private User owner;
+    private User outsider;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            owner = new User("owner", "owner@example.com", "secret");
+            outsider = new User("outsider", "outsider@example.com", "secret");
+            em.persist(owner);
+            em.persist(outsider);
+            project = new Project();
+            project.setName("Board");
+            project.setKey("BRD");
+            project.setOwner(owner);
+            em.persist(project);
+            ProjectMember member = new ProjectMember();
+            member.setProject(project);
+            member.setUser(owner);
+            member.setRole(ProjectRole.OWNER);
+            em.persist(member);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from ArchivedTask").executeUpdate();
+            em.createQuery("delete from Task").executeUpdate();
+            em.createQuery("delete from Label").executeUpdate();
+            em.createQuery("delete from ProjectMember").executeUpdate();
+            em.createQuery("delete from Project").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    void archivesOnlyTasksDoneBeforeTheCutoff() {
+        Long oldDone1 = task("Old release notes", TaskStatus.DONE, 40);
+        Long oldDone2 = task("Old migration", TaskStatus.DONE, 35);
+        Long oldDone3 = task("Old cleanup", TaskStatus.DONE, 31);
+        Long recentDone = task("Recent fix", TaskStatus.DONE, 2);
+        Long oldOpen = task("Stale idea", TaskStatus.TODO, 90);
+
+        // Batches of two: the loop has to go round until a short batch
+        assertThat(worker.archiveDoneBefore(LocalDateTime.now().minusDays(30))).isEqualTo(3);
+
+        assertThat(taskRepository.findAllById(List.of(oldDone1, oldDone2, oldDone3))).isEmpty();
+        assertThat(taskRepository.existsById(recentDone)).isTrue();
+        assertThat(taskRepository.existsById(oldOpen)).isTrue();
+        assertThat(archivedTaskRepository.count()).isEqualTo(3);
+        assertThat(worker.archiveDoneBefore(LocalDateTime.now().minusDays(30))).isZero();
+    }
+
+    @Test
+    void archivedTasksArePagedSearchedAndGuarded() {
+        for (int i = 0; i < 5; i++) {
+            task("Report " + i, TaskStatus.DONE, 40 + i);
+        }
+        task("Budget 100%", TaskStatus.DONE, 50);
+        worker.archiveDoneBefore(LocalDateTime.now().minusDays(30));
+
+        ArchivedTaskPage first = archiveService.listArchived(owner, project.getId(), null, null, 4);
+        assertThat(first.getTasks()).hasSize(4);
+        assertThat(first.getNextCursor()).isNotNull();
+        ArchivedTaskPage second = archiveService.listArchived(owner, project.getId(), null, first.getNextCursor(), 4);
+        assertThat(second.getTasks()).hasSize(2);
+        assertThat(second.getTasks()).extracting(ArchivedTask::getId)
+                .doesNotContainAnyElementsOf(first.getTasks().stream().map(ArchivedTask::getId).toList());
+
+        assertThat(archiveService.listArchived(owner, project.getId(), "REPORT", null, null).getTasks()).hasSize(5);
+        assertThat(archiveService.listArchived(owner, project.getId(), "100%", null, null).getTasks())
+                .extracting(ArchivedTask::getTitle).containsExactly("Budget 100%");
+        assertThat(archiveService.listArchived(owner, project.getId(), "0%", null, null).getTasks()).hasSize(1);
+
+        Long id = first.getTasks().get(0).getId();
+        assertThat(archiveService.getArchived(owner, id).getReporter().getUsername()).isEqualTo("owner");
+        assertThatThrownBy(() -> archiveService.getArchived(outsider, id)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> archiveService.listArchived(outsider, project.getId(), null, null, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> archiveService.listArchived(owner, project.getId(), null, "not-a-cursor", null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void restorePutsTheTaskBackUnderItsOldIdAndNumber() {
+        Long id = task("Ship it", TaskStatus.DONE, 40);
+        task("Still done", TaskStatus.DONE, 1);
+        worker.archiveDoneBefore(LocalDateTime.now().minusDays(30));
+
+        Task restored = archiveService.restore(owner, id);
+
+        assertThat(restored.getId()).isEqualTo(id);
+        assertThat(restored.getNumber()).isEqualTo(id);
+        assertThat(restored.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(restored.getOrderIndex()).isEqualTo(2);
+        assertThat(restored.getUpdatedAt()).isAfter(LocalDateTime.now().minusMinutes(1));
+        assertThat(archivedTaskRepository.existsById(id)).isFalse();
+        assertThatThrownBy(() -> archiveService.restore(owner, id)).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void labelsSurviveTheRoundTripUnlessDeletedMeanwhile() {
+        Long id = task("Labelled", TaskStatus.DONE, 40);
+        Long bug = label("bug");
+        Long ui = label("ui");
+        tx.executeWithoutResult(s -> {
+            taskLabelRepository.link(id, bug);
+            taskLabelRepository.link(id, ui);
+        });
+        worker.archiveDoneBefore(LocalDateTime.now().minusDays(30));
+        assertThat(taskLabelRepository.count()).isZero();
+        assertThat(archivedTaskLabelRepository.count()).isEqualTo(2);
+
+        // A label deleted while the task is archived stays deleted
+        tx.executeWithoutResult(s -> em.createQuery("delete from Label l where l.id = :id").setParameter("id", ui).executeUpdate());
+        archiveService.restore(owner, id);
+
+        assertThat(taskLabelRepository.findLabelsOfTask(id)).extracting(Label::getId).containsExactly(bug);
+        assertThat(archivedTaskLabelRepository.count()).isZero();
+    }
+
+    private Long label(String name) {
+        return tx.execute(s -> {
+            Label label = new Label();
+            label.setProject(project);
+            label.setName(name);
+            em.persist(label);
+            return label.getId();
+        });
+    }
+
+    // A task last touched daysAgo; number mirrors the id so tests can check it survives the round trip
+    private Long task(String title, TaskStatus status, int daysAgo) {
+        return tx.execute(s -> {
+            Task task = new Task();
+            task.setProject(project);
+            task.setTitle(title);
+            task.setStatus(status);
+            task.setReporter(owner);
+            task.setOrderIndex(nextOrderIndex++);
+            em.persist(task);
+            task.setNumber(task.getId());
+            em.flush();
+            em.createQuery("update Task t set t.updatedAt = :at where t.id = :id")
+                    .setParameter("at", LocalDateTime.now().minusDays(daysAgo))
+                    .setParameter("id", task.getId())
+                    .executeUpdate();
+            return task.getId();
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.AssignTaskDto;
+import com.leorsun.projecthub.dto.MoveTaskDto;
+import com.leorsun.projecthub.dto.UpdateTaskDto;
+import com.leorsun.projecthub.model.*;
+import com.leorsun.projecthub.responses.TaskSummary;
+import com.leorsun.projecthub.responses.TaskSummaryPage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TaskService.class, KeyAllocator.class, TaskGraphLocks.class, MembershipCache.class, BoardFilterService.class})
+class TaskServiceQueryCountTest {
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User outsider;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(enabledUser("owner"));
+        outsider = em.persist(enabledUser("outsider"));
+
+        Project project = new Project();
+        project.setName("Board");
+        project.setKey("BRD");
+        project.setOwner(owner);
+        em.persist(project);
+
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setUser(owner);
+        member.setRole(ProjectRole.OWNER);
+        em.persist(member);
+
+        for (int i = 0; i < 3; i++) {
+            Task t = new Task();
+            t.setProject(project);
+            t.setTitle("Task " + i);
+            t.setReporter(owner);
+            t.setAssignee(owner);
+            t.setOrderIndex(i);
+            task = em.persist(t);
+        }
+        em.flush();
+        em.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void moveUsesAtMostTwoStatements() {
+        MoveTaskDto dto = new MoveTaskDto();
+        dto.setStatus(TaskStatus.DOING);
+
+        Task moved = taskService.moveTask(owner, task.getId(), dto);
+
+        assertThat(statementCount()).isLessThanOrEqualTo(2);
+        assertThat(moved.getStatus()).isEqualTo(TaskStatus.DOING);
+        assertThat(moved.getOrderIndex()).isZero();
+        assertThat(em.find(Task.class, task.getId()).getStatus()).isEqualTo(TaskStatus.DOING);
+    }
+
+    @Test
+    void assignUsesAtMostTwoStatements() {
+        AssignTaskDto dto = new AssignTaskDto();
+        dto.setAssigneeId(null);
+
+        Task assigned = taskService.assignTask(owner, task.getId(), dto);
+
+        assertThat(statementCount()).isLessThanOrEqualTo(2);
+        assertThat(assigned.getAssignee()).isNull();
+        assertThat(em.find(Task.class, task.getId()).getAssignee()).isNull();
+    }
+
+    @Test
+    void updateUsesAtMostTwoStatements() {
+        UpdateTaskDto dto = new UpdateTaskDto();
+        dto.setTitle("Renamed");
+        dto.setStatus(TaskStatus.DONE);
+        dto.setAssigneeId(outsider.getId());
+
+        Task updated = taskService.updateTask(owner, task.getId(), dto);
+
+        assertThat(statementCount()).isLessThanOrEqualTo(2);
+        assertThat(updated.getTitle()).isEqualTo("Renamed");
+        assertThat(updated.getAssignee().getId()).isEqualTo(outsider.getId());
+        assertThat(em.find(Task.class, task.getId()).getTitle()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void deleteUsesAtMostTwoStatements() {
+        taskService.deleteTask(owner, task.getId());
+
+        assertThat(statementCount()).isLessThanOrEqualTo(2);
+        assertThat(em.find(Task.class, task.getId())).isNull();
+    }
+
+    @Test
+    void myTasksRunIntoUndatedTasksWithinOnePage() {
+        // None of the tasks has a due date: the first page reads the empty dated part, then the undated one
+        TaskSummaryPage first = taskService.listMyTasks(owner, "all", null, null, null, null, 2);
+        assertThat(first.getTasks()).hasSize(2);
+        assertThat(statementCount()).isEqualTo(2);
+
+        statistics().clear();
+        TaskSummaryPage second = taskService.listMyTasks(owner, "all", null, null, null, first.getNextCursor(), 2);
+        assertThat(second.getTasks()).extracting(TaskSummary::getId).containsExactly(task.getId());
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(statementCount()).isEqualTo(1);
+
+        assertThat(taskService.listMyTasks(owner, "assigned", null, null, LocalDate.of(2030, 1, 1), null, 2).getTasks()).isEmpty();
+    }
+
+    @Test
+    void nonMemberIsRejectedFromTheSameLookup() {
+        assertThatThrownBy(() -> taskService.moveTask(outsider, task.getId(), new MoveTaskDto()))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Not a project member");
+        assertThat(statementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void taskResolvesByKeyInOneStatement() {
+        Task numbered = em.find(Task.class, task.getId());
+        numbered.setNumber(7L);
+        em.flush();
+        em.clear();
+        statistics().clear();
+
+        Task found = taskService.getTaskByKey(owner, "brd-7");
+
+        assertThat(statementCount()).isEqualTo(1);
+        assertThat(found.getId()).isEqualTo(task.getId());
+        assertThatThrownBy(() -> taskService.getTaskByKey(outsider, "BRD-7"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Not a project member");
+        assertThatThrownBy(() -> taskService.getTaskByKey(owner, "BRD-8"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Task not found");
+        assertThatThrownBy(() -> taskService.getTaskByKey(owner, "BRD"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("KEY-123");
+    }
+
+    @Test
+    void missingTaskIsNotFound() {
+        assertThatThrownBy(() -> taskService.getTask(owner, -1L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Task not found");
+    }
+
+    private long statementCount() {
+        em.flush();
+        return statistics().getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static User enabledUser(String name) {
+        User user = new User(name, name + "@example.com", "secret");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,149 @@
+package com.leorsun.projecthub.service;
+
+import com.leorsun.projecthub.dto.*;
+import com.leorsun.projecthub.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each service use case should commit exactly once, as it would when called from a controller (no
+ * surrounding transaction). Counts come from Hibernate's transaction statistics.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProjectService.class, TaskService.class, KeyAllocator.class, TaskGraphLocks.class, MembershipCache.class, MemberAutocompleteIndex.class, BoardFilterService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionBoundaryTest {
+    @MockitoBean
+    private EmailService emailService;
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager em;
+
+    private TransactionTemplate tx;
+    private User owner;
+    private User invitee;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            owner = new User("owner", "owner@example.com", "secret");
+            invitee = new User("invitee", "invitee@example.com", "secret");
+            em.persist(owner);
+            em.persist(invitee);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Task").executeUpdate();
+            em.createQuery("delete from ProjectInvite").executeUpdate();
+            em.createQuery("delete from ProjectMember").executeUpdate();
+            em.createQuery("delete from Project").executeUpdate();
+            em.createQuery("delete from ProjectTaskCounter").executeUpdate();
+            em.createQuery("delete from ProjectKeyCounter").executeUpdate();
+            em.createQuery("delete from User").executeUpdate();
+        });
+    }
+
+    @Test
+    void everyUseCaseCommitsOnce() {
+        Project project = commitsOnce("createProject", () -> projectService.createProject(owner, createProject("Board")));
+        Long projectId = project.getId();
+
+        commitsOnce("updateProject", () -> projectService.updateProject(owner, projectId, renameTo("Renamed")));
+        ProjectInvite invite = commitsOnce("invite", () -> projectService.invite(owner, projectId, inviteTo(invitee.getEmail())));
+        commitsOnce("acceptInvite", () -> {
+            projectService.acceptInvite(invitee, invite.getToken());
+            return null;
+        });
+        commitsOnce("removeMember", () -> {
+            projectService.removeMember(owner, projectId, invitee.getId());
+            return null;
+        });
+
+        Task task = commitsOnce("createTask", () -> taskService.createTask(owner, projectId, createTask("First")));
+        commitsOnce("moveTask", () -> taskService.moveTask(owner, task.getId(), moveTo(TaskStatus.DOING)));
+        commitsOnce("updateTask", () -> taskService.updateTask(owner, task.getId(), new UpdateTaskDto()));
+        commitsOnce("assignTask", () -> taskService.assignTask(owner, task.getId(), new AssignTaskDto()));
+        commitsOnce("listTasks", () -> taskService.listTasks(owner, projectId));
+        commitsOnce("getProject", () -> projectService.getProject(owner, projectId));
+        commitsOnce("listMembers", () -> projectService.listMembers(owner, projectId));
+        commitsOnce("deleteTask", () -> {
+            taskService.deleteTask(owner, task.getId());
+            return null;
+        });
+        commitsOnce("deleteProject", () -> {
+            projectService.deleteProject(owner, projectId);
+            return null;
+        });
+    }
+
+    private <T> T commitsOnce(String useCase, Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = call.get();
+        System.out.printf("%-14s commits=%d statements=%d%n", useCase,
+                statistics.getSuccessfulTransactionCount(), statistics.getPrepareStatementCount());
+        assertThat(statistics.getSuccessfulTransactionCount()).as(useCase + " commits").isEqualTo(1);
+        return result;
+    }
+
+    private static CreateProjectDto createProject(String name) {
+        CreateProjectDto dto = new CreateProjectDto();
+        dto.setName(name);
+        return dto;
+    }
+
+    private static UpdateProjectDto renameTo(String name) {
+        UpdateProjectDto dto = new UpdateProjectDto();
+        dto.setName(name);
+        return dto;
+    }
+
+    private static InviteRequestDto inviteTo(String email) {
+        InviteRequestDto dto = new InviteRequestDto();
+        dto.setEmail(email);
+        return dto;
+    }
+
+    private static CreateTaskDto createTask(String title) {
+        CreateTaskDto dto = new CreateTaskDto();
+        dto.setTitle(title);
+        return dto;
+    }
+
+    private static MoveTaskDto moveTo(TaskStatus status) {
+        MoveTaskDto dto = new MoveTaskDto();
+        dto.setStatus(status);
+        return dto;
+    }
+}
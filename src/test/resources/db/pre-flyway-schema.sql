@@ -0,0 +1,89 @@
+-- The schema spring.jpa.hibernate.ddl-auto=update created before the Flyway migrations, Hibernate's generated
+-- constraint names included; PostgresSchemaTest baselines a database in this state.
+
+create sequence project_invites_seq start with 1 increment by 50;
+
+create sequence project_members_seq start with 1 increment by 50;
+
+create sequence projects_seq start with 1 increment by 50;
+
+create sequence tasks_seq start with 1 increment by 50;
+
+create sequence users_seq start with 1 increment by 50;
+
+create table project_invites (
+    accepted_at timestamp(6),
+    created_at timestamp(6),
+    expires_at timestamp(6),
+    id bigint not null,
+    invited_by bigint not null,
+    project_id bigint not null,
+    email varchar(255) not null,
+    role varchar(255) not null check (role in ('OWNER','ADMIN','MEMBER','VIEWER')),
+    token varchar(255) not null unique,
+    primary key (id)
+);
+
+create table project_members (
+    id bigint not null,
+    joined_at timestamp(6),
+    project_id bigint not null,
+    user_id bigint not null,
+    role varchar(255) not null check (role in ('OWNER','ADMIN','MEMBER','VIEWER')),
+    primary key (id),
+    constraint uk_project_user unique (project_id, user_id)
+);
+
+create table projects (
+    created_at timestamp(6),
+    id bigint not null,
+    owner_id bigint not null,
+    updated_at timestamp(6),
+    description varchar(2000),
+    name varchar(255) not null,
+    project_key varchar(255) not null unique,
+    primary key (id)
+);
+
+create table tasks (
+    due_date date,
+    order_index integer,
+    assignee_id bigint,
+    created_at timestamp(6),
+    id bigint not null,
+    project_id bigint not null,
+    reporter_id bigint,
+    updated_at timestamp(6),
+    description varchar(5000),
+    priority varchar(255) not null check (priority in ('LOW','MEDIUM','HIGH')),
+    status varchar(255) not null check (status in ('TODO','DOING','DONE')),
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table users (
+    enabled boolean not null,
+    id bigint not null,
+    verification_expiration timestamp(6),
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    verification_code varchar(255),
+    primary key (id)
+);
+
+alter table if exists project_invites add constraint FKj9xsis4omqccbqd0nrvnxw1yx foreign key (invited_by) references users;
+
+alter table if exists project_invites add constraint FK9h5ds8m1eeyvjdgyc2q9g49ol foreign key (project_id) references projects;
+
+alter table if exists project_members add constraint FKdki1sp2homqsdcvqm9yrix31g foreign key (project_id) references projects;
+
+alter table if exists project_members add constraint FKgul2el0qjk5lsvig3wgajwm77 foreign key (user_id) references users;
+
+alter table if exists projects add constraint FKmueqy6cpcwpfl8gnnag4idjt9 foreign key (owner_id) references users;
+
+alter table if exists tasks add constraint FKekr1dgiqktpyoip3qmp6lxsit foreign key (assignee_id) references users;
+
+alter table if exists tasks add constraint FKsfhn82y57i3k9uxww1s007acc foreign key (project_id) references projects;
+
+alter table if exists tasks add constraint FKbvjdsa9y725wovwlq4sjhodyk foreign key (reporter_id) references users;